@@ -0,0 +1,8 @@
+package io.github.anirudhk_tech.janus.agent;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AgentProperties.class)
+class AgentConfig {}
@@ -0,0 +1,97 @@
+package io.github.anirudhk_tech.janus.agent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "janus.agent")
+public class AgentProperties {
+
+    private String mode = "llm";
+    private final PlanCache planCache = new PlanCache();
+    private final SchemaPruning schemaPruning = new SchemaPruning();
+    private List<Template> templates = new ArrayList<>();
+
+    public String getMode() { return mode; }
+    public void setMode(String mode) { this.mode = mode; }
+
+    public PlanCache getPlanCache() { return planCache; }
+
+    public SchemaPruning getSchemaPruning() { return schemaPruning; }
+
+    public List<Template> getTemplates() { return templates; }
+    public void setTemplates(List<Template> templates) { this.templates = templates; }
+
+    public static final class PlanCache {
+
+        private boolean enabled = true;
+        private int maxEntries = 1_000;
+        private Duration ttl = Duration.ofMinutes(10);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+    }
+
+    public static final class SchemaPruning {
+
+        private boolean enabled = true;
+        private int topTables = 8;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public int getTopTables() { return topTables; }
+        public void setTopTables(int topTables) { this.topTables = topTables; }
+    }
+
+    /**
+     * A known question shape answered without the planner in {@code hybrid} mode. Either
+     * {@code pattern} (literal text with {@code {slot}} placeholders) or {@code regex} (named groups)
+     * is set; each slot is bound as the SQL parameter of the same name.
+     */
+    public static final class Template {
+
+        private String name;
+        private String pattern;
+        private String regex;
+        private String connector;
+        private String sourceId;
+        private String sql;
+        private Map<String, String> slots = new LinkedHashMap<>();
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getPattern() { return pattern; }
+        public void setPattern(String pattern) { this.pattern = pattern; }
+
+        public String getRegex() { return regex; }
+        public void setRegex(String regex) { this.regex = regex; }
+
+        public String getConnector() { return connector; }
+        public void setConnector(String connector) { this.connector = connector; }
+
+        public String getSourceId() { return sourceId; }
+        public void setSourceId(String sourceId) { this.sourceId = sourceId; }
+
+        public String getSql() { return sql; }
+        public void setSql(String sql) { this.sql = sql; }
+
+        /**
+         * Slot name to type: {@code string} (default), {@code int}, {@code long}, {@code decimal},
+         * {@code boolean}, {@code date} or {@code timestamp}.
+         */
+        public Map<String, String> getSlots() { return slots; }
+        public void setSlots(Map<String, String> slots) { this.slots = slots; }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.anirudhk_tech.janus.agent;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import io.github.anirudhk_tech.janus.api.QueryRequest;
+import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@code janus.agent.mode=hybrid}: questions matching one of {@code janus.agent.templates} are
+ * planned locally; everything else goes to {@link LlmQueryAgent}.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "janus.agent.mode", havingValue = "hybrid")
+public final class HybridQueryAgent implements QueryAgent {
+
+    private final PlanTemplates templates;
+    private final LlmQueryAgent llmQueryAgent;
+    private final Counter hits;
+    private final Counter misses;
+
+    public HybridQueryAgent(AgentProperties props, LlmQueryAgent llmQueryAgent, MeterRegistry meterRegistry) {
+        this.templates = new PlanTemplates(Objects.requireNonNull(props, "props is required").getTemplates());
+        this.llmQueryAgent = Objects.requireNonNull(llmQueryAgent, "llmQueryAgent is required");
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        this.hits = Counter.builder("janus.agent.template").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("janus.agent.template").tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    public ExecutionPlan buildPlan(String question, QueryRequest.Options options) {
+        return buildPlan(question, options, PlanStepListener.NONE);
+    }
+
+    @Override
+    public ExecutionPlan buildPlan(String question, QueryRequest.Options options, PlanStepListener listener) {
+        Objects.requireNonNull(question, "question is required");
+
+        Optional<ExecutionPlan> templated = templates.match(question);
+        if (templated.isPresent()) {
+            hits.increment();
+            return templated.get();
+        }
+        misses.increment();
+        return llmQueryAgent.buildPlan(question, options, listener);
+    }
+}
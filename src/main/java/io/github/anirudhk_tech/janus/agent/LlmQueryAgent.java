@@ -1,56 +1,149 @@
 package io.github.anirudhk_tech.janus.agent;
 
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.github.anirudhk_tech.janus.agent.llm.LlmClient;
+import io.github.anirudhk_tech.janus.agent.llm.LlmProperties;
 import io.github.anirudhk_tech.janus.api.QueryRequest;
-import io.github.anirudhk_tech.janus.capabilities.CapabilitiesProperties;
-import io.github.anirudhk_tech.janus.capabilities.CapabilitiesService;
-import io.github.anirudhk_tech.janus.capabilities.sql.SqlSchema;
-import io.github.anirudhk_tech.janus.capabilities.sql.SqlSchemaService;
+import io.github.anirudhk_tech.janus.capabilities.CapabilitiesPrompt;
+import io.github.anirudhk_tech.janus.capabilities.SchemaIndex;
+import io.github.anirudhk_tech.janus.capabilities.sql.SqlStatement;
 import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
 import io.github.anirudhk_tech.janus.plan.PlanStep;
 import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
-@ConditionalOnProperty(name = "janus.agent.mode", havingValue = "llm")
+@ConditionalOnExpression("'${janus.agent.mode:}' == 'llm' or '${janus.agent.mode:}' == 'hybrid'")
 public final class LlmQueryAgent implements QueryAgent {
     private final LlmClient llmClient;
     private final ObjectMapper objectMapper;
-    private final CapabilitiesService capabilitiesService;
-    private final SqlSchemaService sqlSchemaService;
-
-    public LlmQueryAgent(LlmClient llmClient, ObjectMapper objectMapper, CapabilitiesService capabilitiesService, SqlSchemaService sqlSchemaService
+    private final CapabilitiesPrompt capabilitiesPrompt;
+    private final PlanCache planCache;
+    private final AgentProperties.SchemaPruning pruning;
+    private final DistributionSummary promptTokensSaved;
+    private final Counter pruningFallbacks;
+    private final boolean stream;
+
+    public LlmQueryAgent(LlmClient llmClient, ObjectMapper objectMapper, CapabilitiesPrompt capabilitiesPrompt, PlanCache planCache,
+        AgentProperties props, LlmProperties llmProperties, MeterRegistry meterRegistry
     ) {
         this.llmClient = Objects.requireNonNull(llmClient, "llmClient is required");
         this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
-        this.capabilitiesService = Objects.requireNonNull(capabilitiesService, "capabilitiesService is required");
-        this.sqlSchemaService = Objects.requireNonNull(sqlSchemaService, "sqlSchemaService is required");
+        this.capabilitiesPrompt = Objects.requireNonNull(capabilitiesPrompt, "capabilitiesPrompt is required");
+        this.planCache = Objects.requireNonNull(planCache, "planCache is required");
+        this.pruning = Objects.requireNonNull(props, "props is required").getSchemaPruning();
+        this.stream = Objects.requireNonNull(llmProperties, "llmProperties is required").isStream();
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        this.promptTokensSaved = DistributionSummary.builder("janus.agent.prompt.schema.tokens.saved")
+            .description("Estimated prompt tokens saved by schema pruning")
+            .baseUnit("tokens")
+            .register(meterRegistry);
+        this.pruningFallbacks = Counter.builder("janus.agent.prompt.schema.fallback")
+            .description("Pruned-schema plans that failed validation and were re-planned with the full schema")
+            .register(meterRegistry);
     }
 
     @Override
     public ExecutionPlan buildPlan(String question, QueryRequest.Options options) {
-        Objects.requireNonNull(question, "question is required");
+        return buildPlan(question, options, PlanStepListener.NONE);
+    }
 
-        String systemPrompt = systemPrompt();
-        String userPrompt = userPrompt(question, options);
+    /**
+     * With {@code janus.llm.stream} on, the completion is read as it is generated and each step is
+     * validated and handed to {@code listener} as soon as its JSON object closes. Cached plans are
+     * returned whole.
+     */
+    @Override
+    public ExecutionPlan buildPlan(String question, QueryRequest.Options options, PlanStepListener listener) {
+        Objects.requireNonNull(question, "question is required");
+        Objects.requireNonNull(listener, "listener is required");
 
-        String json = llmClient.generateJson(systemPrompt, userPrompt);
+        CapabilitiesPrompt.Snapshot capabilities = capabilitiesPrompt.current();
+        PlanCache.Key key = PlanCache.Key.of(question, options, capabilities);
+        Optional<ExecutionPlan> cached = planCache.get(key);
+        if (cached.isPresent()) {
+            return cached.get().withPlanSource(ExecutionPlan.PlanSource.CACHE);
+        }
 
-        ExecutionPlan plan = parsePlan(json);
-        validatePlan(plan);
+        ExecutionPlan plan = plan(question, options, capabilities, listener)
+            .withPlanSource(ExecutionPlan.PlanSource.LLM)
+            .withCapabilitiesVersion(capabilities.version());
+        planCache.put(key, plan);
         return plan;
     }
 
+    /**
+     * Plans against the tables most relevant to the question first. If that plan does not parse,
+     * does not validate, or reads a table the pruned prompt did not list (the planner needed a
+     * table that was pruned and guessed at it), plans again with the full schema.
+     */
+    private ExecutionPlan plan(String question, QueryRequest.Options options, CapabilitiesPrompt.Snapshot capabilities, PlanStepListener listener) {
+        if (pruning.isEnabled()) {
+            SchemaIndex.Selection selection = capabilities.select(question, pruning.getTopTables());
+            if (selection.isPruned()) {
+                try {
+                    ExecutionPlan plan = plan(question, options, selection.json(), selection, listener);
+                    promptTokensSaved.record(estimateTokens(capabilities.json()) - estimateTokens(selection.json()));
+                    return plan;
+                } catch (IllegalArgumentException e) {
+                    pruningFallbacks.increment();
+                    listener.onRestart();
+                }
+            }
+        }
+        return plan(question, options, capabilities.json(), null, listener);
+    }
+
+    /**
+     * @param scope the pruned selection {@code capabilitiesJson} was rendered from, or null for the
+     *              full schema
+     */
+    private ExecutionPlan plan(String question, QueryRequest.Options options, String capabilitiesJson, SchemaIndex.Selection scope,
+        PlanStepListener listener
+    ) {
+        String systemPrompt = systemPrompt();
+        String userPrompt = userPrompt(question, options, capabilitiesJson);
+
+        if (stream) {
+            Set<String> stepIds = new HashSet<>();
+            StreamingPlanParser parser = new StreamingPlanParser(objectMapper, step -> {
+                validateStep(step, stepIds);
+                validateTables(step, scope);
+                listener.onStep(step);
+            });
+            llmClient.streamJson(systemPrompt, userPrompt, parser::accept);
+            ExecutionPlan plan = parser.plan();
+            validatePlan(plan, scope);
+            return plan;
+        }
+        return llmClient.generateJson(systemPrompt, userPrompt, json -> {
+            ExecutionPlan parsed = parsePlan(json);
+            validatePlan(parsed, scope);
+            return parsed;
+        });
+    }
+
+    /**
+     * Rough token count (about four characters per token for JSON-heavy English), good enough to
+     * track savings without shipping a tokenizer.
+     */
+    private static long estimateTokens(String text) {
+        return (text.length() + 3) / 4;
+    }
+
     private ExecutionPlan parsePlan(String json) {
         try {
             return objectMapper.readValue(json, ExecutionPlan.class);
@@ -59,20 +152,52 @@ public final class LlmQueryAgent implements QueryAgent {
         }
     }
 
-    private static void validatePlan(ExecutionPlan plan) {
+    private static void validatePlan(ExecutionPlan plan, SchemaIndex.Selection scope) {
         if (plan == null) throw new IllegalArgumentException("ExecutionPlan is null");
         if (plan.steps() == null || plan.steps().isEmpty()) throw new IllegalArgumentException("ExecutionPlan.steps is required");
 
+        Set<String> stepIds = new HashSet<>();
+
+        for (PlanStep step : plan.steps()) {
+            validateStep(step, stepIds);
+            validateTables(step, scope);
+        }
+
         for (PlanStep step : plan.steps()) {
-            if (step == null) throw new IllegalArgumentException("PlanStep must not be null");
-            if (step.stepId() == null || step.stepId().isBlank()) throw new IllegalArgumentException("PlanStep.stepId is required");
-            if (step.connector() == null || step.connector().isBlank()) throw new IllegalArgumentException("PlanStep.connector is required");
-
-            if (step instanceof SqlQueryStep sql) {
-                if (sql.sql() == null || sql.sql().isBlank()) throw new IllegalArgumentException("SqlQueryStep.sql is required");
-                if (sql.sourceId() == null || sql.sourceId().isBlank()) throw new IllegalArgumentException("SqlQueryStep.sourceId is required");
-            } else {
-                throw new IllegalArgumentException("Unsupported PlanStep type: " + step.getClass().getName());
+            for (String dep : step.dependsOn()) {
+                if (dep.equals(step.stepId())) throw new IllegalArgumentException("PlanStep cannot depend on itself: " + dep);
+                if (!stepIds.contains(dep)) throw new IllegalArgumentException("PlanStep.dependsOn references unknown stepId: " + dep);
+            }
+        }
+    }
+
+    /**
+     * Checks that need only the step itself and the ids seen before it; dependencies are checked once
+     * the whole plan is known.
+     */
+    private static void validateStep(PlanStep step, Set<String> stepIds) {
+        if (step == null) throw new IllegalArgumentException("PlanStep must not be null");
+        if (step.stepId() == null || step.stepId().isBlank()) throw new IllegalArgumentException("PlanStep.stepId is required");
+        if (step.connector() == null || step.connector().isBlank()) throw new IllegalArgumentException("PlanStep.connector is required");
+        if (!stepIds.add(step.stepId())) throw new IllegalArgumentException("PlanStep.stepId must be unique: " + step.stepId());
+
+        if (step instanceof SqlQueryStep sql) {
+            if (sql.sql() == null || sql.sql().isBlank()) throw new IllegalArgumentException("SqlQueryStep.sql is required");
+            if (sql.sourceId() == null || sql.sourceId().isBlank()) throw new IllegalArgumentException("SqlQueryStep.sourceId is required");
+        } else {
+            throw new IllegalArgumentException("Unsupported PlanStep type: " + step.getClass().getName());
+        }
+    }
+
+    /**
+     * Rejects a step that reads a table the planner was not shown. Only pruned prompts are checked;
+     * against the full schema, unknown tables are left to the guardrail.
+     */
+    private static void validateTables(PlanStep step, SchemaIndex.Selection scope) {
+        if (scope == null || !scope.isPruned() || !(step instanceof SqlQueryStep sql)) return;
+        for (String table : SqlStatement.parse(sql.sql()).tableNames()) {
+            if (!scope.includes(sql.connector(), sql.sourceId(), table)) {
+                throw new IllegalArgumentException("SqlQueryStep reads a table outside the pruned schema: " + table);
             }
         }
     }
@@ -86,7 +211,12 @@ public final class LlmQueryAgent implements QueryAgent {
             }
 
             Each steps[i] MUST be one of:
-            - type="sql": { "type":"sql", "stepId":"...", "connector":"<from capabilities>", "sourceId":"<from capabilities>", "sql":"...", "params":{...} }
+            - type="sql": { "type":"sql", "stepId":"...", "connector":"<from capabilities>", "sourceId":"<from capabilities>", "sql":"...", "params":{...}, "dependsOn":["<stepId>", ...] }
+
+            dependsOn is optional. Use it only when a step needs values returned by an earlier step.
+            To use those values, reference them from params as { "fromStep":"<stepId>", "column":"<column>" };
+            the param is bound to the list of distinct values of that column, e.g. "where user_id in (:userIds)".
+            Steps without dependencies run in parallel. List every step after the steps it depends on.
 
             You will receive Capabilities JSON in the user message:
             { "sources": [ { "sourceId":"...", "connector":"...", ... }, ... ] }
@@ -101,18 +231,8 @@ public final class LlmQueryAgent implements QueryAgent {
         ));
     }
 
-    private String userPrompt(String question, QueryRequest.Options options) {
+    private static String userPrompt(String question, QueryRequest.Options options, String capabilitiesJson) {
         String timeoutMs = (options == null || options.timeoutMs() == null) ? "null" : options.timeoutMs().toString();
-        String capabilitiesJson;
-
-        try {
-            Map<String, Object> capabilities = new HashMap<>();
-            capabilities.put("sources", buildPromptSources());
-            capabilitiesJson = objectMapper.writeValueAsString(capabilities);
-
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Failed to serialize capabilities for LLM prompt", e);
-        }
         return String.join("\n", List.of(
             "Question:",
             question,
@@ -124,26 +244,4 @@ public final class LlmQueryAgent implements QueryAgent {
             capabilitiesJson
         ));
     }
-
-    private List<Map<String, Object>> buildPromptSources() {
-        List<CapabilitiesProperties.Source> sources = capabilitiesService.sources();
-
-        return sources.stream().map(s -> {
-            Map<String, Object> src = new HashMap<>();
-            src.put("sourceId", s.sourceId());
-            src.put("connector", s.connector());
-            src.put("description", s.description());
-
-            if (s.sql() != null) {
-                SqlSchema schema = sqlSchemaService.describe(s.connector(), s.sourceId());
-
-                Map<String, Object> sql = new HashMap<>();
-                sql.put("schema", schema.schema());
-                sql.put("tables", schema.tables());
-                src.put("sql", sql);
-            }
-
-            return src;
-        }).toList();
-    }
 }
\ No newline at end of file
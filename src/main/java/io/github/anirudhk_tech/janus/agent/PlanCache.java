@@ -0,0 +1,82 @@
+package io.github.anirudhk_tech.janus.agent;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import io.github.anirudhk_tech.janus.api.QueryRequest;
+import io.github.anirudhk_tech.janus.cache.LruCache;
+import io.github.anirudhk_tech.janus.capabilities.CapabilitiesPrompt;
+import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded LRU cache of validated planner output. Keys combine the normalized question, the
+ * options that reach the planner prompt and a hash of the capabilities JSON (sources plus
+ * introspected schemas), so a schema change yields a different key and stale plans simply age out.
+ */
+@Component
+public final class PlanCache {
+
+    /**
+     * @param capabilitiesHash SHA-256 of the capabilities JSON sent to the planner
+     */
+    public record Key(String question, Integer timeoutMs, String capabilitiesHash) {
+
+        public static Key of(String question, QueryRequest.Options options, CapabilitiesPrompt.Snapshot capabilities) {
+            Integer timeoutMs = (options == null) ? null : options.timeoutMs();
+            return new Key(normalizeQuestion(question), timeoutMs, capabilities.hash());
+        }
+    }
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final AgentProperties.PlanCache props;
+    private final LruCache<Key, ExecutionPlan> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public PlanCache(AgentProperties props, MeterRegistry meterRegistry) {
+        this.props = Objects.requireNonNull(props, "props is required").getPlanCache();
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        this.entries = new LruCache<>(this.props.getMaxEntries());
+        this.hits = Counter.builder("janus.agent.plan.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("janus.agent.plan.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return props.isEnabled() && props.getMaxEntries() > 0 && props.getTtl() != null && props.getTtl().isPositive();
+    }
+
+    public Optional<ExecutionPlan> get(Key key) {
+        if (!isEnabled()) return Optional.empty();
+
+        ExecutionPlan plan = entries.get(key);
+        if (plan != null) {
+            hits.increment();
+            return Optional.of(plan);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(Key key, ExecutionPlan plan) {
+        if (!isEnabled() || plan == null) return;
+        entries.put(key, plan, props.getTtl());
+    }
+
+    /**
+     * Trims, drops trailing punctuation and collapses runs of whitespace: "List my links?" and
+     * "List  my links" share an entry. Case is kept, since a value in the question ends up in the
+     * plan's SQL and "user ABC" must not be answered with the plan for "user abc".
+     */
+    static String normalizeQuestion(String question) {
+        String trimmed = question.strip();
+        int end = trimmed.length();
+        while (end > 0 && "?.!".indexOf(trimmed.charAt(end - 1)) >= 0) end--;
+        return WHITESPACE.matcher(trimmed.substring(0, end).stripTrailing()).replaceAll(" ");
+    }
+}
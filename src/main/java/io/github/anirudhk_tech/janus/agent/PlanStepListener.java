@@ -0,0 +1,22 @@
+package io.github.anirudhk_tech.janus.agent;
+
+import io.github.anirudhk_tech.janus.plan.PlanStep;
+
+/**
+ * Receives plan steps while the planner is still producing the rest of the plan.
+ */
+public interface PlanStepListener {
+
+    PlanStepListener NONE = step -> {};
+
+    /**
+     * Called once per step, in plan order, after the step on its own passed validation.
+     */
+    void onStep(PlanStep step);
+
+    /**
+     * Called when planning starts over (e.g. a pruned-schema plan failed validation); steps
+     * received so far are not part of the final plan.
+     */
+    default void onRestart() {}
+}
@@ -0,0 +1,177 @@
+package io.github.anirudhk_tech.janus.agent;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+
+/**
+ * Compiled {@code janus.agent.templates}. A question that matches a template becomes a one-step
+ * plan whose SQL parameters are the template's slots, converted to their declared types.
+ */
+final class PlanTemplates {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z][A-Za-z0-9]*)}");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Set<String> SLOT_TYPES = Set.of("string", "int", "long", "decimal", "boolean", "date", "timestamp");
+
+    private record Compiled(AgentProperties.Template template, Pattern pattern, Set<String> slots) {}
+
+    private final List<Compiled> templates;
+
+    PlanTemplates(List<AgentProperties.Template> templates) {
+        List<Compiled> compiled = new ArrayList<>();
+        for (AgentProperties.Template t : templates == null ? List.<AgentProperties.Template>of() : templates) {
+            compiled.add(compile(t));
+        }
+        this.templates = List.copyOf(compiled);
+    }
+
+    /**
+     * The first template (in configuration order) whose pattern matches the whole question and
+     * whose slots all convert to their types.
+     */
+    Optional<ExecutionPlan> match(String question) {
+        String q = trimQuestion(question);
+        for (Compiled c : templates) {
+            Matcher m = c.pattern().matcher(q);
+            if (!m.matches()) continue;
+
+            Map<String, Object> params = bind(c, m);
+            if (params == null) continue;
+
+            AgentProperties.Template t = c.template();
+            SqlQueryStep step = new SqlQueryStep(t.getName(), t.getConnector(), t.getSourceId(), t.getSql(), params);
+            return Optional.of(new ExecutionPlan(List.of(step), null).withPlanSource(ExecutionPlan.PlanSource.TEMPLATE));
+        }
+        return Optional.empty();
+    }
+
+    private static Map<String, Object> bind(Compiled c, Matcher m) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (String slot : c.slots()) {
+            String raw = unquote(m.group(slot));
+            if (raw == null) {
+                // An optional group that did not take part: the SQL still names the parameter.
+                params.put(slot, null);
+                continue;
+            }
+            String type = c.template().getSlots().getOrDefault(slot, "string");
+            try {
+                params.put(slot, convert(raw, type));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                // Right shape, wrong value (e.g. "last week" for a date): not this template.
+                return null;
+            }
+        }
+        return params;
+    }
+
+    private static Object convert(String raw, String type) {
+        return switch (type.toLowerCase(Locale.ROOT)) {
+            case "int" -> Integer.valueOf(raw);
+            case "long" -> Long.valueOf(raw);
+            case "decimal" -> new BigDecimal(raw);
+            case "boolean" -> switch (raw.toLowerCase(Locale.ROOT)) {
+                case "true", "yes" -> Boolean.TRUE;
+                case "false", "no" -> Boolean.FALSE;
+                default -> throw new IllegalArgumentException("not a boolean: " + raw);
+            };
+            case "date" -> LocalDate.parse(raw);
+            case "timestamp" -> raw.length() == 10 ? LocalDate.parse(raw).atStartOfDay().atOffset(ZoneOffset.UTC) : OffsetDateTime.parse(raw);
+            default -> raw;
+        };
+    }
+
+    private static Compiled compile(AgentProperties.Template t) {
+        String name = required(t.getName(), "name", "?");
+        required(t.getConnector(), "connector", name);
+        required(t.getSourceId(), "sourceId", name);
+        required(t.getSql(), "sql", name);
+
+        boolean hasPattern = t.getPattern() != null && !t.getPattern().isBlank();
+        boolean hasRegex = t.getRegex() != null && !t.getRegex().isBlank();
+        if (hasPattern == hasRegex) {
+            throw new IllegalStateException("janus.agent.templates[" + name + "] needs exactly one of pattern or regex");
+        }
+
+        Pattern pattern = Pattern.compile(
+            hasPattern ? slotGrammar(t.getPattern()) : t.getRegex(),
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE
+        );
+        Set<String> slots = pattern.namedGroups().keySet();
+        for (Map.Entry<String, String> slot : t.getSlots().entrySet()) {
+            if (!slots.contains(slot.getKey())) {
+                throw new IllegalStateException("janus.agent.templates[" + name + "] declares unknown slot: " + slot.getKey());
+            }
+            if (!SLOT_TYPES.contains(slot.getValue().toLowerCase(Locale.ROOT))) {
+                throw new IllegalStateException("janus.agent.templates[" + name + "] slot " + slot.getKey() + " has unknown type: " + slot.getValue());
+            }
+        }
+        return new Compiled(t, pattern, slots);
+    }
+
+    /**
+     * {@code "events between {start} and {end}"} to a regex: literal text matches with any run of
+     * whitespace, each placeholder lazily captures one or more characters.
+     */
+    private static String slotGrammar(String pattern) {
+        String text = trimQuestion(pattern);
+        StringBuilder regex = new StringBuilder();
+        Matcher m = PLACEHOLDER.matcher(text);
+        int last = 0;
+        while (m.find()) {
+            regex.append(literal(text.substring(last, m.start())));
+            regex.append("(?<").append(m.group(1)).append(">.+?)");
+            last = m.end();
+        }
+        regex.append(literal(text.substring(last)));
+        return regex.toString();
+    }
+
+    private static String literal(String text) {
+        StringBuilder out = new StringBuilder();
+        Matcher ws = WHITESPACE.matcher(text);
+        int last = 0;
+        while (ws.find()) {
+            if (ws.start() > last) out.append(Pattern.quote(text.substring(last, ws.start())));
+            out.append("\\s+");
+            last = ws.end();
+        }
+        if (last < text.length()) out.append(Pattern.quote(text.substring(last)));
+        return out.toString();
+    }
+
+    private static String trimQuestion(String question) {
+        return question.strip().replaceAll("[?.!]+$", "").strip();
+    }
+
+    private static String unquote(String value) {
+        if (value == null) return null;
+        String v = value.strip();
+        if (v.length() >= 2 && (v.startsWith("\"") && v.endsWith("\"") || v.startsWith("'") && v.endsWith("'"))) {
+            return v.substring(1, v.length() - 1);
+        }
+        return v;
+    }
+
+    private static String required(String value, String field, String name) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("janus.agent.templates[" + name + "]." + field + " is required");
+        }
+        return value;
+    }
+}
@@ -5,4 +5,12 @@ import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
 
 public interface QueryAgent {
     ExecutionPlan buildPlan(String question, QueryRequest.Options options);
+
+    /**
+     * Builds the plan, handing steps to {@code listener} as soon as they are known. Agents that only
+     * produce whole plans return it without calling the listener.
+     */
+    default ExecutionPlan buildPlan(String question, QueryRequest.Options options, PlanStepListener listener) {
+        return buildPlan(question, options);
+    }
 }
@@ -0,0 +1,133 @@
+package io.github.anirudhk_tech.janus.agent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.github.anirudhk_tech.janus.plan.PlanStep;
+
+/**
+ * Parses an {@link ExecutionPlan} from model output that arrives in chunks, handing every element
+ * of the top-level {@code steps} array to a consumer as soon as its closing brace has been read.
+ *
+ * <p>Chunks go through Jackson's non-blocking parser; the tokens of the current step are copied
+ * into a {@link TokenBuffer} and bound to a {@link PlanStep} when the object ends. Text before the
+ * first {@code '{'} and after the matching {@code '}'} (code fences) is ignored.
+ */
+final class StreamingPlanParser {
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<PlanStep> onStep;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final StringBuilder text = new StringBuilder();
+
+    private int depth;
+    private boolean started;
+    private boolean finished;
+    private boolean stepsNext;
+    private boolean inSteps;
+    private TokenBuffer step;
+
+    StreamingPlanParser(ObjectMapper objectMapper, Consumer<PlanStep> onStep) {
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
+        this.onStep = Objects.requireNonNull(onStep, "onStep is required");
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create streaming JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    void accept(String chunk) {
+        if (finished || chunk == null || chunk.isEmpty()) return;
+
+        String json = chunk;
+        if (!started) {
+            int open = chunk.indexOf('{');
+            if (open < 0) return;
+            json = chunk.substring(open);
+            started = true;
+        }
+        text.append(json);
+
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                onToken(token);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("LLM returned invalid ExecutionPlan JSON", e);
+        }
+    }
+
+    /**
+     * The complete plan; fails if the root object never closed.
+     */
+    ExecutionPlan plan() {
+        if (!finished) {
+            throw new IllegalArgumentException("LLM returned incomplete ExecutionPlan JSON");
+        }
+        String json = text.substring(0, text.lastIndexOf("}") + 1);
+        try {
+            return objectMapper.readValue(json, ExecutionPlan.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("LLM returned invalid ExecutionPlan JSON", e);
+        }
+    }
+
+    private void onToken(JsonToken token) throws IOException {
+        if (step != null) {
+            step.copyCurrentEvent(parser);
+        }
+
+        switch (token) {
+            case START_OBJECT, START_ARRAY -> {
+                depth++;
+                if (inSteps && depth == 3 && token == JsonToken.START_OBJECT) {
+                    step = new TokenBuffer(parser, null);
+                    step.copyCurrentEvent(parser);
+                }
+                if (stepsNext) {
+                    inSteps = token == JsonToken.START_ARRAY;
+                    stepsNext = false;
+                }
+            }
+            case END_OBJECT, END_ARRAY -> {
+                depth--;
+                if (step != null && depth == 2) {
+                    emit();
+                }
+                if (inSteps && depth == 1) {
+                    inSteps = false;
+                }
+                if (depth == 0) {
+                    finished = true;
+                }
+            }
+            case FIELD_NAME -> stepsNext = depth == 1 && "steps".equals(parser.currentName());
+            default -> stepsNext = false;
+        }
+    }
+
+    private void emit() throws IOException {
+        TokenBuffer complete = step;
+        step = null;
+        PlanStep parsed;
+        try (JsonParser p = complete.asParser(objectMapper)) {
+            parsed = objectMapper.readValue(p, PlanStep.class);
+        }
+        onStep.accept(parsed);
+    }
+}
@@ -1,10 +1,11 @@
 package io.github.anirudhk_tech.janus.agent.llm;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
@@ -14,29 +15,29 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Component
-@ConditionalOnProperty(name = "janus.llm.provider", havingValue = "gemini", matchIfMissing = true)
-public class GeminiLlmClient implements LlmClient {
+public class GeminiLlmClient implements LlmProvider {
     
     private final RestClient restClient;
+    private final ObjectMapper objectMapper;
     private final LlmProperties props;
 
     public GeminiLlmClient(@Qualifier("geminiRestClient") RestClient geminiRestClient, ObjectMapper objectMapper, LlmProperties props) {
         this.restClient = Objects.requireNonNull(geminiRestClient, "geminiRestClient is required");
-        Objects.requireNonNull(objectMapper, "objectMapper is required");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
         this.props = Objects.requireNonNull(props, "props is required");
     }
 
+    @Override
+    public String name() {
+        return "gemini";
+    }
+
     @Override
     public String generateJson(String systemPrompt, String userPrompt) {
         Objects.requireNonNull(systemPrompt, "systemPrompt is required");
         Objects.requireNonNull(userPrompt, "userPrompt is required");
 
-        String apiKey = props.getGemini().getApiKey();
-
-        if (apiKey == null || apiKey.isBlank()) {
-            throw new IllegalStateException("janus.llm.gemini.api-key is required");
-        }
-
+        String apiKey = apiKey();
         GeminiGenerateContentRequest body = GeminiGenerateContentRequest.forPrompts(systemPrompt, userPrompt);
 
         try {
@@ -54,12 +55,83 @@ public class GeminiLlmClient implements LlmClient {
             assertLooksLikeJson(json);
             return json;
         } catch (RestClientResponseException e) {
+            if (LlmThrottledException.isThrottling(e.getStatusCode())) {
+                throw new LlmThrottledException(
+                    "Gemini API throttled: status=" + e.getStatusCode(), LlmThrottledException.retryAfter(e.getResponseHeaders()), e
+                );
+            }
             throw new IllegalStateException("Gemini API call failed: status=" + e.getStatusCode() + " body=" + safeBody(e.getResponseBodyAsString()), e);
         } catch (Exception e) {
             throw new IllegalStateException("Gemini client failed", e);
         }
     }
 
+    /**
+     * {@code streamGenerateContent} with {@code alt=sse}: every server-sent event is a partial
+     * response whose candidate parts carry the next piece of text.
+     */
+    @Override
+    public void streamJson(String systemPrompt, String userPrompt, Consumer<String> chunks) {
+        Objects.requireNonNull(systemPrompt, "systemPrompt is required");
+        Objects.requireNonNull(userPrompt, "userPrompt is required");
+        Objects.requireNonNull(chunks, "chunks is required");
+
+        String apiKey = apiKey();
+        GeminiGenerateContentRequest body = GeminiGenerateContentRequest.forPrompts(systemPrompt, userPrompt);
+
+        try {
+            restClient.post()
+                .uri("/v1/models/{model}:streamGenerateContent?alt=sse", props.getGemini().getModel())
+                .header("x-goog-api-key", apiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .body(body)
+                .exchange((request, response) -> {
+                    if (LlmThrottledException.isThrottling(response.getStatusCode())) {
+                        throw new LlmThrottledException(
+                            "Gemini API throttled: status=" + response.getStatusCode(), LlmThrottledException.retryAfter(response.getHeaders()), null
+                        );
+                    }
+                    if (response.getStatusCode().isError()) {
+                        String error = new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+                        throw new IllegalStateException("Gemini API call failed: status=" + response.getStatusCode() + " body=" + safeBody(error));
+                    }
+                    ServerSentEvents.read(response.getBody(), data -> {
+                        String text = extractText(objectMapper.readValue(data, GeminiGenerateContentResponse.class));
+                        if (!text.isEmpty()) chunks.accept(text);
+                        return true;
+                    });
+                    return null;
+                });
+        } catch (IllegalArgumentException | IllegalStateException | LlmThrottledException e) {
+            // Rejected by the chunk consumer or by the status checks above; keep the original error.
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Gemini client failed", e);
+        }
+    }
+
+    private String apiKey() {
+        String apiKey = props.getGemini().getApiKey();
+
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("janus.llm.gemini.api-key is required");
+        }
+        return apiKey;
+    }
+
+    private static String extractText(GeminiGenerateContentResponse response) {
+        if (response == null || response.candidates == null || response.candidates.isEmpty()) return "";
+        Candidate c0 = response.candidates.getFirst();
+        if (c0 == null || c0.content == null || c0.content.parts == null) return "";
+
+        StringBuilder text = new StringBuilder();
+        for (Part part : c0.content.parts) {
+            if (part != null && part.text != null) text.append(part.text);
+        }
+        return text.toString();
+    }
+
     private static String extractFirstText(GeminiGenerateContentResponse response) {
         if (response == null || response.candidates == null || response.candidates.isEmpty()) {
             throw new IllegalStateException("Gemini returned no candidates");
@@ -115,6 +187,7 @@ public class GeminiLlmClient implements LlmClient {
         double temperature
     ) {}
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
     record Content(
         String role,
         List<Part> parts
@@ -128,6 +201,7 @@ public class GeminiLlmClient implements LlmClient {
         }
     }
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
     record Part(
         String text
     ) {}
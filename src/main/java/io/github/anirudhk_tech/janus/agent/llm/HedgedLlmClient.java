@@ -0,0 +1,279 @@
+package io.github.anirudhk_tech.janus.agent.llm;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The {@link LlmClient} the planner uses. Requests go to {@code janus.llm.provider}; when
+ * {@code janus.llm.hedge.providers} lists backups, a backup is also asked once the primary has been
+ * silent for longer than its observed latency percentile (or right away when the primary fails).
+ * The first response the caller accepts wins and the other requests are cancelled.
+ *
+ * <p>Streaming requests are not hedged: their chunks are acted on as they arrive, so they always
+ * go to the primary alone.
+ *
+ * <p>Every provider call goes through the {@link LlmScheduler}, sharing one deadline of
+ * {@code janus.llm.scheduler.deadline} per planning request.
+ */
+@Component
+@Primary
+public final class HedgedLlmClient implements LlmClient, DisposableBean {
+
+    private static final int LATENCY_WINDOW = 200;
+
+    private final LlmProvider primary;
+    private final List<LlmProvider> backups;
+    private final LlmProperties.Hedge hedge;
+    private final LlmScheduler scheduler;
+    private final Duration deadline;
+    private final MeterRegistry meterRegistry;
+    private final LatencyWindow primaryLatency = new LatencyWindow(LATENCY_WINDOW);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public HedgedLlmClient(List<LlmProvider> providers, LlmProperties props, LlmScheduler scheduler, MeterRegistry meterRegistry) {
+        Objects.requireNonNull(providers, "providers is required");
+        Objects.requireNonNull(props, "props is required");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler is required");
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        this.hedge = props.getHedge();
+        this.deadline = props.getScheduler().getDeadline();
+
+        Map<String, LlmProvider> byName = new LinkedHashMap<>();
+        for (LlmProvider p : providers) byName.put(p.name(), p);
+
+        this.primary = provider(byName, props.getProvider());
+        List<LlmProvider> configured = new ArrayList<>();
+        for (String name : hedge.getProviders() == null ? List.<String>of() : hedge.getProviders()) {
+            LlmProvider backup = provider(byName, name);
+            if (backup != primary && !configured.contains(backup)) configured.add(backup);
+        }
+        this.backups = List.copyOf(configured);
+    }
+
+    private static LlmProvider provider(Map<String, LlmProvider> byName, String name) {
+        LlmProvider p = byName.get(name);
+        if (p == null) {
+            throw new IllegalStateException("Unknown LLM provider: " + name + " (available: " + byName.keySet() + ")");
+        }
+        return p;
+    }
+
+    @Override
+    public String generateJson(String systemPrompt, String userPrompt) {
+        return generateJson(systemPrompt, userPrompt, Function.identity());
+    }
+
+    /**
+     * Cancels any hedged requests still in flight.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void streamJson(String systemPrompt, String userPrompt, Consumer<String> chunks) {
+        long tokens = scheduler.estimateTokens(systemPrompt, userPrompt);
+        scheduler.call(primary.name(), tokens, deadlineNanos(), () -> {
+            primary.streamJson(systemPrompt, userPrompt, chunks);
+            return null;
+        });
+    }
+
+    private long deadlineNanos() {
+        return System.nanoTime() + deadline.toNanos();
+    }
+
+    @Override
+    public <T> T generateJson(String systemPrompt, String userPrompt, Function<String, T> accept) {
+        Objects.requireNonNull(accept, "accept is required");
+        AtomicBoolean settled = new AtomicBoolean();
+        Request<T> request = new Request<>(systemPrompt, userPrompt, scheduler.estimateTokens(systemPrompt, userPrompt), deadlineNanos(), accept, settled);
+
+        if (backups.isEmpty()) {
+            Attempt<T> only = attempt(primary, request);
+            if (only.error() != null) throw only.error();
+            return only.value();
+        }
+
+        ExecutorCompletionService<Attempt<T>> done = new ExecutorCompletionService<>(executor);
+        List<Future<Attempt<T>>> running = new ArrayList<>();
+        running.add(done.submit(() -> attempt(primary, request)));
+        int pending = 1;
+        int nextBackup = 0;
+        long hedgeDelayNanos = hedgeDelay().toNanos();
+        RuntimeException failure = null;
+
+        try {
+            while (true) {
+                boolean canHedge = nextBackup < backups.size();
+                if (pending == 0 && !canHedge) throw failure;
+
+                Future<Attempt<T>> finished;
+                if (pending == 0) {
+                    finished = null;
+                } else if (canHedge) {
+                    finished = done.poll(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+                } else {
+                    finished = done.take();
+                }
+
+                if (finished == null) {
+                    // Slow or failed so far: bring in the next backup.
+                    LlmProvider backup = backups.get(nextBackup++);
+                    Counter.builder("janus.llm.hedge").tag("provider", backup.name()).register(meterRegistry).increment();
+                    running.add(done.submit(() -> attempt(backup, request)));
+                    pending++;
+                    continue;
+                }
+
+                pending--;
+                Attempt<T> attempt = finished.get();
+                if (attempt.error() == null) {
+                    settled.set(true);
+                    if (attempt.provider() != primary) {
+                        Counter.builder("janus.llm.hedge.won").tag("provider", attempt.provider().name()).register(meterRegistry).increment();
+                    }
+                    return attempt.value();
+                }
+                failure = preferred(failure, attempt.error());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for LLM response", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("LLM request failed", e.getCause());
+        } finally {
+            settled.set(true);
+            for (Future<Attempt<T>> f : running) f.cancel(true);
+        }
+    }
+
+    /**
+     * How long the primary gets before a backup is asked: its observed latency at the configured
+     * percentile, or the initial delay until enough requests have been seen.
+     */
+    Duration hedgeDelay() {
+        long[] samples = primaryLatency.snapshot();
+        if (samples.length < Math.max(1, hedge.getMinSamples())) {
+            return hedge.getInitialDelay();
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(hedge.getPercentile() * samples.length) - 1;
+        return Duration.ofNanos(samples[Math.max(0, Math.min(samples.length - 1, index))]);
+    }
+
+    private record Request<T>(
+        String systemPrompt,
+        String userPrompt,
+        long tokens,
+        long deadlineNanos,
+        Function<String, T> accept,
+        AtomicBoolean settled
+    ) {}
+
+    private record Attempt<T>(LlmProvider provider, T value, RuntimeException error) {}
+
+    private <T> Attempt<T> attempt(LlmProvider provider, Request<T> request) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            String json = scheduler.call(provider.name(), request.tokens(), request.deadlineNanos(), () -> {
+                // Only the provider's own latency feeds the hedge delay, not time spent queued.
+                long sent = System.nanoTime();
+                try {
+                    String response = provider.generateJson(request.systemPrompt(), request.userPrompt());
+                    if (provider == primary) primaryLatency.add(System.nanoTime() - sent);
+                    return response;
+                } catch (RuntimeException e) {
+                    // A cancelled or timed-out call ran at least this long; leaving it out would
+                    // keep the delay low exactly when the primary is slow. Fast errors say nothing
+                    // about latency.
+                    if (provider == primary && (request.settled().get() || isTimeout(e))) {
+                        primaryLatency.add(System.nanoTime() - sent);
+                    }
+                    throw e;
+                }
+            });
+            outcome = "invalid";
+            T value = request.accept().apply(json);
+            outcome = "success";
+            return new Attempt<>(provider, value, null);
+        } catch (RuntimeException e) {
+            if (request.settled().get()) outcome = "cancelled";
+            return new Attempt<>(provider, null, e);
+        } finally {
+            Timer.builder("janus.llm.request")
+                .description("LLM request latency per provider")
+                .tag("provider", provider.name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedIOException || t instanceof TimeoutException) return true;
+        }
+        return false;
+    }
+
+    /**
+     * An unusable response ({@link IllegalArgumentException}) is reported over transport errors so
+     * the caller's own fallbacks (e.g. re-planning with the full schema) still apply.
+     */
+    private static RuntimeException preferred(RuntimeException current, RuntimeException candidate) {
+        if (current == null) return candidate;
+        if (!(current instanceof IllegalArgumentException) && candidate instanceof IllegalArgumentException) return candidate;
+        return current;
+    }
+
+    /**
+     * Latencies of the primary's most recent responses, in nanoseconds.
+     */
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int size;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(samples, size);
+        }
+    }
+}
@@ -1,7 +1,27 @@
 package io.github.anirudhk_tech.janus.agent.llm;
 
+import java.util.function.Consumer;
+import java.util.function.Function;
+
 public interface LlmClient {
     
     String generateJson(String systemPrompt, String userPrompt);
 
+    /**
+     * Generates JSON and converts it with {@code accept}, which throws
+     * {@link IllegalArgumentException} for a response it cannot use. Clients that send a request to
+     * more than one provider return the first response {@code accept} takes.
+     */
+    default <T> T generateJson(String systemPrompt, String userPrompt, Function<String, T> accept) {
+        return accept.apply(generateJson(systemPrompt, userPrompt));
+    }
+
+    /**
+     * Streams the completion text to {@code chunks} as the model produces it. Exceptions thrown by
+     * {@code chunks} abort the request and propagate unchanged. Clients without a streaming API
+     * deliver the whole completion as one chunk.
+     */
+    default void streamJson(String systemPrompt, String userPrompt, Consumer<String> chunks) {
+        chunks.accept(generateJson(systemPrompt, userPrompt));
+    }
 }
@@ -0,0 +1,36 @@
+package io.github.anirudhk_tech.janus.agent.llm;
+
+import java.time.Duration;
+
+/**
+ * The planner call was shed: the provider kept throttling past the planning deadline
+ * ({@link #isRateLimited()}), or the local request queue was full or could not get a slot in time.
+ */
+public class LlmOverloadedException extends RuntimeException {
+
+    private final boolean rateLimited;
+    private final Duration retryAfter;
+
+    public LlmOverloadedException(String message, boolean rateLimited, Duration retryAfter) {
+        super(message);
+        this.rateLimited = rateLimited;
+        this.retryAfter = retryAfter;
+    }
+
+    public LlmOverloadedException(String message, boolean rateLimited, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.rateLimited = rateLimited;
+        this.retryAfter = retryAfter;
+    }
+
+    public boolean isRateLimited() {
+        return rateLimited;
+    }
+
+    /**
+     * Suggested wait before the client tries again.
+     */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
@@ -2,6 +2,8 @@ package io.github.anirudhk_tech.janus.agent.llm;
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -10,8 +12,11 @@ public class LlmProperties {
     
     private String provider = "gemini";
     private Duration timeout = Duration.ofSeconds(10);
+    private boolean stream = false;
     private final Gemini gemini = new Gemini();
     private final OpenAi openai = new OpenAi();
+    private final Hedge hedge = new Hedge();
+    private final Scheduler scheduler = new Scheduler();
 
     public String getProvider() { return provider; }
     public void setProvider(String provider) { this.provider = provider; }
@@ -19,14 +24,98 @@ public class LlmProperties {
     public Duration getTimeout() { return timeout; }
     public void setTimeout(Duration timeout) { this.timeout = timeout; }
 
+    public boolean isStream() { return stream; }
+    public void setStream(boolean stream) { this.stream = stream; }
+
     public Gemini getGemini() { return gemini; }
     public OpenAi getOpenai() { return openai; }
+    public Hedge getHedge() { return hedge; }
+    public Scheduler getScheduler() { return scheduler; }
+
+    public RateLimit rateLimit(String provider) {
+        return switch (provider) {
+            case "gemini" -> gemini.getRateLimit();
+            case "openai" -> openai.getRateLimit();
+            default -> new RateLimit();
+        };
+    }
+
+    /**
+     * Per-provider quota enforced before a request is sent. Zero means unlimited.
+     */
+    public static final class RateLimit {
+
+        private int requestsPerMinute = 0;
+        private int tokensPerMinute = 0;
+
+        public int getRequestsPerMinute() { return requestsPerMinute; }
+        public void setRequestsPerMinute(int requestsPerMinute) { this.requestsPerMinute = requestsPerMinute; }
+
+        public int getTokensPerMinute() { return tokensPerMinute; }
+        public void setTokensPerMinute(int tokensPerMinute) { this.tokensPerMinute = tokensPerMinute; }
+    }
+
+    /**
+     * Queueing and retries in front of the providers. {@code deadline} bounds a whole planner call,
+     * including time spent queued and waiting out {@code Retry-After}.
+     */
+    public static final class Scheduler {
+
+        private Duration deadline = Duration.ofSeconds(30);
+        private int maxQueue = 100;
+        private int maxAttempts = 3;
+        private int completionTokens = 1_000;
+        private Duration initialBackoff = Duration.ofMillis(250);
+        private Duration maxBackoff = Duration.ofSeconds(8);
+
+        public Duration getDeadline() { return deadline; }
+        public void setDeadline(Duration deadline) { this.deadline = deadline; }
+
+        public int getMaxQueue() { return maxQueue; }
+        public void setMaxQueue(int maxQueue) { this.maxQueue = maxQueue; }
+
+        public int getMaxAttempts() { return maxAttempts; }
+        public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+        public int getCompletionTokens() { return completionTokens; }
+        public void setCompletionTokens(int completionTokens) { this.completionTokens = completionTokens; }
+
+        public Duration getInitialBackoff() { return initialBackoff; }
+        public void setInitialBackoff(Duration initialBackoff) { this.initialBackoff = initialBackoff; }
+
+        public Duration getMaxBackoff() { return maxBackoff; }
+        public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+    }
+
+    /**
+     * Backup providers for slow or failed requests to {@code provider}. Empty means no hedging.
+     */
+    public static final class Hedge {
+
+        private List<String> providers = new ArrayList<>();
+        private double percentile = 0.9;
+        private int minSamples = 20;
+        private Duration initialDelay = Duration.ofSeconds(2);
+
+        public List<String> getProviders() { return providers; }
+        public void setProviders(List<String> providers) { this.providers = providers; }
+
+        public double getPercentile() { return percentile; }
+        public void setPercentile(double percentile) { this.percentile = percentile; }
+
+        public int getMinSamples() { return minSamples; }
+        public void setMinSamples(int minSamples) { this.minSamples = minSamples; }
+
+        public Duration getInitialDelay() { return initialDelay; }
+        public void setInitialDelay(Duration initialDelay) { this.initialDelay = initialDelay; }
+    }
 
     public static final class Gemini {
 
         private URI baseUrl = URI.create("https://generativelanguage.googleapis.com");
         private String model = "gemini-2.0-flash";
         private String apiKey;
+        private final RateLimit rateLimit = new RateLimit();
 
         public URI getBaseUrl() { return baseUrl; }
         public void setBaseUrl(URI baseUrl) { this.baseUrl = baseUrl; }
@@ -36,6 +125,8 @@ public class LlmProperties {
 
         public String getApiKey() { return apiKey; }
         public void setApiKey(String apiKey) { this.apiKey = apiKey; }
+
+        public RateLimit getRateLimit() { return rateLimit; }
     }
 
     public static final class OpenAi {
@@ -43,6 +134,7 @@ public class LlmProperties {
         private URI baseUrl = URI.create("https://api.openai.com");
         private String model = "gpt-4o-mini";
         private String apiKey;
+        private final RateLimit rateLimit = new RateLimit();
 
         public URI getBaseUrl() { return baseUrl; }
         public void setBaseUrl(URI baseUrl) { this.baseUrl = baseUrl; }
@@ -52,5 +144,7 @@ public class LlmProperties {
 
         public String getApiKey() { return apiKey; }
         public void setApiKey(String apiKey) { this.apiKey = apiKey; }
+
+        public RateLimit getRateLimit() { return rateLimit; }
     }
 }
@@ -0,0 +1,13 @@
+package io.github.anirudhk_tech.janus.agent.llm;
+
+/**
+ * A concrete LLM API. Every configured provider is a bean; {@link HedgedLlmClient} is the
+ * {@link LlmClient} the planner sees and decides which providers a request goes to.
+ */
+public interface LlmProvider extends LlmClient {
+
+    /**
+     * Name used in {@code janus.llm.provider} and {@code janus.llm.hedge.providers}.
+     */
+    String name();
+}
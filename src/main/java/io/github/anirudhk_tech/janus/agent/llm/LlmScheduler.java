@@ -0,0 +1,236 @@
+package io.github.anirudhk_tech.janus.agent.llm;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Admission control in front of each LLM provider. A request waits in a bounded queue, earliest
+ * deadline first, until the provider's request and token buckets allow it; a throttled response
+ * (429/503) pauses the provider for its {@code Retry-After} (or a jittered exponential backoff) and
+ * the request is retried. Time spent queued and paused counts against the caller's deadline, and
+ * requests that cannot be served in time fail fast with {@link LlmOverloadedException}.
+ */
+@Component
+public class LlmScheduler {
+
+    private final LlmProperties props;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public LlmScheduler(LlmProperties props, MeterRegistry meterRegistry) {
+        this.props = Objects.requireNonNull(props, "props is required");
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+    }
+
+    /**
+     * Rough token cost of a request: prompt at about four characters per token plus the expected
+     * completion size.
+     */
+    public long estimateTokens(String systemPrompt, String userPrompt) {
+        return (systemPrompt.length() + userPrompt.length() + 3) / 4 + props.getScheduler().getCompletionTokens();
+    }
+
+    /**
+     * Runs {@code request} against {@code provider} once capacity allows, retrying throttled
+     * responses until {@code deadlineNanos} ({@link System#nanoTime()} based).
+     */
+    public <T> T call(String provider, long estimatedTokens, long deadlineNanos, Supplier<T> request) {
+        LlmProperties.Scheduler config = props.getScheduler();
+        Lane lane = lanes.computeIfAbsent(provider, this::newLane);
+        Duration backoff = config.getInitialBackoff();
+
+        for (int attempt = 1; ; attempt++) {
+            lane.acquire(estimatedTokens, deadlineNanos);
+            try {
+                return request.get();
+            } catch (LlmThrottledException e) {
+                lane.throttled.increment();
+                Duration wait = e.retryAfter()
+                    .map(retryAfter -> retryAfter.plus(jitter(config.getInitialBackoff())))
+                    .orElse(equalJitter(backoff));
+                backoff = min(backoff.multipliedBy(2), config.getMaxBackoff());
+                lane.pauseFor(wait);
+
+                if (attempt >= Math.max(1, config.getMaxAttempts()) || System.nanoTime() + wait.toNanos() >= deadlineNanos) {
+                    lane.shed("rate_limited").increment();
+                    throw new LlmOverloadedException(provider + " is rate limiting requests", true, wait, e);
+                }
+            }
+        }
+    }
+
+    private Lane newLane(String provider) {
+        return new Lane(provider, props.rateLimit(provider), props.getScheduler().getMaxQueue());
+    }
+
+    private static Duration jitter(Duration bound) {
+        long nanos = Math.max(1, bound.toNanos());
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(nanos));
+    }
+
+    /**
+     * Half the backoff plus a random share of the other half, so retries spread out without ever
+     * coming back immediately.
+     */
+    private static Duration equalJitter(Duration backoff) {
+        Duration half = backoff.dividedBy(2);
+        return half.plus(jitter(half));
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private record Waiter(long deadlineNanos, long sequence, long tokens) {}
+
+    /**
+     * One provider's buckets and queue. Buckets refill continuously at their per-minute rate and
+     * start full; a bucket with a zero limit never blocks.
+     */
+    private final class Lane {
+        private final String provider;
+        private final int maxQueue;
+        private final Bucket requests;
+        private final Bucket tokens;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparingLong(Waiter::deadlineNanos).thenComparingLong(Waiter::sequence)
+        );
+        private final AtomicLong sequence = new AtomicLong();
+        private long pausedUntilNanos = System.nanoTime();
+
+        private final Timer queueWait;
+        private final Counter throttled;
+
+        Lane(String provider, LlmProperties.RateLimit limit, int maxQueue) {
+            this.provider = provider;
+            this.maxQueue = Math.max(1, maxQueue);
+            this.requests = new Bucket(limit.getRequestsPerMinute());
+            this.tokens = new Bucket(limit.getTokensPerMinute());
+            this.queueWait = Timer.builder("janus.llm.queue.wait").tag("provider", provider).register(meterRegistry);
+            this.throttled = Counter.builder("janus.llm.throttled").tag("provider", provider).register(meterRegistry);
+            Gauge.builder("janus.llm.queue.size", queue, q -> {
+                lock.lock();
+                try {
+                    return q.size();
+                } finally {
+                    lock.unlock();
+                }
+            }).tag("provider", provider).register(meterRegistry);
+        }
+
+        Counter shed(String reason) {
+            return Counter.builder("janus.llm.shed").tag("provider", provider).tag("reason", reason).register(meterRegistry);
+        }
+
+        void acquire(long cost, long deadlineNanos) {
+            long started = System.nanoTime();
+            lock.lock();
+            try {
+                if (queue.size() >= maxQueue) {
+                    shed("queue_full").increment();
+                    throw new LlmOverloadedException("Too many queued requests for " + provider, false, Duration.ofSeconds(1));
+                }
+                Waiter me = new Waiter(deadlineNanos, sequence.getAndIncrement(), cost);
+                queue.add(me);
+                try {
+                    while (true) {
+                        long now = System.nanoTime();
+                        long waitNanos = (queue.peek() == me) ? nanosUntilAvailable(me, now) : Long.MAX_VALUE;
+                        if (waitNanos == 0) {
+                            requests.take(1);
+                            tokens.take(me.tokens());
+                            return;
+                        }
+                        long remaining = deadlineNanos - now;
+                        if (remaining <= 0 || (waitNanos != Long.MAX_VALUE && waitNanos > remaining)) {
+                            shed("deadline").increment();
+                            Duration retryAfter = Duration.ofNanos(waitNanos == Long.MAX_VALUE ? TimeUnit.SECONDS.toNanos(1) : waitNanos);
+                            throw new LlmOverloadedException("No " + provider + " capacity before the planning deadline", false, retryAfter);
+                        }
+                        changed.awaitNanos(Math.min(waitNanos, remaining));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new LlmOverloadedException("Interrupted waiting for " + provider + " capacity", false, Duration.ofSeconds(1), e);
+                } finally {
+                    queue.remove(me);
+                    changed.signalAll();
+                }
+            } finally {
+                lock.unlock();
+                queueWait.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void pauseFor(Duration wait) {
+            lock.lock();
+            try {
+                pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + wait.toNanos());
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long nanosUntilAvailable(Waiter waiter, long now) {
+            long paused = Math.max(0, pausedUntilNanos - now);
+            long forRequests = requests.nanosUntil(1, now);
+            long forTokens = tokens.nanosUntil(waiter.tokens(), now);
+            return Math.max(paused, Math.max(forRequests, forTokens));
+        }
+    }
+
+    /**
+     * Token bucket refilled at {@code perMinute} per minute, holding at most one minute's worth.
+     * Not thread-safe; used under the lane lock.
+     */
+    private static final class Bucket {
+        private final long perMinute;
+        private double available;
+        private long refilledAt = System.nanoTime();
+
+        Bucket(long perMinute) {
+            this.perMinute = Math.max(0, perMinute);
+            this.available = this.perMinute;
+        }
+
+        long nanosUntil(long amount, long now) {
+            if (perMinute == 0) return 0;
+            refill(now);
+            // A request larger than the whole bucket only waits for a full bucket.
+            double needed = Math.min(amount, perMinute) - available;
+            if (needed <= 0) return 0;
+            return (long) Math.ceil(needed * TimeUnit.MINUTES.toNanos(1) / perMinute);
+        }
+
+        void take(long amount) {
+            if (perMinute == 0) return;
+            available -= Math.min(amount, perMinute);
+        }
+
+        private void refill(long now) {
+            long elapsed = now - refilledAt;
+            if (elapsed <= 0) return;
+            available = Math.min(perMinute, available + (double) elapsed * perMinute / TimeUnit.MINUTES.toNanos(1));
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.anirudhk_tech.janus.agent.llm;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * A provider refused the request for capacity reasons (HTTP 429 or 503). {@link LlmScheduler}
+ * retries these after {@link #retryAfter()} or a backoff.
+ */
+public class LlmThrottledException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LlmThrottledException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * The provider's {@code Retry-After}, when it sent one.
+     */
+    public Optional<Duration> retryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+
+    static boolean isThrottling(HttpStatusCode status) {
+        return status.value() == 429 || status.value() == 503;
+    }
+
+    /**
+     * Parses {@code Retry-After} as delay-seconds or an HTTP-date; null when absent or malformed.
+     */
+    static Duration retryAfter(HttpHeaders headers) {
+        String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) return null;
+        String v = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(v)));
+        } catch (NumberFormatException ignored) {
+            // Not delay-seconds; try an HTTP-date.
+        }
+        try {
+            Duration until = Duration.between(Instant.now(), ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return until.isNegative() ? Duration.ZERO : until;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -1,49 +1,46 @@
 package io.github.anirudhk_tech.janus.agent.llm;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientResponseException;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Component
-@ConditionalOnProperty(name = "janus.llm.provider", havingValue = "openai")
-public final class OpenAiLlmClient implements LlmClient {
+public final class OpenAiLlmClient implements LlmProvider {
 
     private final RestClient restClient;
+    private final ObjectMapper objectMapper;
     private final LlmProperties props;
 
-    public OpenAiLlmClient(@Qualifier("openaiRestClient") RestClient openAiRestClient, LlmProperties props) {
+    public OpenAiLlmClient(@Qualifier("openaiRestClient") RestClient openAiRestClient, ObjectMapper objectMapper, LlmProperties props) {
         this.restClient = Objects.requireNonNull(openAiRestClient, "openAiRestClient is required");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
         this.props = Objects.requireNonNull(props, "props is required");
     }
 
+    @Override
+    public String name() {
+        return "openai";
+    }
+
     @Override
     public String generateJson(String systemPrompt, String userPrompt) {
         Objects.requireNonNull(systemPrompt, "systemPrompt is required");
         Objects.requireNonNull(userPrompt, "userPrompt is required");
 
-        String apiKey = props.getOpenai().getApiKey();
-        if (apiKey == null || apiKey.isBlank()) {
-            throw new IllegalStateException("janus.llm.openai.api-key is required");
-        }
-
-        ChatCompletionsRequest body = new ChatCompletionsRequest(
-            props.getOpenai().getModel(),
-            List.of(
-                new Message("system", systemPrompt),
-                new Message("user", userPrompt)
-            ),
-            0.0,
-            new ResponseFormat("json_object")
-        );
+        String apiKey = apiKey();
+        ChatCompletionsRequest body = request(systemPrompt, userPrompt, null);
 
         try {
             ChatCompletionsResponse resp = restClient.post()
@@ -60,12 +57,91 @@ public final class OpenAiLlmClient implements LlmClient {
             assertLooksLikeJson(json);
             return json;
         } catch (RestClientResponseException e) {
+            if (LlmThrottledException.isThrottling(e.getStatusCode())) {
+                throw new LlmThrottledException(
+                    "OpenAI API throttled: status=" + e.getStatusCode(), LlmThrottledException.retryAfter(e.getResponseHeaders()), e
+                );
+            }
             throw new IllegalStateException("OpenAI API call failed: status=" + e.getStatusCode() + " body=" + safeBody(e.getResponseBodyAsString()), e);
         } catch (Exception e) {
             throw new IllegalStateException("OpenAI client failed", e);
         }
     }
 
+    /**
+     * Chat completions with {@code stream: true}: every server-sent event carries a
+     * {@code choices[0].delta.content} fragment until the {@code [DONE]} event.
+     */
+    @Override
+    public void streamJson(String systemPrompt, String userPrompt, Consumer<String> chunks) {
+        Objects.requireNonNull(systemPrompt, "systemPrompt is required");
+        Objects.requireNonNull(userPrompt, "userPrompt is required");
+        Objects.requireNonNull(chunks, "chunks is required");
+
+        String apiKey = apiKey();
+        ChatCompletionsRequest body = request(systemPrompt, userPrompt, true);
+
+        try {
+            restClient.post()
+                .uri("/v1/chat/completions")
+                .header("Authorization", "Bearer " + apiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .body(body)
+                .exchange((request, response) -> {
+                    if (LlmThrottledException.isThrottling(response.getStatusCode())) {
+                        throw new LlmThrottledException(
+                            "OpenAI API throttled: status=" + response.getStatusCode(), LlmThrottledException.retryAfter(response.getHeaders()), null
+                        );
+                    }
+                    if (response.getStatusCode().isError()) {
+                        String error = new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+                        throw new IllegalStateException("OpenAI API call failed: status=" + response.getStatusCode() + " body=" + safeBody(error));
+                    }
+                    ServerSentEvents.read(response.getBody(), data -> {
+                        if ("[DONE]".equals(data)) return false;
+                        String delta = extractDelta(objectMapper.readValue(data, ChatCompletionsResponse.class));
+                        if (!delta.isEmpty()) chunks.accept(delta);
+                        return true;
+                    });
+                    return null;
+                });
+        } catch (IllegalArgumentException | IllegalStateException | LlmThrottledException e) {
+            // Rejected by the chunk consumer or by the status checks above; keep the original error.
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("OpenAI client failed", e);
+        }
+    }
+
+    private String apiKey() {
+        String apiKey = props.getOpenai().getApiKey();
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("janus.llm.openai.api-key is required");
+        }
+        return apiKey;
+    }
+
+    private ChatCompletionsRequest request(String systemPrompt, String userPrompt, Boolean stream) {
+        return new ChatCompletionsRequest(
+            props.getOpenai().getModel(),
+            List.of(
+                new Message("system", systemPrompt),
+                new Message("user", userPrompt)
+            ),
+            0.0,
+            new ResponseFormat("json_object"),
+            stream
+        );
+    }
+
+    private static String extractDelta(ChatCompletionsResponse chunk) {
+        if (chunk == null || chunk.choices == null || chunk.choices.isEmpty()) return "";
+        Choice c0 = chunk.choices.getFirst();
+        if (c0 == null || c0.delta == null || c0.delta.content == null) return "";
+        return c0.delta.content;
+    }
+
     private static String extractFirstText(ChatCompletionsResponse resp) {
         if (resp == null || resp.choices == null || resp.choices.isEmpty()) {
             throw new IllegalStateException("OpenAI returned no choices");
@@ -102,13 +178,15 @@ public final class OpenAiLlmClient implements LlmClient {
         String model,
         List<Message> messages,
         double temperature,
-        @JsonProperty("response_format") ResponseFormat responseFormat
+        @JsonProperty("response_format") ResponseFormat responseFormat,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Boolean stream
     ) {}
 
     record ResponseFormat(
         @JsonProperty("type") String type
     ) {}
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
     record Message(
         String role,
         String content
@@ -122,5 +200,6 @@ public final class OpenAiLlmClient implements LlmClient {
     @JsonIgnoreProperties(ignoreUnknown = true)
     static final class Choice {
         public Message message;
+        public Message delta;
     }
 }
\ No newline at end of file
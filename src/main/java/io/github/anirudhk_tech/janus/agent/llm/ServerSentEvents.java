@@ -0,0 +1,48 @@
+package io.github.anirudhk_tech.janus.agent.llm;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal {@code text/event-stream} reader for the providers' streaming endpoints: only the
+ * {@code data} field is used, multi-line data is joined with newlines and comments are skipped.
+ */
+final class ServerSentEvents {
+
+    @FunctionalInterface
+    interface DataHandler {
+        /**
+         * @return false to stop reading
+         */
+        boolean onData(String data) throws IOException;
+    }
+
+    private ServerSentEvents() {}
+
+    static void read(InputStream body, DataHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        StringBuilder data = new StringBuilder();
+        boolean hasData = false;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (hasData && !handler.onData(data.toString())) return;
+                data.setLength(0);
+                hasData = false;
+                continue;
+            }
+            if (line.startsWith(":") || !line.startsWith("data:")) continue;
+
+            String value = line.substring(5);
+            if (value.startsWith(" ")) value = value.substring(1);
+            if (hasData) data.append('\n');
+            data.append(value);
+            hasData = true;
+        }
+        if (hasData) handler.onData(data.toString());
+    }
+}
@@ -7,13 +7,16 @@ import java.util.Optional;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import io.github.anirudhk_tech.janus.agent.llm.LlmOverloadedException;
 import io.github.anirudhk_tech.janus.federation.FederationExecutionException;
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -45,7 +48,7 @@ public class ApiExceptionHandler {
 
         body.put("field_errors", fieldErrors);
 
-        return ResponseEntity.badRequest().body(body);
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @ExceptionHandler(FederationExecutionException.class)
@@ -69,7 +72,32 @@ public class ApiExceptionHandler {
         body.put("detail", ex.getMessage());
         body.put("path", request.getRequestURI());
 
-        return ResponseEntity.status(status).body(body);
+        // Errors are always JSON, even when the client asked for CSV, NDJSON or Arrow rows.
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @ExceptionHandler(LlmOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleLlmOverloaded(
+        LlmOverloadedException ex,
+        HttpServletRequest request
+    ) {
+        HttpStatus status = ex.isRateLimited() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        String error = ex.isRateLimited() ? "rate_limited" : "overloaded";
+        long retryAfterSeconds = Math.max(1, (ex.retryAfter().toMillis() + 999) / 1000);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", status.value());
+        body.put("error", error);
+        body.put("message", "planner_unavailable");
+        body.put("detail", ex.getMessage());
+        body.put("path", request.getRequestURI());
+
+        return ResponseEntity.status(status)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
     }
 
     private static boolean hasCause(Throwable ex, Class<? extends Throwable> type) {
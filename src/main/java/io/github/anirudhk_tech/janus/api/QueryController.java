@@ -1,28 +1,39 @@
 package io.github.anirudhk_tech.janus.api;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import io.github.anirudhk_tech.janus.agent.PlanStepListener;
 import io.github.anirudhk_tech.janus.agent.QueryAgent;
+import io.github.anirudhk_tech.janus.federation.CriticalPath;
 import io.github.anirudhk_tech.janus.federation.ExecutionContext;
 import io.github.anirudhk_tech.janus.federation.FederationExecutor;
 import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
 import io.github.anirudhk_tech.janus.merge.MergeService;
 import io.github.anirudhk_tech.janus.merge.MergeProperties;
 import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.github.anirudhk_tech.janus.plan.PlanStep;
 import io.github.anirudhk_tech.janus.output.OutputProperties;
+import io.github.anirudhk_tech.janus.output.ResultWriter;
+import io.github.anirudhk_tech.janus.output.ResultWriters;
 import io.github.anirudhk_tech.janus.output.SqlOutputFormatter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -34,13 +45,15 @@ public class QueryController {
     private final MergeService mergeService;
     private final MergeProperties mergeProperties;
     private final OutputProperties outputProperties;
+    private final ResultWriters resultWriters;
 
     public QueryController(
         QueryAgent queryAgent,
         FederationExecutor federationExecutor,
         MergeService mergeService,
         MergeProperties mergeProperties,
-        OutputProperties outputProperties
+        OutputProperties outputProperties,
+        ResultWriters resultWriters
     ) {
         this.queryAgent = queryAgent;
         this.federationExecutor = federationExecutor;
@@ -48,28 +61,63 @@ public class QueryController {
         this.mergeService = mergeService;
         this.mergeProperties = mergeProperties;
         this.outputProperties = outputProperties;
+        this.resultWriters = resultWriters;
     }
 
+    /**
+     * Returns a {@link QueryResponse} as JSON, or a {@link StreamingResponseBody} that writes step
+     * rows straight onto the response stream: Arrow IPC, CSV or NDJSON when the {@code Accept}
+     * header asks for one, otherwise the text tables in SQL output mode. The return type is
+     * {@code Object} because Spring MVC only streams bodies it can see in the runtime type.
+     */
     @PostMapping("/query")
-    public ResponseEntity<?> query(@Valid @RequestBody QueryRequest request) {
+    public Object query(
+        @Valid @RequestBody QueryRequest request,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        HttpServletResponse response
+    ) {
         String traceId = UUID.randomUUID().toString();
+        Integer maxRows = request.options() == null ? null : request.options().maxRows();
+        ExecutionContext context = new ExecutionContext(traceId, Instant.now(clock), clock, maxRows);
+        FederationExecutor.PlanExecution run = federationExecutor.begin(context, request.options() == null ? null : request.options().timeoutMs());
+
+        // Steps the planner streams out start running while it is still writing the rest.
+        ExecutionPlan plannerPlan = queryAgent.buildPlan(request.question(), request.options(), new PlanStepListener() {
+            @Override
+            public void onStep(PlanStep step) {
+                run.submit(step);
+            }
+
+            @Override
+            public void onRestart() {
+                run.reset();
+            }
+        });
         // Merge strategy is server-controlled (from config), not planner-controlled.
-        ExecutionPlan plannerPlan = queryAgent.buildPlan(request.question(), request.options());
         String effectiveMergeStrategy =
             (mergeProperties.strategy() == null || mergeProperties.strategy().isBlank())
                 ? "json-shallow-merge-v1"
                 : mergeProperties.strategy();
-        ExecutionPlan plan = new ExecutionPlan(plannerPlan.steps(), effectiveMergeStrategy);
-        ExecutionContext context = new ExecutionContext(traceId, Instant.now(clock), clock);
-        List<StepExecutionResult> execution = federationExecutor.execute(plan, context, request.options() == null ? null : request.options().timeoutMs());
+        ExecutionPlan plan = plannerPlan.withMergeStrategy(effectiveMergeStrategy);
+        boolean partial = request.options() != null && Boolean.TRUE.equals(request.options().partial());
+        List<StepExecutionResult> execution = run.await(plan, partial);
+
+        Optional<ResultWriter> writer = resultWriters.negotiate(accept);
+        if (writer.isPresent()) {
+            response.setContentType(writer.get().mediaType().toString());
+            ResultWriters.statusHeaders(execution).forEach(response::setHeader);
+            StreamingResponseBody body = out -> writer.get().write(execution, out);
+            return body;
+        }
 
         if (outputProperties.sql()) {
             boolean colored = outputProperties.color() == null ? true : outputProperties.color();
-            String body = SqlOutputFormatter.format(traceId, execution, colored);
-            return ResponseEntity
-                .ok()
-                .contentType(MediaType.TEXT_PLAIN)
-                .body(body);
+            int widthSampleRows = outputProperties.widthSampleRows() == null
+                ? SqlOutputFormatter.DEFAULT_WIDTH_SAMPLE_ROWS
+                : outputProperties.widthSampleRows();
+            response.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8).toString());
+            StreamingResponseBody body = out -> SqlOutputFormatter.write(traceId, execution, colored, widthSampleRows, out);
+            return body;
         }
 
         boolean shouldExplain = request.options() != null && Boolean.TRUE.equals(request.options().explain());
@@ -80,8 +128,9 @@ public class QueryController {
             data.put("sources", buildSources(execution));
         }
         data.put("merged", merged);
-        QueryResponse.Explanation explanation = shouldExplain ? new QueryResponse.Explanation(plan, execution) : null;
-        return ResponseEntity.ok(new QueryResponse(traceId, "executed", data, explanation));
+        QueryResponse.Explanation explanation = shouldExplain ? new QueryResponse.Explanation(plan, execution, CriticalPath.of(plan, execution)) : null;
+        boolean complete = execution.stream().allMatch(r -> r.status().isSuccess());
+        return ResponseEntity.ok(new QueryResponse(traceId, complete ? "executed" : "partial", data, explanation));
     }
 
     private Map<String, Object> buildSources(List<StepExecutionResult> execution) {
@@ -2,6 +2,7 @@ package io.github.anirudhk_tech.janus.api;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 
 public record QueryRequest (
     @NotBlank(message = "Question is required")
@@ -13,6 +14,9 @@ public record QueryRequest (
     public record Options (
         Integer timeoutMs,
         Boolean explain,
-        Boolean debug
+        Boolean debug,
+        Boolean partial,
+        @Positive(message = "maxRows must be positive")
+        Integer maxRows
     ) {}
 }
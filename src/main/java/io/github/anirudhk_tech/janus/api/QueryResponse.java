@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import io.github.anirudhk_tech.janus.federation.CriticalPath;
 import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
 import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
 
@@ -16,6 +17,7 @@ public record QueryResponse (
 ) {
     public record Explanation (
         ExecutionPlan plan,
-        List<StepExecutionResult> execution
+        List<StepExecutionResult> execution,
+        CriticalPath criticalPath
     ) {}
 }
@@ -0,0 +1,97 @@
+package io.github.anirudhk_tech.janus.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, synchronized LRU map with optional per-entry expiry, shared by the in-memory caches
+ * (plan, guardrail verdict, EXPLAIN estimate, statement shape). An expired entry reads as absent
+ * and is dropped on that read; the least recently used entry is evicted once the map is full.
+ *
+ * <p>Caches that bound by bytes rather than entries ({@code ConnectorResultCache}) keep their own
+ * map.
+ */
+public final class LruCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtNanos, boolean expires) {}
+
+    private final int maxEntries;
+    private final LongSupplier nanoTime;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public LruCache(int maxEntries) {
+        this(maxEntries, System::nanoTime);
+    }
+
+    /**
+     * @param nanoTime the clock expiry is measured against, {@link System#nanoTime()} outside tests
+     */
+    public LruCache(int maxEntries, LongSupplier nanoTime) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.nanoTime = nanoTime;
+    }
+
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return the live value, or null when absent or expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.expires() && nanoTime.getAsLong() - entry.expiresAtNanos() >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * Stores a value that never expires; it leaves only by eviction or {@link #remove}.
+     *
+     * @return the live value it replaced, or null
+     */
+    public V put(K key, V value) {
+        return store(key, new Entry<>(value, 0, false));
+    }
+
+    /**
+     * Stores a value that reads as absent once {@code ttl} has passed.
+     *
+     * @return the live value it replaced, or null
+     */
+    public V put(K key, V value, Duration ttl) {
+        return store(key, new Entry<>(value, nanoTime.getAsLong() + ttl.toNanos(), true));
+    }
+
+    public synchronized V remove(K key) {
+        Entry<V> old = entries.remove(key);
+        return old == null ? null : old.value();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized V store(K key, Entry<V> entry) {
+        if (maxEntries == 0) return null;
+        long now = nanoTime.getAsLong();
+        Entry<V> previous = entries.put(key, entry);
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+        boolean live = previous != null && !(previous.expires() && now - previous.expiresAtNanos() >= 0);
+        return live ? previous.value() : null;
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.anirudhk_tech.janus.capabilities;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.capabilities.sql.SqlColumn;
+import io.github.anirudhk_tech.janus.capabilities.sql.SqlSchema;
+import io.github.anirudhk_tech.janus.capabilities.sql.SqlSchemaService;
+import io.github.anirudhk_tech.janus.capabilities.sql.SqlTable;
+
+/**
+ * The capabilities JSON sent to the planner (sources plus their introspected SQL schemas),
+ * serialized once and reused until {@link SqlSchemaService#version()} moves. The snapshot keeps the
+ * JSON as per-table fragments in a {@link SchemaIndex} so a question-specific prompt with only the
+ * relevant tables can be assembled without serializing anything again.
+ */
+@Service
+public class CapabilitiesPrompt {
+
+    /**
+     * @param version increases every time the JSON is rebuilt; plans record it as the capabilities
+     *                version they were built against
+     * @param json    serialized capabilities
+     * @param hash    SHA-256 of {@code json}
+     * @param index   the same JSON split per table, for pruned prompts
+     */
+    public record Snapshot(long version, String json, String hash, SchemaIndex index) {
+
+        /**
+         * The capabilities JSON restricted to the {@code topK} tables most relevant to the question.
+         */
+        public SchemaIndex.Selection select(String question, int topK) {
+            if (index == null) return new SchemaIndex.Selection(json, 0, 0, Set.of());
+            return index.select(question, topK);
+        }
+    }
+
+    private static final int NAME_WEIGHT = 3;
+
+    private record Built(Snapshot snapshot, long schemaVersion) {}
+
+    private final CapabilitiesService capabilitiesService;
+    private final SqlSchemaService sqlSchemaService;
+    private final ObjectMapper objectMapper;
+
+    private volatile Built current;
+
+    public CapabilitiesPrompt(CapabilitiesService capabilitiesService, SqlSchemaService sqlSchemaService, ObjectMapper objectMapper) {
+        this.capabilitiesService = Objects.requireNonNull(capabilitiesService, "capabilitiesService is required");
+        this.sqlSchemaService = Objects.requireNonNull(sqlSchemaService, "sqlSchemaService is required");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
+    }
+
+    public Snapshot current() {
+        Built built = current;
+        if (built != null && built.schemaVersion() == sqlSchemaService.version()) {
+            return built.snapshot();
+        }
+        return rebuild();
+    }
+
+    private synchronized Snapshot rebuild() {
+        Built built = current;
+        long nextVersion = (built == null) ? 1 : built.snapshot().version() + 1;
+
+        while (true) {
+            long schemaVersion = sqlSchemaService.version();
+            if (built != null && built.schemaVersion() == schemaVersion) {
+                return built.snapshot();
+            }
+
+            SchemaIndex index = index();
+            // Describing a source for the first time bumps the schema version itself; only keep the
+            // result once a full pass completes without the version moving underneath it.
+            if (sqlSchemaService.version() == schemaVersion) {
+                String json = index.render();
+                built = new Built(new Snapshot(nextVersion, json, sha256(json), index), schemaVersion);
+                current = built;
+                return built.snapshot();
+            }
+        }
+    }
+
+    private SchemaIndex index() {
+        try {
+            List<SchemaIndex.Source> sources = new ArrayList<>();
+            for (CapabilitiesProperties.Source s : capabilitiesService.sources()) {
+                sources.add(indexSource(s));
+            }
+            return new SchemaIndex(sources);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize capabilities for LLM prompt", e);
+        }
+    }
+
+    private SchemaIndex.Source indexSource(CapabilitiesProperties.Source s) throws JsonProcessingException {
+        Map<String, Object> src = new LinkedHashMap<>();
+        src.put("sourceId", s.sourceId());
+        src.put("connector", s.connector());
+        src.put("description", s.description());
+        String envelope = objectMapper.writeValueAsString(src);
+
+        if (s.sql() == null) {
+            return new SchemaIndex.Source(s.connector(), s.sourceId(), envelope, "", List.of(), List.of());
+        }
+
+        SqlSchema schema = sqlSchemaService.describe(s.connector(), s.sourceId());
+
+        List<SchemaIndex.Table> tables = new ArrayList<>();
+        for (SqlTable table : schema.tables()) {
+            List<String> terms = new ArrayList<>();
+            List<String> nameTerms = SchemaIndex.terms(table.name());
+            for (int i = 0; i < NAME_WEIGHT; i++) terms.addAll(nameTerms);
+            for (SqlColumn column : table.columns()) terms.addAll(SchemaIndex.terms(column.name()));
+            tables.add(new SchemaIndex.Table(table.name(), objectMapper.writeValueAsString(table), terms));
+        }
+
+        // {"sourceId":...,"description":...} becomes {"sourceId":...,"description":...,"sql":{"schema":...,"tables":[ ... ]}}
+        String prefix = envelope.substring(0, envelope.length() - 1)
+            + ",\"sql\":{\"schema\":" + objectMapper.writeValueAsString(schema.schema()) + ",\"tables\":[";
+        return new SchemaIndex.Source(s.connector(), s.sourceId(), prefix, "]}}", SchemaIndex.terms(s.description()), tables);
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,12 +1,25 @@
 package io.github.anirudhk_tech.janus.capabilities;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+/**
+ * @param schemaRefresh how often SQL schemas are re-introspected in the background (default 5m;
+ *     0 turns the refresh off)
+ * @param schemaStartupTimeout how long startup waits for the first, parallel introspection of
+ *     all sources (default 30s)
+ * @param schemaSnapshot file the introspected schemas are saved to and restored from at startup,
+ *     or null for none
+ */
 @ConfigurationProperties(prefix = "janus.capabilities")
 public record CapabilitiesProperties (
-    List<Source> sources
+    List<Source> sources,
+    Duration schemaRefresh,
+    Duration schemaStartupTimeout,
+    Path schemaSnapshot
 ) {
     public record Source(
         String sourceId,
@@ -0,0 +1,257 @@
+package io.github.anirudhk_tech.janus.capabilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Capabilities JSON kept as pre-serialized fragments (one per source envelope and one per table)
+ * plus a BM25 index over the tables, so a question can be answered with a prompt that only
+ * carries its most relevant tables.
+ *
+ * <p>A table's document is its name (repeated so it outweighs single columns) and its column
+ * names. Each source's description is indexed once, as a document of its own, and a match there
+ * adds a down-weighted share to every table of that source: it breaks ties between sources without
+ * letting a wordy description outrank a table that is named in the question. Terms are split on
+ * punctuation, underscores and camelCase, lower-cased and reduced to a naive singular, so
+ * "link_tags" matches "tags for my links".
+ */
+public final class SchemaIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double SOURCE_WEIGHT = 0.5;
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "all", "an", "and", "are", "by", "do", "does", "for", "from", "get", "give", "how",
+        "in", "is", "list", "many", "me", "my", "of", "on", "show", "the", "to", "what", "which",
+        "who", "with"
+    );
+
+    /**
+     * A source in prompt form: {@code prefix}, the comma-separated table fragments, {@code suffix}.
+     * Sources without SQL hints have no tables and an empty suffix.
+     *
+     * @param terms description terms, shared by all of the source's tables
+     */
+    record Source(String connector, String sourceId, String prefix, String suffix, List<String> terms, List<Table> tables) {}
+
+    /**
+     * @param json  serialized table (name plus columns)
+     * @param terms document terms, repeated by weight
+     */
+    record Table(String name, String json, List<String> terms) {}
+
+    /**
+     * Capabilities JSON for one question. {@code tables} of {@code totalTables} tables were kept.
+     */
+    public record Selection(String json, int tables, int totalTables, Set<String> keptTables) {
+
+        public Selection {
+            keptTables = Set.copyOf(keptTables);
+        }
+
+        public boolean isPruned() {
+            return tables < totalTables;
+        }
+
+        /**
+         * Whether the planner was shown {@code table} of that source; always true when nothing was
+         * pruned.
+         */
+        public boolean includes(String connector, String sourceId, String table) {
+            return !isPruned() || keptTables.contains(key(connector, sourceId, table));
+        }
+    }
+
+    private final List<Source> sources;
+    private final int totalTables;
+    private final int[] sourceOf;
+    private final Bm25 tables;
+    private final Bm25 descriptions;
+
+    SchemaIndex(List<Source> sources) {
+        this.sources = List.copyOf(Objects.requireNonNull(sources, "sources is required"));
+        this.totalTables = this.sources.stream().mapToInt(s -> s.tables().size()).sum();
+        this.sourceOf = new int[totalTables];
+
+        List<List<String>> tableDocs = new ArrayList<>(totalTables);
+        List<List<String>> sourceDocs = new ArrayList<>(this.sources.size());
+        for (int s = 0; s < this.sources.size(); s++) {
+            Source source = this.sources.get(s);
+            sourceDocs.add(source.terms() == null ? List.of() : source.terms());
+            for (Table table : source.tables()) {
+                sourceOf[tableDocs.size()] = s;
+                tableDocs.add(table.terms());
+            }
+        }
+        this.tables = new Bm25(tableDocs);
+        this.descriptions = new Bm25(sourceDocs);
+    }
+
+    public int totalTables() {
+        return totalTables;
+    }
+
+    /**
+     * All tables, i.e. the unpruned capabilities JSON.
+     */
+    public String render() {
+        boolean[] all = new boolean[totalTables];
+        Arrays.fill(all, true);
+        return render(all);
+    }
+
+    /**
+     * Keeps the {@code topK} highest scoring tables. Every source stays in the prompt so the
+     * planner still sees what exists; only table listings shrink. When nothing in the question
+     * matches any table, or there are no more than {@code topK} tables, the full JSON is returned.
+     */
+    public Selection select(String question, int topK) {
+        if (topK <= 0 || totalTables <= topK) {
+            return new Selection(render(), totalTables, totalTables, Set.of());
+        }
+
+        double[] scores = score(question);
+        Integer[] order = new Integer[totalTables];
+        for (int i = 0; i < totalTables; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        if (scores[order[0]] <= 0) {
+            return new Selection(render(), totalTables, totalTables, Set.of());
+        }
+
+        boolean[] keep = new boolean[totalTables];
+        int kept = 0;
+        for (int i = 0; i < topK && scores[order[i]] > 0; i++) {
+            keep[order[i]] = true;
+            kept++;
+        }
+        Set<String> keptTables = new HashSet<>();
+        int doc = 0;
+        for (Source source : sources) {
+            for (Table table : source.tables()) {
+                if (keep[doc++]) keptTables.add(key(source.connector(), source.sourceId(), table.name()));
+            }
+        }
+        return new Selection(render(keep), kept, totalTables, keptTables);
+    }
+
+    double[] score(String question) {
+        Set<String> terms = new LinkedHashSet<>(terms(question));
+        double[] scores = tables.score(terms);
+        double[] sourceScores = descriptions.score(terms);
+        for (int doc = 0; doc < totalTables; doc++) {
+            scores[doc] += SOURCE_WEIGHT * sourceScores[sourceOf[doc]];
+        }
+        return scores;
+    }
+
+    private String render(boolean[] keep) {
+        StringBuilder out = new StringBuilder("{\"sources\":[");
+        int doc = 0;
+        for (int s = 0; s < sources.size(); s++) {
+            Source source = sources.get(s);
+            if (s > 0) out.append(',');
+            out.append(source.prefix());
+            boolean first = true;
+            for (Table table : source.tables()) {
+                if (keep[doc++]) {
+                    if (!first) out.append(',');
+                    out.append(table.json());
+                    first = false;
+                }
+            }
+            out.append(source.suffix());
+        }
+        return out.append("]}").toString();
+    }
+
+    private static String key(String connector, String sourceId, String table) {
+        return connector + ":" + sourceId + ":" + (table == null ? "" : table.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Okapi BM25 over a fixed list of term documents.
+     */
+    private static final class Bm25 {
+        private final int documents;
+        private final Map<String, Integer> documentFrequency = new HashMap<>();
+        private final List<Map<String, Integer>> termFrequencies = new ArrayList<>();
+        private final int[] lengths;
+        private final double averageLength;
+
+        Bm25(List<List<String>> docs) {
+            this.documents = docs.size();
+            this.lengths = new int[documents];
+            long totalLength = 0;
+            for (int doc = 0; doc < documents; doc++) {
+                List<String> terms = docs.get(doc);
+                Map<String, Integer> tf = new HashMap<>();
+                for (String term : terms) tf.merge(term, 1, Integer::sum);
+                for (String term : tf.keySet()) documentFrequency.merge(term, 1, Integer::sum);
+                termFrequencies.add(tf);
+                lengths[doc] = terms.size();
+                totalLength += terms.size();
+            }
+            this.averageLength = (documents == 0) ? 0 : (double) totalLength / documents;
+        }
+
+        double[] score(Set<String> terms) {
+            double[] scores = new double[documents];
+            for (String term : terms) {
+                Integer df = documentFrequency.get(term);
+                if (df == null) continue;
+
+                double idf = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+                for (int doc = 0; doc < documents; doc++) {
+                    Integer tf = termFrequencies.get(doc).get(term);
+                    if (tf == null) continue;
+                    double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                    scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+            return scores;
+        }
+    }
+
+    /**
+     * Splits identifiers and free text into lower-case terms, dropping stopwords and trailing
+     * plural endings.
+     */
+    static List<String> terms(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null) return out;
+
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char ch = (i < text.length()) ? text.charAt(i) : ' ';
+            boolean boundary = !Character.isLetterOrDigit(ch)
+                || (Character.isUpperCase(ch) && word.length() > 0 && Character.isLowerCase(word.charAt(word.length() - 1)));
+            if (boundary && word.length() > 0) {
+                addTerm(out, word.toString().toLowerCase());
+                word.setLength(0);
+            }
+            if (Character.isLetterOrDigit(ch)) word.append(ch);
+        }
+        return out;
+    }
+
+    private static void addTerm(List<String> out, String term) {
+        if (term.length() < 2 || STOPWORDS.contains(term)) return;
+        out.add(singular(term));
+    }
+
+    private static String singular(String term) {
+        if (term.length() > 4 && term.endsWith("ies")) return term.substring(0, term.length() - 3) + "y";
+        if (term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")) return term.substring(0, term.length() - 1);
+        return term;
+    }
+}
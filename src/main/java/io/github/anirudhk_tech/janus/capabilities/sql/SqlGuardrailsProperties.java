@@ -5,6 +5,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "janus.sql.guardrails")
 public class SqlGuardrailsProperties {
     private boolean enabled = true;
+    private boolean parameterizeLiterals = true;
+    private int verdictCacheSize = 1_000;
+    private boolean limitRows = true;
 
     public boolean isEnabled() {
         return enabled;
@@ -13,4 +16,39 @@ public class SqlGuardrailsProperties {
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
-}
\ No newline at end of file
+
+    /**
+     * Lift inline literals in predicates into named parameters, so repeated query shapes share one
+     * statement text (and one prepared plan).
+     */
+    public boolean isParameterizeLiterals() {
+        return parameterizeLiterals;
+    }
+
+    public void setParameterizeLiterals(boolean parameterizeLiterals) {
+        this.parameterizeLiterals = parameterizeLiterals;
+    }
+
+    /**
+     * Verdicts (rewritten SQL or rejection) kept per schema version; 0 disables the cache.
+     */
+    public int getVerdictCacheSize() {
+        return verdictCacheSize;
+    }
+
+    public void setVerdictCacheSize(int verdictCacheSize) {
+        this.verdictCacheSize = verdictCacheSize;
+    }
+
+    /**
+     * Inject or tighten a top-level {@code LIMIT} so a statement cannot return more rows than the
+     * source's {@code fetch.max-rows} (or the request's {@code options.maxRows}).
+     */
+    public boolean isLimitRows() {
+        return limitRows;
+    }
+
+    public void setLimitRows(boolean limitRows) {
+        this.limitRows = limitRows;
+    }
+}
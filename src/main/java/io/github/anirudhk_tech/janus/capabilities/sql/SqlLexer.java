@@ -0,0 +1,356 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits Postgres SQL into tokens, skipping whitespace and comments. Quoted strings, quoted
+ * identifiers and dollar-quoted bodies are single tokens, so their contents never look like
+ * keywords, separators or parameters. The lexer is lenient: an unterminated quote or comment runs
+ * to the end of the input and Postgres reports the error.
+ *
+ * <p>The lexer is a cursor: {@link #next()} advances and {@link #type()}, {@link #start()} and
+ * {@link #end()} describe the current token without allocating. {@link #tokenize(String)} collects
+ * the tokens for callers that need lookahead.
+ */
+public final class SqlLexer {
+
+    public enum Type {
+        /** Keyword or unquoted identifier. */
+        WORD,
+        /** {@code "quoted identifier"}. */
+        QUOTED_IDENTIFIER,
+        /** {@code 'string'}, or a prefixed ({@code E'..'}, {@code B'..'}, {@code X'..'}, {@code U&'..'}) or dollar-quoted one. */
+        STRING,
+        NUMBER,
+        /** Named ({@code :name}) or positional ({@code $1}) parameter. */
+        PARAMETER,
+        /** {@code ::} cast. */
+        CAST,
+        LEFT_PAREN,
+        RIGHT_PAREN,
+        COMMA,
+        DOT,
+        SEMICOLON,
+        OPERATOR
+    }
+
+    /**
+     * A token of {@code sql}.
+     *
+     * @param start offset of the first character
+     * @param end offset just past the last character
+     */
+    public record Token(Type type, String sql, int start, int end) {
+
+        public String text() {
+            return sql.substring(start, end);
+        }
+
+        public boolean isWord(String word) {
+            return type == Type.WORD && SqlLexer.matches(sql, start, end, word);
+        }
+
+        /**
+         * Lower-cased text of a {@link Type#WORD}, for keyword checks.
+         */
+        public String keyword() {
+            return type == Type.WORD ? text().toLowerCase(Locale.ROOT) : "";
+        }
+
+        /**
+         * A plain {@code '...'} string's value with doubled quotes collapsed; null for other tokens.
+         */
+        public String stringValue() {
+            if (type != Type.STRING || sql.charAt(start) != '\'') return null;
+            int close = (end - start > 1 && sql.charAt(end - 1) == '\'') ? end - 1 : end;
+            return sql.substring(start + 1, close).replace("''", "'");
+        }
+    }
+
+    private static final String OPERATOR_CHARS = "+-*/<>=~!@#%^&|`?";
+
+    private final String sql;
+    private final int length;
+    private int pos;
+    private Type type;
+    private int start;
+    private int end;
+
+    public SqlLexer(String sql) {
+        this.sql = sql;
+        this.length = sql.length();
+    }
+
+    public static List<Token> tokenize(String sql) {
+        List<Token> tokens = new ArrayList<>();
+        SqlLexer lexer = new SqlLexer(sql);
+        while (lexer.next()) {
+            tokens.add(new Token(lexer.type, sql, lexer.start, lexer.end));
+        }
+        return tokens;
+    }
+
+    /**
+     * {@code sql} without formatting-only differences, for cache keys: tokens are joined by single
+     * spaces and words are lower-cased, as Postgres folds unquoted keywords and identifiers. Strings,
+     * quoted identifiers, parameters and comments are kept verbatim, and an apostrophe inside a
+     * comment or quoted identifier does not open a string.
+     */
+    public static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        SqlLexer lexer = new SqlLexer(sql);
+        int gapStart = 0;
+        while (lexer.next()) {
+            appendSpaced(out, comments(sql.substring(gapStart, lexer.start)));
+            appendSpaced(out, lexer.type == Type.WORD ? lexer.text().toLowerCase(Locale.ROOT) : lexer.text());
+            gapStart = lexer.end;
+        }
+        appendSpaced(out, comments(sql.substring(gapStart)));
+        return out.toString();
+    }
+
+    /**
+     * The comments in a run of whitespace and comments, verbatim and space-separated. A line
+     * comment keeps the newline that ends it, so the tokens after it stay outside the comment.
+     */
+    private static String comments(String gap) {
+        SqlLexer lexer = new SqlLexer(gap);
+        StringBuilder out = new StringBuilder();
+        int i = 0;
+        while (i < gap.length()) {
+            char c = gap.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            int end = (c == '-') ? lexer.lineEnd(i) : lexer.blockCommentEnd(i);
+            appendSpaced(out, gap.substring(i, end));
+            i = end;
+        }
+        return out.toString();
+    }
+
+    private static void appendSpaced(StringBuilder out, String text) {
+        if (text.isEmpty()) return;
+        if (out.length() > 0) out.append(' ');
+        out.append(text);
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public int start() {
+        return start;
+    }
+
+    public int end() {
+        return end;
+    }
+
+    public String text() {
+        return sql.substring(start, end);
+    }
+
+    /**
+     * Whether the current token is the word {@code word} (ASCII, lower case), ignoring case.
+     */
+    public boolean isWord(String word) {
+        return type == Type.WORD && matches(sql, start, end, word);
+    }
+
+    public boolean isOperator(char c) {
+        return type == Type.OPERATOR && end - start == 1 && sql.charAt(start) == c;
+    }
+
+    /**
+     * Advances to the next token.
+     *
+     * @return false at the end of the input
+     */
+    public boolean next() {
+        while (pos < length) {
+            char c = sql.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '-' && peek(pos + 1) == '-') {
+                pos = lineEnd(pos);
+            } else if (c == '/' && peek(pos + 1) == '*') {
+                pos = blockCommentEnd(pos);
+            } else {
+                start = pos;
+                type = scan(c);
+                end = pos;
+                return true;
+            }
+        }
+        type = null;
+        start = end = length;
+        return false;
+    }
+
+    private Type scan(char c) {
+        if (c == '\'') {
+            pos = quoteEnd(pos, '\'', false);
+            return Type.STRING;
+        }
+        if (isStringPrefix(pos)) {
+            pos = quoteEnd(sql.indexOf('\'', pos), '\'', Character.toLowerCase(c) == 'e');
+            return Type.STRING;
+        }
+        if (c == '"') {
+            pos = quoteEnd(pos, '"', false);
+            return Type.QUOTED_IDENTIFIER;
+        }
+        if (c == '$' && Character.isDigit(peek(pos + 1))) {
+            pos++;
+            while (pos < length && Character.isDigit(sql.charAt(pos))) pos++;
+            return Type.PARAMETER;
+        }
+        if (c == '$' && dollarTagEnd(pos) > 0) {
+            int tagEnd = dollarTagEnd(pos);
+            int close = sql.indexOf(sql.substring(pos, tagEnd), tagEnd);
+            pos = close < 0 ? length : close + (tagEnd - pos);
+            return Type.STRING;
+        }
+        if (Character.isDigit(c) || (c == '.' && Character.isDigit(peek(pos + 1)))) {
+            pos = numberEnd(pos);
+            return Type.NUMBER;
+        }
+        if (isWordStart(c)) {
+            pos = wordEnd(pos + 1);
+            return Type.WORD;
+        }
+        if (c == ':' && peek(pos + 1) == ':') {
+            pos += 2;
+            return Type.CAST;
+        }
+        if (c == ':' && isWordStart(peek(pos + 1))) {
+            pos = wordEnd(pos + 1);
+            return Type.PARAMETER;
+        }
+        pos++;
+        switch (c) {
+            case '(': return Type.LEFT_PAREN;
+            case ')': return Type.RIGHT_PAREN;
+            case ',': return Type.COMMA;
+            case '.': return Type.DOT;
+            case ';': return Type.SEMICOLON;
+            default: break;
+        }
+        if (OPERATOR_CHARS.indexOf(c) >= 0) {
+            while (pos < length && OPERATOR_CHARS.indexOf(sql.charAt(pos)) >= 0 && !startsComment(pos)) pos++;
+        }
+        // [, ], : and anything else Postgres treats as a one-character token.
+        return Type.OPERATOR;
+    }
+
+    static boolean matches(String sql, int start, int end, String lowerWord) {
+        return end - start == lowerWord.length() && sql.regionMatches(true, start, lowerWord, 0, lowerWord.length());
+    }
+
+    private char peek(int i) {
+        return i < length ? sql.charAt(i) : '\0';
+    }
+
+    private boolean startsComment(int i) {
+        char c = sql.charAt(i);
+        return (c == '-' && peek(i + 1) == '-') || (c == '/' && peek(i + 1) == '*');
+    }
+
+    private int lineEnd(int i) {
+        int nl = sql.indexOf('\n', i);
+        return nl < 0 ? length : nl + 1;
+    }
+
+    /**
+     * Postgres block comments nest.
+     */
+    private int blockCommentEnd(int i) {
+        int depth = 0;
+        while (i < length) {
+            if (sql.startsWith("/*", i)) {
+                depth++;
+                i += 2;
+            } else if (sql.startsWith("*/", i)) {
+                depth--;
+                i += 2;
+                if (depth == 0) return i;
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * End of a quoted run starting at {@code open}; a doubled quote is part of the text, as is a
+     * backslash-escaped one in {@code E'..'} strings.
+     */
+    private int quoteEnd(int open, char quote, boolean backslashEscapes) {
+        int i = open + 1;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (backslashEscapes && c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                if (peek(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    private boolean isStringPrefix(int i) {
+        char c = Character.toLowerCase(sql.charAt(i));
+        if (i > 0 && isWordPart(sql.charAt(i - 1))) return false;
+        if ((c == 'e' || c == 'b' || c == 'x' || c == 'n') && peek(i + 1) == '\'') return true;
+        return c == 'u' && peek(i + 1) == '&' && peek(i + 2) == '\'';
+    }
+
+    /**
+     * End of a {@code $tag$} opener at {@code i}, or -1 when there is none.
+     */
+    private int dollarTagEnd(int i) {
+        int j = i + 1;
+        while (j < length && isWordPart(sql.charAt(j)) && sql.charAt(j) != '$') j++;
+        return (j < length && sql.charAt(j) == '$') ? j + 1 : -1;
+    }
+
+    private int numberEnd(int i) {
+        while (i < length && Character.isDigit(sql.charAt(i))) i++;
+        if (i < length && sql.charAt(i) == '.' && peek(i + 1) != '.') {
+            i++;
+            while (i < length && Character.isDigit(sql.charAt(i))) i++;
+        }
+        if (i < length && (sql.charAt(i) == 'e' || sql.charAt(i) == 'E')) {
+            int j = i + 1;
+            if (j < length && (sql.charAt(j) == '+' || sql.charAt(j) == '-')) j++;
+            if (j < length && Character.isDigit(sql.charAt(j))) {
+                i = j;
+                while (i < length && Character.isDigit(sql.charAt(i))) i++;
+            }
+        }
+        return i;
+    }
+
+    private int wordEnd(int i) {
+        while (i < length && isWordPart(sql.charAt(i))) i++;
+        return i;
+    }
+
+    private static boolean isWordStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+
+/**
+ * Lifts inline literals out of planner SQL into named parameters, so questions that differ only
+ * in their constants produce the same statement text ({@code where id = 42} and
+ * {@code where id = 7} both become {@code where id = :lit_0}).
+ *
+ * <p>Only literals in predicate-like positions are lifted: {@code WHERE}, {@code ON},
+ * {@code HAVING}, {@code LIMIT} and {@code OFFSET}. Select lists, {@code FROM} items and
+ * {@code GROUP BY}/{@code ORDER BY} (where an integer is a column position) keep their literals,
+ * as do typed literals ({@code date '2024-01-01'}), prefixed or dollar-quoted strings and type
+ * modifiers ({@code varchar(10)}), where a parameter would change the meaning or be rejected.
+ */
+final class SqlLiterals {
+
+    static final String PREFIX = SqlQueryStep.LIFTED_PARAM_PREFIX;
+
+    private static final Set<String> LIFTING_CLAUSES = Set.of("where", "on", "having", "limit", "offset");
+
+    private static final Set<String> CLAUSE_KEYWORDS = Set.of(
+        "select", "from", "join", "where", "on", "using", "having", "limit", "offset", "fetch",
+        "window", "union", "intersect", "except", "returning", "for"
+    );
+
+    private static final Set<String> TYPE_NAMES = Set.of(
+        "date", "time", "timestamp", "timestamptz", "timetz", "interval", "varchar", "char", "character",
+        "numeric", "decimal", "bit", "varbit", "float", "json", "jsonb", "uuid", "inet", "cidr", "point"
+    );
+
+    record Lifted(String sql, Map<String, Object> params) {}
+
+    private SqlLiterals() {}
+
+    /**
+     * @return {@code sql} with liftable literals replaced by {@code :lit_N} and {@code params}
+     *     extended with their values; the inputs unchanged when nothing was lifted
+     */
+    static Lifted lift(String sql, Map<String, Object> params) {
+        Map<String, Object> out = new LinkedHashMap<>(params == null ? Map.of() : params);
+        List<SqlLexer.Token> tokens = SqlLexer.tokenize(sql);
+        StringBuilder rewritten = new StringBuilder(sql.length());
+        Deque<String> clauses = new ArrayDeque<>();
+        clauses.push("");
+
+        int copied = 0;
+        int next = 0;
+        SqlLexer.Token prev = null;
+
+        for (int i = 0; i < tokens.size(); i++) {
+            SqlLexer.Token t = tokens.get(i);
+
+            switch (t.type()) {
+                case LEFT_PAREN -> {
+                    // Type modifiers and nested clauses get their own frame; plain grouping and
+                    // function arguments inherit the enclosing clause.
+                    boolean typeModifier = prev != null && TYPE_NAMES.contains(prev.keyword());
+                    clauses.push(typeModifier ? "type" : clauses.peek());
+                }
+                case RIGHT_PAREN -> {
+                    if (clauses.size() > 1) clauses.pop();
+                }
+                case WORD -> {
+                    String kw = t.keyword();
+                    if (CLAUSE_KEYWORDS.contains(kw)) {
+                        replaceTop(clauses, kw);
+                    } else if (("order".equals(kw) || "group".equals(kw)) && next(tokens, i).isWord("by")) {
+                        replaceTop(clauses, "by");
+                    }
+                }
+                case NUMBER, STRING -> {
+                    Object value = liftable(t, prev, clauses.peek());
+                    if (value != null) {
+                        String name = nextName(out, next);
+                        next = Integer.parseInt(name.substring(PREFIX.length())) + 1;
+                        out.put(name, value);
+                        rewritten.append(sql, copied, t.start()).append(':').append(name);
+                        copied = t.end();
+                    }
+                }
+                default -> {}
+            }
+            prev = t;
+        }
+
+        if (copied == 0) return new Lifted(sql, params);
+        rewritten.append(sql, copied, sql.length());
+        return new Lifted(rewritten.toString(), out);
+    }
+
+    private static Object liftable(SqlLexer.Token t, SqlLexer.Token prev, String clause) {
+        if (!LIFTING_CLAUSES.contains(clause)) return null;
+        if (prev != null && TYPE_NAMES.contains(prev.keyword())) return null;
+
+        if (t.type() == SqlLexer.Type.STRING) {
+            return t.stringValue();
+        }
+        return number(t.text());
+    }
+
+    private static Object number(String text) {
+        if (text.indexOf('.') >= 0 || text.indexOf('e') >= 0 || text.indexOf('E') >= 0) {
+            return new BigDecimal(text);
+        }
+        try {
+            long value = Long.parseLong(text);
+            return (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) ? (Object) (int) value : (Object) value;
+        } catch (NumberFormatException e) {
+            return new BigDecimal(text);
+        }
+    }
+
+    private static String nextName(Map<String, Object> params, int from) {
+        int n = from;
+        while (params.containsKey(PREFIX + n)) n++;
+        return PREFIX + n;
+    }
+
+    private static SqlLexer.Token next(List<SqlLexer.Token> tokens, int i) {
+        return i + 1 < tokens.size() ? tokens.get(i + 1) : new SqlLexer.Token(SqlLexer.Type.OPERATOR, "", 0, 0);
+    }
+
+    private static void replaceTop(Deque<String> clauses, String clause) {
+        clauses.pop();
+        clauses.push(clause);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+/**
+ * Bounds what one statement can return by injecting a top-level {@code LIMIT}, or tightening the
+ * one it has, so Postgres plans for the rows that will be kept (a top-N sort under
+ * {@code ORDER BY}) instead of producing the whole result for the connector to cut off.
+ *
+ * <p>The limit is one row over the budget, so the connector can still tell a result that exactly
+ * fills the budget from a truncated one. It goes after any {@code ORDER BY}, so the ordering is
+ * kept and the rows returned are the first ones in that order. It goes before a trailing locking
+ * clause ({@code FOR SHARE}, {@code FOR UPDATE} and the like), which Postgres requires to come
+ * last. A limit whose count is a parameter or an expression is left alone; the connector's row cap
+ * still applies to it.
+ */
+final class SqlRowLimit {
+
+    private SqlRowLimit() {}
+
+    /**
+     * @return {@code statement.sql()} limited to {@code maxRows + 1} rows, or the same instance
+     *     when its own limit is already at most that
+     */
+    static String apply(SqlStatement statement, int maxRows) {
+        String sql = statement.sql();
+        long cap = (long) maxRows + 1;
+        SqlStatement.Limit limit = statement.limit();
+
+        if (limit == null) {
+            int lock = statement.lockingClause();
+            return lock < 0
+                ? sql + " limit " + cap
+                : sql.substring(0, lock) + "limit " + cap + " " + sql.substring(lock);
+        }
+
+        boolean all = limit.count() == null && SqlLexer.matches(sql, limit.start(), limit.end(), "all");
+        if (all || (limit.count() != null && limit.count() > cap)) {
+            return sql.substring(0, limit.start()) + cap + sql.substring(limit.end());
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.capabilities.CapabilitiesProperties;
+import io.github.anirudhk_tech.janus.connectors.ConnectorProperties;
+import io.github.anirudhk_tech.janus.connectors.DataSourceRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps SQL schemas loaded ahead of requests and up to date. Schemas are refreshed through
+ * {@link SqlSchemaService#refresh}, which swaps each source in on its own; a source that fails
+ * keeps its previous snapshot.
+ *
+ * <p>At startup, and before the application reports ready, every SQL capability source is
+ * introspected in parallel, waiting up to {@code janus.capabilities.schema-startup-timeout}.
+ * With {@code janus.capabilities.schema-snapshot} set, the schemas are saved to that file after
+ * each pass that changed one. On the next start they are restored from it instead, and the
+ * introspection runs in the background to re-validate them. After that, every source is
+ * refreshed again on a fixed delay, so DDL changes show up without a restart. A source a request
+ * finds not loaded (failed, timed out or skipped at startup) fails that request fast and is
+ * introspected here in the background.
+ *
+ * <p>{@code janus.sql.schema.refresh{source,result=changed|unchanged|error}} counts the outcomes.
+ */
+@Component
+public final class SqlSchemaRefresher implements SmartLifecycle {
+
+    private static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_STARTUP_TIMEOUT = Duration.ofSeconds(30);
+
+    private final SqlSchemaService schemas;
+    private final CapabilitiesProperties capabilities;
+    private final DataSourceRegistry dataSources;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration interval;
+    private final Duration startupTimeout;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+    private volatile ExecutorService introspection;
+
+    public SqlSchemaRefresher(
+        SqlSchemaService schemas,
+        CapabilitiesProperties capabilities,
+        DataSourceRegistry dataSources,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry
+    ) {
+        this.schemas = Objects.requireNonNull(schemas, "schemas is required");
+        this.capabilities = Objects.requireNonNull(capabilities, "capabilities is required");
+        this.dataSources = Objects.requireNonNull(dataSources, "dataSources is required");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        this.interval = capabilities.schemaRefresh() == null ? DEFAULT_INTERVAL : capabilities.schemaRefresh();
+        this.startupTimeout = capabilities.schemaStartupTimeout() == null ? DEFAULT_STARTUP_TIMEOUT : capabilities.schemaStartupTimeout();
+    }
+
+    /**
+     * Refreshes every configured SQL source once, all in parallel, and waits for them.
+     */
+    public void refreshAll() {
+        CompletableFuture<Void> pass = startPass();
+        if (pass != null) pass.join();
+    }
+
+    /**
+     * Starts a parallel pass over all sources, or returns null when one is already running. Once
+     * every source has finished, the snapshot file is rewritten if anything changed.
+     */
+    private CompletableFuture<Void> startPass() {
+        if (!refreshing.compareAndSet(false, true)) return null;
+
+        List<CompletableFuture<Boolean>> refreshes = new ArrayList<>();
+        for (CapabilitiesProperties.Source s : sqlSources()) {
+            refreshes.add(CompletableFuture.supplyAsync(() -> refresh(s.connector(), s.sourceId()), introspection));
+        }
+
+        return CompletableFuture.allOf(refreshes.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+            try {
+                if (refreshes.stream().anyMatch(CompletableFuture::join)) writeSnapshot();
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    private boolean refresh(String connector, String sourceId) {
+        String result;
+        try {
+            result = schemas.refresh(connector, sourceId) ? "changed" : "unchanged";
+        } catch (RuntimeException e) {
+            result = "error";
+        }
+        meterRegistry.counter("janus.sql.schema.refresh", "source", sourceId, "result", result).increment();
+        return "changed".equals(result);
+    }
+
+    /**
+     * Introspects a source a request found missing (its startup introspection failed, timed out or
+     * was skipped), at most once at a time per source, so the request thread never waits on it.
+     */
+    private void queueRefresh(String connector, String sourceId) {
+        String key = connector + ":" + sourceId;
+        ExecutorService pool = introspection;
+        if (pool == null || !queued.add(key)) return;
+        try {
+            pool.execute(() -> {
+                try {
+                    if (refresh(connector, sourceId)) writeSnapshot();
+                } finally {
+                    queued.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(key);
+        }
+    }
+
+    /**
+     * SQL sources with a connection configured; a source whose JDBC URL is blank (an unset
+     * environment variable) would only fail, so it is left to the first request that names it.
+     */
+    private List<CapabilitiesProperties.Source> sqlSources() {
+        List<CapabilitiesProperties.Source> out = new ArrayList<>();
+        for (CapabilitiesProperties.Source s : capabilities.sources() == null ? List.<CapabilitiesProperties.Source>of() : capabilities.sources()) {
+            if (s == null || s.sql() == null) continue;
+            try {
+                ConnectorProperties.JbdcSource source = dataSources.resolveSource(s.connector(), s.sourceId());
+                if (source.jdbcUrl() == null || source.jdbcUrl().isBlank()) continue;
+            } catch (RuntimeException e) {
+                continue;
+            }
+            out.add(s);
+        }
+        return out;
+    }
+
+    private boolean restoreSnapshot() {
+        Path path = capabilities.schemaSnapshot();
+        if (path == null || !Files.isRegularFile(path)) return false;
+        try {
+            Map<String, SqlSchema> snapshot = objectMapper.readValue(path.toFile(), new TypeReference<Map<String, SqlSchema>>() {});
+            return schemas.restore(snapshot) > 0;
+        } catch (IOException | RuntimeException e) {
+            // An unreadable snapshot is just a cold start.
+            return false;
+        }
+    }
+
+    private void writeSnapshot() {
+        Path path = capabilities.schemaSnapshot();
+        if (path == null) return;
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            if (dir != null) Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(tmp.toFile(), schemas.schemas());
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            meterRegistry.counter("janus.sql.schema.snapshot.errors").increment();
+        }
+    }
+
+    /**
+     * Runs while the context starts, so the readiness probe only passes once the schemas are
+     * loaded (from the snapshot, or by the first introspection pass up to the startup timeout).
+     */
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) return;
+        introspection = Executors.newVirtualThreadPerTaskExecutor();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "janus-schema-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+
+        boolean restored = restoreSnapshot();
+        long firstDelayMs = 0;
+        if (!restored) {
+            CompletableFuture<Void> pass = startPass();
+            try {
+                if (pass != null) pass.get(startupTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Sources still introspecting finish in the background; until then requests fail fast on them.
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            }
+            firstDelayMs = interval.toMillis();
+        }
+        // From here on a request never introspects on its own thread.
+        schemas.loadMissesWith(this::queueRefresh);
+
+        if (!interval.isZero() && !interval.isNegative()) {
+            scheduler.scheduleWithFixedDelay(this::refreshAll, firstDelayMs, interval.toMillis(), TimeUnit.MILLISECONDS);
+        } else if (restored) {
+            // Restored from the snapshot: re-validate once even without a periodic refresh.
+            scheduler.execute(this::refreshAll);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler == null) return;
+        schemas.loadMissesWith(null);
+        scheduler.shutdownNow();
+        introspection.shutdownNow();
+        scheduler = null;
+        introspection = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+}
@@ -0,0 +1,468 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * What the guardrail needs to know about one SQL text, gathered in a single {@link SqlLexer} walk:
+ * the statement keyword, whether more than one statement follows, the first write/exec keyword,
+ * the tables named after {@code FROM}/{@code JOIN} at any nesting level, and the top-level select
+ * list and row limit. Because the walk is token based, keywords and table names inside string
+ * literals, quoted identifiers, comments and function arguments ({@code extract(year from ts)})
+ * are not mistaken for SQL structure.
+ *
+ * @param sql the input without comments, surrounding whitespace and trailing semicolons
+ * @param type lower-cased first keyword ({@code select}, {@code with}, ...), empty when there is none
+ * @param multiStatement whether a statement follows a {@code ;}
+ * @param forbiddenKeyword first keyword that writes data or runs code, or null
+ * @param tables table references in order of appearance
+ * @param hasJoin whether any query level uses {@code JOIN}
+ * @param selectList the top-level select list, or null when there is none
+ * @param limit the top-level {@code LIMIT} or {@code FETCH FIRST} count, or null when there is none
+ * @param lockingClause offset of the top-level {@code FOR UPDATE}/{@code FOR SHARE} (or
+ *     {@code NO KEY}/{@code KEY} variant) clause, or -1 when there is none
+ */
+public record SqlStatement(
+    String sql,
+    String type,
+    boolean multiStatement,
+    String forbiddenKeyword,
+    List<TableRef> tables,
+    boolean hasJoin,
+    SelectList selectList,
+    Limit limit,
+    int lockingClause
+) {
+
+    /**
+     * @param name table name without schema qualifier or quotes
+     * @param alias alias as written, or null
+     */
+    public record TableRef(String name, String alias) {}
+
+    /**
+     * @param start offset of the list in {@link SqlStatement#sql()}
+     * @param end offset just past the list
+     * @param star whether the list is exactly {@code *} or {@code qualifier.*}
+     * @param qualifier the qualifier of {@code qualifier.*} as written, or null
+     */
+    public record SelectList(int start, int end, boolean star, String qualifier) {}
+
+    /**
+     * @param start offset of the count in {@link SqlStatement#sql()}; for {@code FETCH FIRST ROWS
+     *     ONLY}, which has none, an empty range
+     * @param end offset just past the count
+     * @param count the count when it is an integer literal (1 when omitted after {@code FETCH}),
+     *     null for {@code ALL}, a parameter or an expression
+     */
+    public record Limit(int start, int end, Long count) {}
+
+    private static final String[] FORBIDDEN = {
+        "insert", "update", "delete", "drop", "alter", "create", "grant", "revoke", "truncate",
+        "call", "do", "copy", "execute", "merge", "into"
+    };
+
+    // Words that end a FROM item instead of aliasing it.
+    private static final Set<String> NOT_ALIASES = Set.of(
+        "where", "join", "left", "right", "inner", "outer", "full", "cross", "natural", "on", "using",
+        "group", "order", "having", "limit", "offset", "fetch", "for", "window", "union", "intersect",
+        "except", "tablesample", "lateral", "returning"
+    );
+
+    private static final int CLAUSE_OTHER = 0;
+    private static final int CLAUSE_SELECT = 1;
+    private static final int CLAUSE_FROM = 2;
+
+    private static final int TABLE_NONE = 0;
+    private static final int TABLE_EXPECTED = 1;
+    private static final int TABLE_NAME = 2;
+    private static final int TABLE_AFTER_DOT = 3;
+    private static final int TABLE_AFTER_NAME = 4;
+    private static final int TABLE_AFTER_AS = 5;
+
+    private static final int LIMIT_NONE = 0;
+    private static final int LIMIT_COUNT = 1;
+    private static final int LIMIT_IN_COUNT = 2;
+    private static final int FETCH_FIRST = 3;
+    private static final int FETCH_COUNT = 4;
+    private static final int FETCH_IN_COUNT = 5;
+    private static final int LIMIT_DONE = 6;
+
+    public Set<String> tableNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (TableRef t : tables) names.add(t.name());
+        return names;
+    }
+
+    public static SqlStatement parse(String sql) {
+        return new Parser(sql).parse();
+    }
+
+    private static final class Parser {
+        private final String in;
+        private final SqlLexer lexer;
+        private final StringBuilder out;
+
+        private boolean[] queryFrame = new boolean[8];
+        private int[] clause = new int[8];
+        private int depth;
+
+        private String type = "";
+        private boolean multiStatement;
+        private boolean pendingSemicolon;
+        private int beforeSemicolons = -1;
+        private String forbidden;
+        private final List<TableRef> tables = new ArrayList<>(4);
+        private boolean hasJoin;
+
+        private int tableState = TABLE_NONE;
+        private int nameStart;
+        private int nameEnd;
+        private boolean nameQuoted;
+
+        // Top-level select list: open while listing, then its bounds and shape.
+        private boolean listOpen;
+        private boolean listSeen;
+        private int listStart = -1;
+        private int listEnd;
+        private int listTokens;
+        private boolean listStar;
+        private int qualifierStart;
+        private int qualifierEnd;
+        private boolean listLeading = true;
+
+        // Top-level LIMIT / FETCH FIRST count.
+        private int limitState = LIMIT_NONE;
+        private int limitStart = -1;
+        private int limitEnd;
+        private Long limitCount;
+
+        // Top-level FOR UPDATE / FOR SHARE: where the FOR is, once the next word confirms it.
+        private int lockingStart = -1;
+        private int pendingFor = -1;
+
+        Parser(String sql) {
+            this.in = sql;
+            this.lexer = new SqlLexer(sql);
+            this.out = new StringBuilder(sql.length());
+        }
+
+        SqlStatement parse() {
+            int prevEnd = -1;
+            while (lexer.next()) {
+                SqlLexer.Type t = lexer.type();
+                if (t == SqlLexer.Type.SEMICOLON) {
+                    if (!pendingSemicolon) beforeSemicolons = out.length();
+                    pendingSemicolon = true;
+                } else if (pendingSemicolon) {
+                    multiStatement = true;
+                    pendingSemicolon = false;
+                }
+                appendGap(prevEnd);
+                int outStart = out.length();
+                out.append(in, lexer.start(), lexer.end());
+                prevEnd = lexer.end();
+                if (t != SqlLexer.Type.SEMICOLON) token(t, outStart, out.length());
+            }
+            closeList();
+            if (pendingSemicolon) out.setLength(beforeSemicolons);
+            if (tableState == TABLE_NAME || tableState == TABLE_AFTER_AS) addTable(null);
+
+            SelectList selectList = listStart < 0 ? null : new SelectList(
+                listStart,
+                listEnd,
+                listStar,
+                qualifierEnd > qualifierStart ? out.substring(qualifierStart, qualifierEnd) : null
+            );
+            Limit limit = limitStart < 0 ? null : new Limit(limitStart, limitEnd, limitCount);
+            return new SqlStatement(out.toString(), type, multiStatement, forbidden, List.copyOf(tables), hasJoin, selectList, limit, lockingStart);
+        }
+
+        private void token(SqlLexer.Type t, int outStart, int outEnd) {
+            if (type.isEmpty() && t == SqlLexer.Type.WORD) type = lexer.text().toLowerCase(Locale.ROOT);
+            if (forbidden == null && t == SqlLexer.Type.WORD) forbidden = forbiddenWord();
+
+            if (listOpen && depth == 0 && t == SqlLexer.Type.WORD && endsSelectList()) {
+                closeList();
+            }
+            if (listOpen) listToken(t, outStart, outEnd);
+            if (limitState != LIMIT_DONE) limitToken(t, outStart, outEnd);
+            if (lockingStart < 0) lockingToken(t, outStart);
+
+            if (tableRef(t)) return;
+
+            switch (t) {
+                case LEFT_PAREN -> push();
+                case RIGHT_PAREN -> {
+                    if (depth > 0) depth--;
+                    tableState = TABLE_NONE;
+                }
+                case COMMA -> {
+                    if (queryFrame[depth] && clause[depth] == CLAUSE_FROM) tableState = TABLE_EXPECTED;
+                }
+                case WORD -> keyword();
+                default -> {}
+            }
+        }
+
+        /**
+         * Advances the FROM-item state machine; true when the token was consumed as part of a
+         * table reference.
+         */
+        private boolean tableRef(SqlLexer.Type t) {
+            boolean identifier = t == SqlLexer.Type.WORD || t == SqlLexer.Type.QUOTED_IDENTIFIER;
+            switch (tableState) {
+                case TABLE_EXPECTED -> {
+                    if (lexer.isWord("lateral") || lexer.isWord("only")) return true;
+                    if (identifier && !isKeywordHere(t)) {
+                        startName(t);
+                        tableState = TABLE_NAME;
+                        return true;
+                    }
+                    // Subquery, VALUES or a function: nothing to record here.
+                    tableState = TABLE_NONE;
+                    return false;
+                }
+                case TABLE_NAME -> {
+                    if (t == SqlLexer.Type.DOT) {
+                        tableState = TABLE_AFTER_DOT;
+                        return true;
+                    }
+                    if (t == SqlLexer.Type.LEFT_PAREN) {
+                        // A set-returning function, not a table.
+                        tableState = TABLE_NONE;
+                        return false;
+                    }
+                    tableState = TABLE_AFTER_NAME;
+                    return afterName(t, identifier);
+                }
+                case TABLE_AFTER_DOT -> {
+                    if (identifier) {
+                        startName(t);
+                        tableState = TABLE_NAME;
+                        return true;
+                    }
+                    tableState = TABLE_NONE;
+                    return false;
+                }
+                case TABLE_AFTER_NAME -> {
+                    return afterName(t, identifier);
+                }
+                case TABLE_AFTER_AS -> {
+                    addTable(identifier ? lexer.text() : null);
+                    tableState = TABLE_NONE;
+                    return identifier;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+
+        private boolean afterName(SqlLexer.Type t, boolean identifier) {
+            if (lexer.isWord("as")) {
+                tableState = TABLE_AFTER_AS;
+                return true;
+            }
+            tableState = TABLE_NONE;
+            if (identifier && !(t == SqlLexer.Type.WORD && NOT_ALIASES.contains(lexer.text().toLowerCase(Locale.ROOT)))) {
+                addTable(lexer.text());
+                return true;
+            }
+            addTable(null);
+            return false;
+        }
+
+        private void keyword() {
+            if (lexer.isWord("select")) {
+                queryFrame[depth] = true;
+                clause[depth] = CLAUSE_SELECT;
+                if (depth == 0 && !listSeen) {
+                    listSeen = true;
+                    listOpen = true;
+                    listLeading = true;
+                }
+                return;
+            }
+            if (!queryFrame[depth]) return;
+
+            if (lexer.isWord("from")) {
+                clause[depth] = CLAUSE_FROM;
+                tableState = TABLE_EXPECTED;
+            } else if (lexer.isWord("join")) {
+                hasJoin = true;
+                clause[depth] = CLAUSE_FROM;
+                tableState = TABLE_EXPECTED;
+            } else if (isClauseKeyword()) {
+                clause[depth] = CLAUSE_OTHER;
+            }
+        }
+
+        private boolean isClauseKeyword() {
+            return lexer.isWord("where") || lexer.isWord("group") || lexer.isWord("order") || lexer.isWord("having")
+                || lexer.isWord("limit") || lexer.isWord("offset") || lexer.isWord("fetch") || lexer.isWord("window")
+                || lexer.isWord("union") || lexer.isWord("intersect") || lexer.isWord("except") || lexer.isWord("on")
+                || lexer.isWord("using") || lexer.isWord("for") || lexer.isWord("into");
+        }
+
+        private boolean endsSelectList() {
+            return lexer.isWord("from") || lexer.isWord("where") || lexer.isWord("group") || lexer.isWord("having")
+                || lexer.isWord("order") || lexer.isWord("limit") || lexer.isWord("offset") || lexer.isWord("union")
+                || lexer.isWord("intersect") || lexer.isWord("except") || lexer.isWord("into") || lexer.isWord("window");
+        }
+
+        private boolean isKeywordHere(SqlLexer.Type t) {
+            return t == SqlLexer.Type.WORD && (lexer.isWord("select") || lexer.isWord("values"));
+        }
+
+        private void listToken(SqlLexer.Type t, int outStart, int outEnd) {
+            if (listLeading && (lexer.isWord("select") || lexer.isWord("distinct") || lexer.isWord("all"))) return;
+            listLeading = false;
+            if (listStart < 0) listStart = outStart;
+            listEnd = outEnd;
+            listTokens++;
+
+            boolean starToken = lexer.isOperator('*');
+            switch (listTokens) {
+                case 1 -> {
+                    listStar = starToken;
+                    qualifierStart = outStart;
+                    qualifierEnd = (t == SqlLexer.Type.WORD || t == SqlLexer.Type.QUOTED_IDENTIFIER) ? outEnd : outStart;
+                }
+                case 2 -> listStar = t == SqlLexer.Type.DOT && qualifierEnd > qualifierStart;
+                case 3 -> listStar = listStar && starToken;
+                default -> listStar = false;
+            }
+        }
+
+        /**
+         * Tracks the count of a top-level {@code LIMIT n} or {@code FETCH FIRST n ROWS}; a count
+         * runs until {@code OFFSET}, {@code FOR} or {@code FETCH} (or the end) at the top level.
+         */
+        private void limitToken(SqlLexer.Type t, int outStart, int outEnd) {
+            switch (limitState) {
+                case LIMIT_NONE -> {
+                    if (depth != 0 || !queryFrame[0] || t != SqlLexer.Type.WORD) return;
+                    if (lexer.isWord("limit")) limitState = LIMIT_COUNT;
+                    else if (lexer.isWord("fetch")) limitState = FETCH_FIRST;
+                }
+                case LIMIT_COUNT -> {
+                    startCount(t, outStart, outEnd);
+                    limitState = LIMIT_IN_COUNT;
+                }
+                case LIMIT_IN_COUNT -> {
+                    if (depth == 0 && (lexer.isWord("offset") || lexer.isWord("for") || lexer.isWord("fetch"))) {
+                        limitState = LIMIT_DONE;
+                    } else {
+                        extendCount(outEnd);
+                    }
+                }
+                // FETCH is not reserved, so a column of that name just resets the search.
+                case FETCH_FIRST -> limitState = (lexer.isWord("first") || lexer.isWord("next")) ? FETCH_COUNT : LIMIT_NONE;
+                case FETCH_COUNT -> {
+                    if (lexer.isWord("row") || lexer.isWord("rows")) {
+                        limitStart = limitEnd = outStart;
+                        limitCount = 1L;
+                        limitState = LIMIT_DONE;
+                    } else {
+                        startCount(t, outStart, outEnd);
+                        limitState = FETCH_IN_COUNT;
+                    }
+                }
+                case FETCH_IN_COUNT -> {
+                    if (depth == 0 && (lexer.isWord("row") || lexer.isWord("rows"))) {
+                        limitState = LIMIT_DONE;
+                    } else {
+                        extendCount(outEnd);
+                    }
+                }
+                default -> {}
+            }
+        }
+
+        private void lockingToken(SqlLexer.Type t, int outStart) {
+            boolean strength = lexer.isWord("update") || lexer.isWord("share") || lexer.isWord("no") || lexer.isWord("key");
+            if (pendingFor >= 0 && strength) {
+                lockingStart = pendingFor;
+            }
+            pendingFor = (depth == 0 && queryFrame[0] && t == SqlLexer.Type.WORD && lexer.isWord("for")) ? outStart : -1;
+        }
+
+        private void startCount(SqlLexer.Type t, int outStart, int outEnd) {
+            limitStart = outStart;
+            limitEnd = outEnd;
+            limitCount = null;
+            if (t != SqlLexer.Type.NUMBER) return;
+            for (int i = lexer.start(); i < lexer.end(); i++) {
+                if (!Character.isDigit(in.charAt(i))) return;
+            }
+            try {
+                limitCount = Long.parseLong(lexer.text());
+            } catch (NumberFormatException e) {
+                limitCount = Long.MAX_VALUE;
+            }
+        }
+
+        private void extendCount(int outEnd) {
+            limitEnd = outEnd;
+            limitCount = null;
+        }
+
+        private void closeList() {
+            if (!listOpen) return;
+            listOpen = false;
+            if (listTokens == 2) listStar = false;
+            if (listTokens != 3) qualifierEnd = qualifierStart;
+        }
+
+        private String forbiddenWord() {
+            int len = lexer.end() - lexer.start();
+            if (len < 2 || len > 8) return null;
+            for (String word : FORBIDDEN) {
+                if (lexer.isWord(word)) return word;
+            }
+            return null;
+        }
+
+        private void startName(SqlLexer.Type t) {
+            nameStart = lexer.start();
+            nameEnd = lexer.end();
+            nameQuoted = t == SqlLexer.Type.QUOTED_IDENTIFIER;
+        }
+
+        private void addTable(String alias) {
+            String name = nameQuoted
+                ? in.substring(nameStart + 1, Math.max(nameStart + 1, nameEnd - 1)).replace("\"\"", "\"")
+                : in.substring(nameStart, nameEnd);
+            tables.add(new TableRef(name, alias));
+        }
+
+        private void push() {
+            depth++;
+            if (depth == queryFrame.length) {
+                queryFrame = Arrays.copyOf(queryFrame, depth * 2);
+                clause = Arrays.copyOf(clause, depth * 2);
+            }
+            queryFrame[depth] = false;
+            clause[depth] = CLAUSE_OTHER;
+        }
+
+        /**
+         * Whitespace between tokens is kept as written; a gap holding a comment becomes one space.
+         */
+        private void appendGap(int prevEnd) {
+            if (prevEnd < 0) return;
+            for (int i = prevEnd; i < lexer.start(); i++) {
+                if (!Character.isWhitespace(in.charAt(i))) {
+                    out.append(' ');
+                    return;
+                }
+            }
+            out.append(in, prevEnd, lexer.start());
+        }
+    }
+}
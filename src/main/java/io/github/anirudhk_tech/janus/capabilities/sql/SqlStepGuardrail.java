@@ -1,76 +1,191 @@
 package io.github.anirudhk_tech.janus.capabilities.sql;
 
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import io.github.anirudhk_tech.janus.connectors.ConnectorException;
+import io.github.anirudhk_tech.janus.connectors.DataSourceRegistry;
 import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
-
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Execution-time checks on planner SQL: one {@code SELECT} statement, no write or exec keywords,
+ * only allowlisted tables. {@code SELECT *} over a single table is expanded to its introspected
+ * columns, the row count is capped with a {@code LIMIT} ({@link SqlRowLimit}), and predicate
+ * literals are lifted into parameters. The SQL is analysed in one
+ * token-based pass ({@link SqlStatement}), so string literals, quoted identifiers and comments
+ * cannot hide or fake SQL structure.
+ *
+ * <p>Verdicts are cached per exact SQL text and the source's
+ * {@link SqlSchemaService#version(String, String) schema version}, so a repeated statement skips
+ * both the analysis and the schema lookup until that source's schema changes.
+ */
 @Component
 @ConditionalOnProperty(name = "janus.sql.guardrails.enabled", havingValue = "true", matchIfMissing = true)
 public final class SqlStepGuardrail {
 
-    private static final Pattern FORBIDDEN =
-        Pattern.compile("(?i)\\b(insert|update|delete|drop|alter|create|grant|revoke|truncate|call|do|copy|execute|merge)\\b");
-
-    private static final Pattern TABLE_REF =
-        Pattern.compile("(?i)\\b(from|join)\\s+([a-zA-Z0-9_\\.\\\"]+)");
-
-    private static final Pattern SELECT_LIST =
-        Pattern.compile("(?is)^\\s*select\\s+(.*?)\\s+from\\s+");
+    private static final int MAX_VERDICT_ATTEMPTS = 3;
 
-    private static final Pattern FROM_ONE_TABLE =
-        Pattern.compile("(?is)\\bfrom\\s+([a-zA-Z0-9_\\.\\\"]+)\\s*(?:as\\s+)?([a-zA-Z0-9_\\\"]+)?");
-
-    private static final Pattern REWRITE_STAR =
-        Pattern.compile("(?is)^(\\s*select\\s+)(\\*|[a-zA-Z0-9_\\\"]+\\s*\\.\\s*\\*)(\\s+from\\s+)");
+    /**
+     * The step to run, and the row budget when the guardrail injected or tightened its
+     * {@code LIMIT} (null otherwise).
+     */
+    public record Guarded(SqlQueryStep step, Integer limitApplied) {}
 
     private final SqlSchemaService sqlSchemaService;
-
-    public SqlStepGuardrail(SqlSchemaService sqlSchemaService) {
+    private final DataSourceRegistry dataSources;
+    private final SqlGuardrailsProperties props;
+    private final SqlVerdictCache verdicts;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer saved;
+
+    public SqlStepGuardrail(
+        SqlSchemaService sqlSchemaService,
+        DataSourceRegistry dataSources,
+        SqlGuardrailsProperties props,
+        MeterRegistry meterRegistry
+    ) {
         this.sqlSchemaService = Objects.requireNonNull(sqlSchemaService, "sqlSchemaService is required");
+        this.dataSources = Objects.requireNonNull(dataSources, "dataSources is required");
+        this.props = Objects.requireNonNull(props, "props is required");
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        this.verdicts = new SqlVerdictCache(props.getVerdictCacheSize());
+        this.hits = Counter.builder("janus.sql.guardrail.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("janus.sql.guardrail.cache").tag("result", "miss").register(meterRegistry);
+        this.saved = Timer.builder("janus.sql.guardrail.saved")
+            .description("Guardrail time skipped per step by verdict cache hits")
+            .register(meterRegistry);
     }
 
-    public SqlQueryStep apply(SqlQueryStep step) {
+    /**
+     * @param maxRows the request's {@code options.maxRows}, or null for the source's row budget
+     */
+    public Guarded apply(SqlQueryStep step, Integer maxRows) {
         Objects.requireNonNull(step, "step is required");
         if (step.sql() == null || step.sql().isBlank()) {
             throw new ConnectorException("Guardrail: SqlQueryStep.sql is blank");
         }
 
-        String sql = stripComments(step.sql()).trim();
+        int rowBudget = props.isLimitRows() ? dataSources.maxRows(step.connector(), step.sourceId(), maxRows) : 0;
+        SqlVerdictCache.Verdict verdict = verdict(step, rowBudget);
+        if (verdict.rejection() != null) {
+            throw new ConnectorException(verdict.rejection());
+        }
+
+        Map<String, Object> params = step.params();
+        if (!verdict.liftedParams().isEmpty()) {
+            params = new LinkedHashMap<>(params == null ? Map.of() : params);
+            params.putAll(verdict.liftedParams());
+        }
 
-        while (sql.endsWith(";")) {
-            sql = sql.substring(0, sql.length() - 1).trim();
+        if (verdict.sql().equals(step.sql()) && params == step.params()) {
+            return new Guarded(step, verdict.limitApplied());
         }
 
-        if (sql.contains(";")) {
+        return new Guarded(step.withSql(verdict.sql(), params), verdict.limitApplied());
+    }
+
+    private SqlVerdictCache.Verdict verdict(SqlQueryStep step, int rowBudget) {
+        if (!verdicts.isEnabled()) return evaluate(step, rowBudget);
+
+        SqlVerdictCache.Key key = new SqlVerdictCache.Key(
+            step.connector(),
+            step.sourceId(),
+            step.sql(),
+            step.params() == null ? Set.of() : Set.copyOf(step.params().keySet()),
+            rowBudget
+        );
+        long version = sqlSchemaService.version(step.connector(), step.sourceId());
+        SqlVerdictCache.Verdict cached = verdicts.get(key, version);
+        if (cached != null) {
+            hits.increment();
+            saved.record(cached.computeNanos(), TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        misses.increment();
+
+        // The first describe() of a source bumps the schema version itself; only a verdict whose
+        // schema version held still while it was computed is cached.
+        SqlVerdictCache.Verdict verdict = null;
+        for (int attempt = 0; attempt < MAX_VERDICT_ATTEMPTS; attempt++) {
+            verdict = evaluate(step, rowBudget);
+            long after = sqlSchemaService.version(step.connector(), step.sourceId());
+            if (after == version) {
+                verdicts.put(key, version, verdict);
+                break;
+            }
+            version = after;
+        }
+        return verdict;
+    }
+
+    /**
+     * @param rowBudget rows the statement may return, or 0 to leave its limit alone
+     */
+    private SqlVerdictCache.Verdict evaluate(SqlQueryStep step, int rowBudget) {
+        long start = System.nanoTime();
+        String sql;
+        Map<String, Object> lifted;
+        Integer limitApplied = null;
+        String rejection = null;
+        try {
+            Checked checked = check(step, rowBudget);
+            sql = checked.sql();
+            limitApplied = checked.limitApplied();
+            lifted = Map.of();
+            if (props.isParameterizeLiterals()) {
+                SqlLiterals.Lifted l = SqlLiterals.lift(sql, step.params());
+                if (!l.sql().equals(sql)) {
+                    lifted = new LinkedHashMap<>(l.params());
+                    if (step.params() != null) lifted.keySet().removeAll(step.params().keySet());
+                }
+                sql = l.sql();
+            }
+        } catch (ConnectorException e) {
+            sql = null;
+            lifted = Map.of();
+            rejection = e.getMessage();
+        }
+        return new SqlVerdictCache.Verdict(sql, Map.copyOf(lifted), limitApplied, rejection, System.nanoTime() - start);
+    }
+
+    private record Checked(String sql, Integer limitApplied) {}
+
+    /**
+     * Validates the statement, then caps its rows and expands {@code SELECT *} where allowed.
+     */
+    private Checked check(SqlQueryStep step, int rowBudget) {
+        SqlStatement statement = SqlStatement.parse(step.sql());
+
+        if (statement.multiStatement()) {
             throw new ConnectorException("Guardrail: multi-statement SQL is not allowed");
         }
 
         // SELECT-only
-        String lower = sql.toLowerCase(Locale.ROOT).trim();
-        if (!lower.startsWith("select")) {
+        if (!"select".equals(statement.type())) {
             throw new ConnectorException("Guardrail: only SELECT statements are allowed");
         }
 
         // forbid obvious dangerous keywords (defense-in-depth)
-        if (FORBIDDEN.matcher(sql).find()) {
+        if (statement.forbiddenKeyword() != null) {
             throw new ConnectorException("Guardrail: forbidden SQL keyword detected");
         }
 
         SqlSchema schema = sqlSchemaService.describe(step.connector(), step.sourceId());
 
         // Validate referenced tables against allowlist
-        Set<String> referencedTables = extractTables(sql, schema.schema());
+        Set<String> referencedTables = statement.tableNames();
         if (referencedTables.isEmpty()) {
             throw new ConnectorException("Guardrail: could not determine referenced tables (FROM/JOIN)");
         }
@@ -81,42 +196,34 @@ public final class SqlStepGuardrail {
             }
         }
 
-        // Rewrite SELECT * only when it is safe (single-table, no joins, no mixed select list)
-        String rewritten = rewriteSelectStarIfSafe(sql, schema, referencedTables);
-
-        if (rewritten.equals(step.sql())) {
-            return step;
+        String sql = statement.sql();
+        Integer limitApplied = null;
+        if (rowBudget > 0) {
+            String limited = SqlRowLimit.apply(statement, rowBudget);
+            if (limited != sql) {
+                sql = limited;
+                limitApplied = rowBudget;
+            }
         }
 
-        return new SqlQueryStep(step.stepId(), step.connector(), step.sourceId(), rewritten, step.params());
+        // Rewrite SELECT * only when it is safe (single-table, no joins, no mixed select list).
+        // The limit sits after the select list, so the list offsets still hold.
+        return new Checked(rewriteSelectStarIfSafe(statement, sql, schema, referencedTables), limitApplied);
     }
 
-    private static String rewriteSelectStarIfSafe(String sql, SqlSchema schema, Set<String> referencedTables) {
-        Matcher listM = SELECT_LIST.matcher(sql);
-        if (!listM.find()) return sql;
-
-        String selectList = listM.group(1).trim();
-        boolean isStarOnly = "*".equals(selectList);
-        boolean isAliasStarOnly = selectList.matches("(?is)^[a-zA-Z0-9_\\\"]+\\s*\\.\\s*\\*$");
-
-        if (!isStarOnly && !isAliasStarOnly) return sql;
+    private static String rewriteSelectStarIfSafe(SqlStatement statement, String sql, SqlSchema schema, Set<String> referencedTables) {
+        SqlStatement.SelectList selectList = statement.selectList();
+        if (selectList == null || !selectList.star()) return sql;
 
         if (referencedTables.size() != 1) {
             throw new ConnectorException("Guardrail: SELECT * is only allowed for single-table queries (rewrite requires 1 table)");
         }
 
-        String lower = sql.toLowerCase(Locale.ROOT);
-        if (lower.contains(" join ")) {
+        if (statement.hasJoin()) {
             throw new ConnectorException("Guardrail: SELECT * with JOIN is not allowed; select explicit columns");
         }
 
-        Matcher fromM = FROM_ONE_TABLE.matcher(sql);
-        if (!fromM.find()) return sql;
-
-        String rawIdent = fromM.group(1);
-        String alias = fromM.group(2);
-
-        String tableName = normalizeTableName(rawIdent, schema.schema());
+        String tableName = referencedTables.iterator().next();
         SqlTable table = schema.table(tableName)
             .orElseThrow(() -> new ConnectorException("Guardrail: table not allowlisted: " + tableName));
 
@@ -124,79 +231,12 @@ public final class SqlStepGuardrail {
             throw new ConnectorException("Guardrail: no column metadata available to rewrite SELECT * for table: " + tableName);
         }
 
-        String prefix = null;
-        if (isAliasStarOnly) {
-            prefix = selectList.split("\\.")[0].trim().replace("\"", "");
-        }
-
+        String prefix = selectList.qualifier();
         List<String> cols = new ArrayList<>();
         for (SqlColumn c : table.columns()) {
-            String colName = c.name();
-            if (prefix != null && !prefix.isBlank()) {
-                cols.add(prefix + "." + colName);
-            } else if (alias != null && !alias.isBlank() && selectList.contains(".")) {
-                // If the query used alias.*, prefer keeping alias qualification.
-                String a = alias.replace("\"", "");
-                cols.add(a + "." + colName);
-            } else {
-                cols.add(colName);
-            }
+            cols.add(prefix == null ? c.name() : prefix + "." + c.name());
         }
 
-        String colList = String.join(", ", cols);
-
-        Matcher rw = REWRITE_STAR.matcher(sql);
-        if (!rw.find()) return sql;
-
-        return rw.replaceFirst("$1" + Matcher.quoteReplacement(colList) + "$3");
-    }
-
-    private static Set<String> extractTables(String sql, String defaultSchema) {
-        String s = stripComments(sql);
-
-        Matcher m = TABLE_REF.matcher(s);
-        Set<String> out = new LinkedHashSet<>();
-        while (m.find()) {
-            String ident = m.group(2);
-            String t = normalizeTableName(ident, defaultSchema);
-            if (t != null && !t.isBlank()) out.add(t);
-        }
-        return out;
-    }
-
-    private static String normalizeTableName(String ident, String defaultSchema) {
-        if (ident == null) return null;
-        String x = ident.trim();
-        if (x.isBlank()) return x;
-
-        // drop quotes
-        x = x.replace("\"", "");
-
-        // remove schema qualifier if it matches default schema
-        // examples: public.calendar_events -> calendar_events
-        int dot = x.indexOf('.');
-        if (dot >= 0) {
-            String left = x.substring(0, dot);
-            String right = x.substring(dot + 1);
-            if (defaultSchema != null && left.equalsIgnoreCase(defaultSchema)) {
-                return right;
-            }
-            // otherwise, keep right-most token as table name (strict allowlist is table-name based)
-            return right;
-        }
-
-        return x;
-    }
-
-    private static String stripComments(String sql) {
-        String x = sql;
-
-        // Remove /* ... */ comments (non-nested)
-        x = x.replaceAll("(?s)/\\*.*?\\*/", " ");
-
-        // Remove -- ... end-of-line comments
-        x = x.replaceAll("(?m)--.*?$", " ");
-
-        return x;
+        return sql.substring(0, selectList.start()) + String.join(", ", cols) + sql.substring(selectList.end());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import java.util.Map;
+import java.util.Set;
+
+import io.github.anirudhk_tech.janus.cache.LruCache;
+
+/**
+ * Bounded LRU of guardrail verdicts. Entries are keyed by source, exact SQL text and the names of
+ * the step's own params (lifted literals are named around them), and stamped with that source's
+ * schema version; a lookup under any other version of the source misses, while verdicts for other
+ * sources stay valid.
+ */
+final class SqlVerdictCache {
+
+    record Key(String connector, String sourceId, String sql, Set<String> paramNames, int maxRows) {}
+
+    /**
+     * Either the rewritten SQL plus the params lifted out of it, or the rejection message.
+     *
+     * @param limitApplied the row budget when a {@code LIMIT} was injected or tightened, else null
+     * @param computeNanos what producing the verdict cost, i.e. what a hit saves
+     */
+    record Verdict(String sql, Map<String, Object> liftedParams, Integer limitApplied, String rejection, long computeNanos) {}
+
+    private record Stamped(long schemaVersion, Verdict verdict) {}
+
+    private final LruCache<Key, Stamped> entries;
+
+    SqlVerdictCache(int maxEntries) {
+        this.entries = new LruCache<>(maxEntries);
+    }
+
+    boolean isEnabled() {
+        return entries.maxEntries() > 0;
+    }
+
+    /**
+     * @param version the source's current {@link SqlSchemaService#version(String, String)}
+     */
+    Verdict get(Key key, long version) {
+        Stamped stamped = entries.get(key);
+        return (stamped != null && stamped.schemaVersion() == version) ? stamped.verdict() : null;
+    }
+
+    void put(Key key, long version, Verdict verdict) {
+        entries.put(key, new Stamped(version, verdict));
+    }
+}
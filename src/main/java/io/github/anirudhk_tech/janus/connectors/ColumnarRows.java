@@ -0,0 +1,625 @@
+package io.github.anirudhk_tech.janus.connectors;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import org.springframework.jdbc.support.JdbcUtils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Compact, immutable tabular result: one header of column names plus one typed array per column.
+ * Integer, long, double and boolean columns are stored as primitive arrays with a null bitmap and
+ * text columns are dictionary-encoded, so a large result costs a few arrays instead of one map
+ * and a boxed value per cell.
+ *
+ * <p>It is still a {@code List<Map<String, Object>>} so code that only knows the row-map shape
+ * keeps working; {@link #get(int)} returns a lightweight read-only view over the columns rather
+ * than a copied map. Hot paths should use {@link #get(int, int)} and {@link #columnIndex(String)}.
+ * JSON is written straight from the columns.
+ */
+@JsonSerialize(using = ColumnarRows.JsonWriter.class)
+public final class ColumnarRows extends AbstractList<Map<String, Object>> implements RandomAccess {
+
+    /**
+     * Physical storage for a column.
+     */
+    public enum Kind {
+        INT, LONG, DOUBLE, BOOLEAN, STRING, OBJECT;
+
+        /**
+         * Storage for a JDBC column. Types whose values would change when widened (e.g. REAL,
+         * NUMERIC) are kept as objects.
+         */
+        static Kind forJdbcType(int sqlType) {
+            return switch (sqlType) {
+                case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> INT;
+                case Types.BIGINT -> LONG;
+                case Types.DOUBLE, Types.FLOAT -> DOUBLE;
+                case Types.BOOLEAN, Types.BIT -> BOOLEAN;
+                case Types.VARCHAR, Types.CHAR, Types.LONGVARCHAR, Types.NVARCHAR, Types.NCHAR, Types.LONGNVARCHAR -> STRING;
+                default -> OBJECT;
+            };
+        }
+
+        static Kind forValue(Object value) {
+            if (value instanceof Integer || value instanceof Short || value instanceof Byte) return INT;
+            if (value instanceof Long) return LONG;
+            if (value instanceof Double) return DOUBLE;
+            if (value instanceof Boolean) return BOOLEAN;
+            if (value instanceof String) return STRING;
+            return OBJECT;
+        }
+    }
+
+    private static final ColumnarRows EMPTY = new ColumnarRows(List.of(), new Column[0], 0);
+
+    private final List<String> columns;
+    private final Column[] data;
+    private final int size;
+    private Map<String, Integer> lowerCaseIndex;
+
+    private ColumnarRows(List<String> columns, Column[] data, int size) {
+        this.columns = columns;
+        this.data = data;
+        this.size = size;
+    }
+
+    public static ColumnarRows empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Converts row maps, inferring each column's storage from its non-null values. Columns are
+     * the union of all row keys in first-seen order; missing keys become nulls.
+     */
+    public static ColumnarRows fromMaps(List<? extends Map<String, ?>> rows) {
+        if (rows == null || rows.isEmpty()) return EMPTY;
+
+        Map<String, Kind> kinds = new LinkedHashMap<>();
+        for (Map<String, ?> row : rows) {
+            if (row == null) continue;
+            for (Map.Entry<String, ?> e : row.entrySet()) {
+                Kind seen = kinds.get(e.getKey());
+                if (e.getValue() == null) {
+                    kinds.putIfAbsent(e.getKey(), null);
+                } else {
+                    kinds.put(e.getKey(), widen(seen, Kind.forValue(e.getValue())));
+                }
+            }
+        }
+
+        Builder b = builder(new ArrayList<>(kinds.keySet()), new ArrayList<>(kinds.values()));
+        for (Map<String, ?> row : rows) {
+            int c = 0;
+            for (String col : kinds.keySet()) {
+                b.set(c++, row == null ? null : row.get(col));
+            }
+            b.endRow();
+        }
+        return b.build();
+    }
+
+    /**
+     * Appends {@code b} below {@code a}. The header is the union of both headers; a column whose
+     * storage differs between the two falls back to objects.
+     */
+    public static ColumnarRows concat(ColumnarRows a, ColumnarRows b) {
+        if (a.isEmpty() && a.columns.isEmpty()) return b;
+        if (b.isEmpty() && b.columns.isEmpty()) return a;
+
+        List<String> names = new ArrayList<>(a.columns);
+        List<Kind> kinds = new ArrayList<>();
+        for (Column col : a.data) kinds.add(col.kind());
+        for (int i = 0; i < b.columns.size(); i++) {
+            int at = names.indexOf(b.columns.get(i));
+            if (at < 0) {
+                names.add(b.columns.get(i));
+                kinds.add(b.data[i].kind());
+            } else if (kinds.get(at) != b.data[i].kind()) {
+                kinds.set(at, Kind.OBJECT);
+            }
+        }
+
+        Builder out = builder(names, kinds);
+        for (ColumnarRows part : List.of(a, b)) {
+            int[] source = new int[names.size()];
+            for (int c = 0; c < names.size(); c++) source[c] = part.columns.indexOf(names.get(c));
+            for (int r = 0; r < part.size; r++) {
+                for (int c = 0; c < names.size(); c++) {
+                    out.set(c, source[c] < 0 ? null : part.get(r, source[c]));
+                }
+                out.endRow();
+            }
+        }
+        return out.build();
+    }
+
+    private static Kind widen(Kind seen, Kind next) {
+        if (seen == null || seen == next) return next;
+        if ((seen == Kind.INT && next == Kind.LONG) || (seen == Kind.LONG && next == Kind.INT)) return Kind.LONG;
+        return Kind.OBJECT;
+    }
+
+    public static Builder builder(List<String> columns, List<Kind> kinds) {
+        return new Builder(columns, kinds);
+    }
+
+    /**
+     * Builder whose header and column storage come from the result set's metadata. Column labels
+     * are used as names; a repeated label keeps its first column, matching the row-map shape.
+     */
+    public static Builder builder(ResultSetMetaData meta) throws SQLException {
+        int count = meta.getColumnCount();
+        List<String> names = new ArrayList<>(count);
+        List<Kind> kinds = new ArrayList<>(count);
+        int[] jdbcIndex = new int[count];
+        int kept = 0;
+
+        for (int i = 1; i <= count; i++) {
+            String name = JdbcUtils.lookupColumnName(meta, i);
+            if (containsIgnoreCase(names, name)) continue;
+            int type = meta.getColumnType(i);
+            names.add(name);
+            // Postgres reports both boolean and bit(n) as BIT; only single bits read as booleans.
+            kinds.add(type == Types.BIT && meta.getPrecision(i) > 1 ? Kind.OBJECT : Kind.forJdbcType(type));
+            jdbcIndex[kept++] = i;
+        }
+
+        Builder b = new Builder(names, kinds);
+        b.jdbcIndex = Arrays.copyOf(jdbcIndex, kept);
+        return b;
+    }
+
+    private static boolean containsIgnoreCase(List<String> names, String name) {
+        for (String n : names) {
+            if (n.equalsIgnoreCase(name)) return true;
+        }
+        return false;
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+
+    public Kind kind(int column) {
+        return data[column].kind();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Index of the named column, falling back to a case-insensitive match like the JDBC row maps
+     * did; -1 if absent.
+     */
+    public int columnIndex(String name) {
+        int exact = columns.indexOf(name);
+        if (exact >= 0 || name == null) return exact;
+
+        Map<String, Integer> index = lowerCaseIndex;
+        if (index == null) {
+            index = new HashMap<>();
+            for (int i = columns.size() - 1; i >= 0; i--) {
+                index.put(columns.get(i).toLowerCase(), i);
+            }
+            lowerCaseIndex = index;
+        }
+        return index.getOrDefault(name.toLowerCase(), -1);
+    }
+
+    /**
+     * Boxed cell value; null for SQL NULL.
+     */
+    public Object get(int row, int column) {
+        Objects.checkIndex(row, size);
+        return data[column].get(row);
+    }
+
+    public boolean isNull(int row, int column) {
+        Objects.checkIndex(row, size);
+        return data[column].isNull(row);
+    }
+
+    /**
+     * Typed accessors for non-null cells; the column must have the matching {@link Kind}.
+     */
+    public int getInt(int row, int column) {
+        return ((IntColumn) data[column]).values()[row];
+    }
+
+    public long getLong(int row, int column) {
+        return ((LongColumn) data[column]).values()[row];
+    }
+
+    public double getDouble(int row, int column) {
+        return ((DoubleColumn) data[column]).values()[row];
+    }
+
+    public boolean getBoolean(int row, int column) {
+        return ((BooleanColumn) data[column]).values().get(row);
+    }
+
+    public String getString(int row, int column) {
+        StringColumn col = (StringColumn) data[column];
+        return col.dictionary()[col.codes()[row]];
+    }
+
+    @Override
+    public Map<String, Object> get(int row) {
+        Objects.checkIndex(row, size);
+        return new RowView(row);
+    }
+
+    /**
+     * Rough retained size in bytes, on the same scale as {@code ResultSizes}.
+     */
+    public long estimatedBytes() {
+        long total = 64;
+        for (Column col : data) total += col.estimatedBytes(size);
+        return total;
+    }
+
+    private final class RowView extends AbstractMap<String, Object> {
+        private final int row;
+
+        RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int c = (key instanceof String s) ? columnIndex(s) : -1;
+            return c < 0 ? null : data[c].get(row);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String s && columnIndex(s) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return columns.size();
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int c;
+
+                        @Override
+                        public boolean hasNext() {
+                            return c < columns.size();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            int at = c++;
+                            return new AbstractMap.SimpleImmutableEntry<>(columns.get(at), data[at].get(row));
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * Row-at-a-time builder. Call {@link #set} (or {@link #readRow}) for each column, then
+     * {@link #endRow()}.
+     */
+    public static final class Builder {
+        private final List<String> names;
+        private final ColumnBuilder[] cols;
+        private int[] jdbcIndex;
+        private int size;
+
+        private Builder(List<String> names, List<Kind> kinds) {
+            if (names.size() != kinds.size()) {
+                throw new IllegalArgumentException("columns and kinds must have the same length");
+            }
+            this.names = List.copyOf(names);
+            this.cols = new ColumnBuilder[names.size()];
+            for (int i = 0; i < cols.length; i++) {
+                cols[i] = new ColumnBuilder(kinds.get(i) == null ? Kind.OBJECT : kinds.get(i));
+            }
+        }
+
+        public Builder set(int column, Object value) {
+            cols[column].set(size, value);
+            return this;
+        }
+
+        /**
+         * Reads the current result set row into the builder, using primitive getters where the
+         * column storage allows it.
+         */
+        public Builder readRow(ResultSet rs) throws SQLException {
+            if (jdbcIndex == null) {
+                throw new IllegalStateException("builder was not created from result set metadata");
+            }
+            for (int c = 0; c < cols.length; c++) {
+                cols[c].read(size, rs, jdbcIndex[c]);
+            }
+            return endRow();
+        }
+
+        public Builder endRow() {
+            size++;
+            return this;
+        }
+
+        /**
+         * Drops the most recently ended row, e.g. when it pushed the result over a size cap.
+         */
+        public void removeLast() {
+            if (size == 0) return;
+            size--;
+            for (ColumnBuilder col : cols) col.clear(size);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long estimatedBytes() {
+            long total = 64;
+            for (ColumnBuilder col : cols) total += col.estimatedBytes(size);
+            return total;
+        }
+
+        public ColumnarRows build() {
+            Column[] built = new Column[cols.length];
+            for (int i = 0; i < cols.length; i++) built[i] = cols[i].build(size);
+            return new ColumnarRows(names, built, size);
+        }
+    }
+
+    private static final class ColumnBuilder {
+        private final Kind kind;
+        private final BitSet nulls = new BitSet();
+        private int[] ints;
+        private long[] longs;
+        private double[] doubles;
+        private BitSet bools;
+        private Object[] objects;
+        private Map<String, Integer> dictionary;
+        private List<String> dictionaryValues;
+        private long dictionaryBytes;
+        private long objectBytes;
+
+        ColumnBuilder(Kind kind) {
+            this.kind = kind;
+            switch (kind) {
+                case INT -> ints = new int[16];
+                case LONG -> longs = new long[16];
+                case DOUBLE -> doubles = new double[16];
+                case BOOLEAN -> bools = new BitSet();
+                case STRING -> {
+                    ints = new int[16];
+                    dictionary = new HashMap<>();
+                    dictionaryValues = new ArrayList<>();
+                }
+                case OBJECT -> objects = new Object[16];
+            }
+        }
+
+        void set(int row, Object value) {
+            ensureCapacity(row);
+            if (value == null) {
+                nulls.set(row);
+                return;
+            }
+            nulls.clear(row);
+            switch (kind) {
+                case INT -> ints[row] = ((Number) value).intValue();
+                case LONG -> longs[row] = ((Number) value).longValue();
+                case DOUBLE -> doubles[row] = ((Number) value).doubleValue();
+                case BOOLEAN -> bools.set(row, (Boolean) value);
+                case STRING -> ints[row] = code(value.toString());
+                case OBJECT -> {
+                    objects[row] = value;
+                    objectBytes += ResultSizes.estimateValue(value);
+                }
+            }
+        }
+
+        void read(int row, ResultSet rs, int index) throws SQLException {
+            ensureCapacity(row);
+            switch (kind) {
+                case INT -> ints[row] = rs.getInt(index);
+                case LONG -> longs[row] = rs.getLong(index);
+                case DOUBLE -> doubles[row] = rs.getDouble(index);
+                case BOOLEAN -> bools.set(row, rs.getBoolean(index));
+                case STRING -> {
+                    String s = rs.getString(index);
+                    if (s != null) ints[row] = code(s);
+                }
+                case OBJECT -> {
+                    objects[row] = JdbcUtils.getResultSetValue(rs, index);
+                    objectBytes += ResultSizes.estimateValue(objects[row]);
+                }
+            }
+            nulls.set(row, kind == Kind.OBJECT ? objects[row] == null : rs.wasNull());
+        }
+
+        void clear(int row) {
+            nulls.clear(row);
+            if (bools != null) bools.clear(row);
+            if (objects != null && row < objects.length) {
+                objectBytes -= ResultSizes.estimateValue(objects[row]);
+                objects[row] = null;
+            }
+        }
+
+        private int code(String s) {
+            Integer existing = dictionary.get(s);
+            if (existing != null) return existing;
+            int next = dictionaryValues.size();
+            dictionary.put(s, next);
+            dictionaryValues.add(s);
+            dictionaryBytes += 40 + 2L * s.length();
+            return next;
+        }
+
+        private void ensureCapacity(int row) {
+            switch (kind) {
+                case INT, STRING -> { if (row >= ints.length) ints = Arrays.copyOf(ints, grow(ints.length, row)); }
+                case LONG -> { if (row >= longs.length) longs = Arrays.copyOf(longs, grow(longs.length, row)); }
+                case DOUBLE -> { if (row >= doubles.length) doubles = Arrays.copyOf(doubles, grow(doubles.length, row)); }
+                case OBJECT -> { if (row >= objects.length) objects = Arrays.copyOf(objects, grow(objects.length, row)); }
+                case BOOLEAN -> {}
+            }
+        }
+
+        private static int grow(int current, int row) {
+            return Math.max(row + 1, current + (current >> 1));
+        }
+
+        long estimatedBytes(int size) {
+            return switch (kind) {
+                case INT -> 4L * size;
+                case LONG, DOUBLE -> 8L * size;
+                case BOOLEAN -> size / 4 + 16;
+                case STRING -> 4L * size + dictionaryBytes;
+                case OBJECT -> 8L * size + objectBytes;
+            } + size / 8 + 16;
+        }
+
+        Column build(int size) {
+            BitSet n = nulls.get(0, size);
+            return switch (kind) {
+                case INT -> new IntColumn(Arrays.copyOf(ints, size), n);
+                case LONG -> new LongColumn(Arrays.copyOf(longs, size), n);
+                case DOUBLE -> new DoubleColumn(Arrays.copyOf(doubles, size), n);
+                case BOOLEAN -> new BooleanColumn(bools.get(0, size), n);
+                case STRING -> new StringColumn(Arrays.copyOf(ints, size), dictionaryValues.toArray(new String[0]), n, dictionaryBytes);
+                case OBJECT -> new ObjectColumn(Arrays.copyOf(objects, size));
+            };
+        }
+    }
+
+    private sealed interface Column permits IntColumn, LongColumn, DoubleColumn, BooleanColumn, StringColumn, ObjectColumn {
+        Kind kind();
+
+        boolean isNull(int row);
+
+        Object get(int row);
+
+        long estimatedBytes(int size);
+    }
+
+    private record IntColumn(int[] values, BitSet nulls) implements Column {
+        public Kind kind() { return Kind.INT; }
+        public boolean isNull(int row) { return nulls.get(row); }
+        public Object get(int row) { return nulls.get(row) ? null : values[row]; }
+        public long estimatedBytes(int size) { return 4L * size + size / 8 + 32; }
+    }
+
+    private record LongColumn(long[] values, BitSet nulls) implements Column {
+        public Kind kind() { return Kind.LONG; }
+        public boolean isNull(int row) { return nulls.get(row); }
+        public Object get(int row) { return nulls.get(row) ? null : values[row]; }
+        public long estimatedBytes(int size) { return 8L * size + size / 8 + 32; }
+    }
+
+    private record DoubleColumn(double[] values, BitSet nulls) implements Column {
+        public Kind kind() { return Kind.DOUBLE; }
+        public boolean isNull(int row) { return nulls.get(row); }
+        public Object get(int row) { return nulls.get(row) ? null : values[row]; }
+        public long estimatedBytes(int size) { return 8L * size + size / 8 + 32; }
+    }
+
+    private record BooleanColumn(BitSet values, BitSet nulls) implements Column {
+        public Kind kind() { return Kind.BOOLEAN; }
+        public boolean isNull(int row) { return nulls.get(row); }
+        public Object get(int row) { return nulls.get(row) ? null : values.get(row); }
+        public long estimatedBytes(int size) { return size / 4 + 48; }
+    }
+
+    private record StringColumn(int[] codes, String[] dictionary, BitSet nulls, long dictionaryBytes) implements Column {
+        public Kind kind() { return Kind.STRING; }
+        public boolean isNull(int row) { return nulls.get(row); }
+        public Object get(int row) { return nulls.get(row) ? null : dictionary[codes[row]]; }
+        public long estimatedBytes(int size) { return 4L * size + size / 8 + 32 + 8L * dictionary.length + dictionaryBytes; }
+    }
+
+    private record ObjectColumn(Object[] values) implements Column {
+        public Kind kind() { return Kind.OBJECT; }
+        public boolean isNull(int row) { return values[row] == null; }
+        public Object get(int row) { return values[row]; }
+        public long estimatedBytes(int size) {
+            long total = 8L * size + 16;
+            for (int i = 0; i < size; i++) total += ResultSizes.estimateValue(values[i]);
+            return total;
+        }
+    }
+
+    /**
+     * Writes rows as an array of objects, reading primitives straight from the column arrays.
+     */
+    static final class JsonWriter extends StdSerializer<ColumnarRows> {
+
+        JsonWriter() {
+            super(ColumnarRows.class);
+        }
+
+        @Override
+        public void serialize(ColumnarRows rows, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartArray(rows, rows.size);
+            for (int r = 0; r < rows.size; r++) {
+                gen.writeStartObject();
+                for (int c = 0; c < rows.data.length; c++) {
+                    gen.writeFieldName(rows.columns.get(c));
+                    Column col = rows.data[c];
+                    if (col.isNull(r)) {
+                        gen.writeNull();
+                        continue;
+                    }
+                    switch (col) {
+                        case IntColumn ic -> gen.writeNumber(ic.values()[r]);
+                        case LongColumn lc -> gen.writeNumber(lc.values()[r]);
+                        case DoubleColumn dc -> gen.writeNumber(dc.values()[r]);
+                        case BooleanColumn bc -> gen.writeBoolean(bc.values().get(r));
+                        case StringColumn sc -> gen.writeString(sc.dictionary()[sc.codes()[r]]);
+                        case ObjectColumn oc -> provider.defaultSerializeValue(oc.values()[r], gen);
+                    }
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+}
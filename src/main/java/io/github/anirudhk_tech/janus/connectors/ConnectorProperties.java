@@ -1,12 +1,15 @@
 package io.github.anirudhk_tech.janus.connectors;
 
+import java.time.Duration;
 import java.util.Map;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 @ConfigurationProperties(prefix = "janus.connectors")
 public record ConnectorProperties (
-    DbGroup supabase
+    DbGroup supabase,
+    ResultCache cache
 ) {
     public record DbGroup(
         Map<String, JbdcSource> sources
@@ -15,6 +18,73 @@ public record ConnectorProperties (
     public record JbdcSource(
         String jdbcUrl,
         String username,
-        String password
+        String password,
+        Duration cacheTtl,
+        Pool pool,
+        Fetch fetch,
+        Statements statements,
+        Cost cost
+    ) {}
+
+    /**
+     * EXPLAIN-based pre-flight for one source's planner SQL; off unless a threshold is set.
+     *
+     * @param maxCost highest planner total cost (arbitrary planner units) a step may have
+     * @param maxRows highest number of rows the planner may estimate a step returns
+     * @param onExceed what happens to a step over a threshold (default {@code reject})
+     * @param downgradeTimeout statement timeout for a downgraded step (default 1s)
+     * @param cacheTtl how long an estimate is reused for the same statement and params (default 5m)
+     */
+    public record Cost(
+        Double maxCost,
+        Double maxRows,
+        CostAction onExceed,
+        Duration downgradeTimeout,
+        Duration cacheTtl
+    ) {}
+
+    public enum CostAction {
+        REJECT,
+        DOWNGRADE
+    }
+
+    /**
+     * Driver prepared-statement settings for one source; unset fields keep the driver defaults.
+     *
+     * @param prepareThreshold executions of a statement text on one connection before the driver
+     *     switches to a named server-side prepared statement
+     * @param cacheQueries statement texts the driver keeps prepared per connection
+     * @param cacheSize memory the driver may use for those statements per connection
+     */
+    public record Statements(
+        Integer prepareThreshold,
+        Integer cacheQueries,
+        DataSize cacheSize
+    ) {}
+
+    /**
+     * Row fetch settings for one source: cursor fetch size and per-step result caps.
+     */
+    public record Fetch(
+        Integer size,
+        Integer maxRows,
+        DataSize maxSize
+    ) {}
+
+    /**
+     * Connection pool settings for one source; unset fields fall back to the pool defaults.
+     */
+    public record Pool(
+        Integer maxSize,
+        Integer minIdle,
+        Duration connectionTimeout,
+        Duration idleTimeout,
+        Duration maxLifetime,
+        Duration keepaliveTime,
+        Duration validationTimeout
+    ) {}
+
+    public record ResultCache(
+        DataSize maxSize
     ) {}
 }
@@ -0,0 +1,112 @@
+package io.github.anirudhk_tech.janus.connectors;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.github.anirudhk_tech.janus.capabilities.sql.SqlLexer;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+
+/**
+ * Bounded LRU cache of SQL step results, keyed on the normalized (guardrail-rewritten) SQL,
+ * its params and the source. Entries expire after the source's {@code cache-ttl}; sources
+ * without a TTL are never cached. The total estimated size of cached results is kept under
+ * {@code janus.connectors.cache.max-size} by evicting least recently used entries.
+ */
+@Component
+public final class ConnectorResultCache {
+
+    private static final DataSize DEFAULT_MAX_SIZE = DataSize.ofMegabytes(64);
+
+    private record Key(String connector, String sourceId, String sql, Map<String, Object> params) {}
+
+    private record Entry(ConnectorResult result, long bytes, Instant expiresAt) {}
+
+    private final ConnectorProperties props;
+    private final Clock clock;
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public ConnectorResultCache(ConnectorProperties props) {
+        this.props = Objects.requireNonNull(props, "props is required");
+        this.clock = Clock.systemUTC();
+        DataSize maxSize = (props.cache() == null || props.cache().maxSize() == null) ? DEFAULT_MAX_SIZE : props.cache().maxSize();
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    public boolean isEnabledFor(SqlQueryStep step) {
+        Duration ttl = ttlFor(step);
+        return ttl != null && !ttl.isZero() && !ttl.isNegative() && maxBytes > 0;
+    }
+
+    /**
+     * Returns the cached result re-stamped with this step's id, if present and not expired.
+     */
+    public Optional<ConnectorResult> get(SqlQueryStep step) {
+        if (!isEnabledFor(step)) return Optional.empty();
+
+        Key key = keyFor(step);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) return Optional.empty();
+            if (!clock.instant().isBefore(entry.expiresAt())) {
+                remove(key);
+                return Optional.empty();
+            }
+            ConnectorResult r = entry.result();
+            return Optional.of(new ConnectorResult(step.stepId(), r.connector(), r.data()));
+        }
+    }
+
+    public void put(SqlQueryStep step, ConnectorResult result) {
+        if (!isEnabledFor(step) || result == null) return;
+
+        long bytes = ResultSizes.estimate(result.data());
+        // A single result that would take most of the budget would just flush everything else.
+        if (bytes > maxBytes / 2) return;
+
+        Key key = keyFor(step);
+        Entry entry = new Entry(result, bytes, clock.instant().plus(ttlFor(step)));
+
+        synchronized (this) {
+            remove(key);
+            entries.put(key, entry);
+            totalBytes += bytes;
+
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().getValue().bytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    private void remove(Key key) {
+        Entry old = entries.remove(key);
+        if (old != null) totalBytes -= old.bytes();
+    }
+
+    private Duration ttlFor(SqlQueryStep step) {
+        Map<String, ConnectorProperties.JbdcSource> sources =
+            "supabase".equals(step.connector())
+                ? (props.supabase() == null ? null : props.supabase().sources())
+                : null;
+
+        ConnectorProperties.JbdcSource src = (sources == null) ? null : sources.get(step.sourceId());
+        return (src == null) ? null : src.cacheTtl();
+    }
+
+    private static Key keyFor(SqlQueryStep step) {
+        Map<String, Object> params = (step.params() == null) ? Map.of() : step.params();
+        return new Key(step.connector(), step.sourceId(), SqlLexer.normalize(step.sql()), params);
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.anirudhk_tech.janus.connectors;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rough heap-size estimates for connector output, used to enforce memory budgets. The numbers
+ * approximate a 64-bit JVM with compressed oops; they only need to be proportional, not exact.
+ */
+final class ResultSizes {
+
+    private static final long ROW_OVERHEAD = 64;
+    private static final long CELL_OVERHEAD = 32;
+
+    private ResultSizes() {}
+
+    static long estimate(Map<String, Object> data) {
+        if (data == null) return 0;
+        long total = 0;
+        for (Object value : data.values()) {
+            total += estimateValue(value);
+        }
+        return total;
+    }
+
+    static long estimateValue(Object value) {
+        if (value == null) return 0;
+        if (value instanceof CharSequence s) return 40 + 2L * s.length();
+        if (value instanceof Number || value instanceof Boolean) return 16;
+        if (value instanceof byte[] b) return 16 + b.length;
+        if (value instanceof ColumnarRows rows) return rows.estimatedBytes();
+        if (value instanceof Map<?, ?> m) {
+            long total = ROW_OVERHEAD;
+            for (Map.Entry<?, ?> e : m.entrySet()) {
+                total += CELL_OVERHEAD + estimateValue(e.getValue());
+            }
+            return total;
+        }
+        if (value instanceof List<?> list) {
+            long total = 16;
+            for (Object o : list) {
+                total += 8 + estimateValue(o);
+            }
+            return total;
+        }
+        return 48;
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.anirudhk_tech.janus.connectors;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.cache.LruCache;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Pre-flight for planner SQL on sources with a {@code cost} threshold: runs
+ * {@code EXPLAIN (FORMAT JSON)} (planning only, nothing is executed) and rejects the step, or
+ * downgrades it to a short statement timeout, when the planner's total cost or row estimate is
+ * over the limit.
+ *
+ * <p>Estimates are cached per source, statement text and bound parameter values (the lifted
+ * literals and the injected {@code LIMIT} included) for the source's {@code cost.cache-ttl}.
+ * Postgres plans with the bound values, so the same statement text can cost very differently
+ * under another binding. If EXPLAIN itself fails the step runs ungated, and execution reports the
+ * real error.
+ *
+ * <p>The caller runs {@link #check} while holding the source's concurrency permit, so EXPLAIN
+ * counts against the same limit as the statement it gates.
+ */
+@Component
+@ConditionalOnProperty(name = "janus.sql.guardrails.enabled", havingValue = "true", matchIfMissing = true)
+public final class SqlCostGate {
+
+    private static final int MAX_ENTRIES = 1_024;
+    private static final Duration DEFAULT_CACHE_TTL = Duration.ofMinutes(5);
+    private static final Duration DEFAULT_DOWNGRADE_TIMEOUT = Duration.ofSeconds(1);
+
+    /**
+     * The planner's estimate for a step, and the statement timeout it was downgraded to (null when
+     * it runs with the request's own budget).
+     */
+    public record Estimate(double cost, double rows, Duration downgradedTimeout) {}
+
+    private record Key(String connector, String sourceId, String sql, Map<String, Object> params) {}
+
+    private record Entry(double cost, double rows) {}
+
+    private final DataSourceRegistry dataSources;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Counter hits;
+    private final Counter misses;
+    private final LruCache<Key, Entry> entries = new LruCache<>(MAX_ENTRIES);
+
+    public SqlCostGate(DataSourceRegistry dataSources, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.dataSources = Objects.requireNonNull(dataSources, "dataSources is required");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "meterRegistry is required");
+        this.hits = Counter.builder("janus.sql.explain.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("janus.sql.explain.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * @return the estimate, or null when the source has no cost threshold or EXPLAIN failed
+     * @throws ConnectorException when the estimate is over a threshold and the source rejects
+     */
+    public Estimate check(SqlQueryStep step, long timeoutMs) {
+        ConnectorProperties.Cost limits = dataSources.resolveSource(step.connector(), step.sourceId()).cost();
+        if (limits == null || (limits.maxCost() == null && limits.maxRows() == null)) return null;
+
+        Entry entry = estimate(step, limits, timeoutMs);
+        if (entry == null) {
+            count(step, "error");
+            return null;
+        }
+
+        boolean overCost = limits.maxCost() != null && entry.cost() > limits.maxCost();
+        boolean overRows = limits.maxRows() != null && entry.rows() > limits.maxRows();
+        if (!overCost && !overRows) {
+            count(step, "pass");
+            return new Estimate(entry.cost(), entry.rows(), null);
+        }
+
+        if (limits.onExceed() == ConnectorProperties.CostAction.DOWNGRADE) {
+            count(step, "downgrade");
+            Duration timeout = limits.downgradeTimeout() == null ? DEFAULT_DOWNGRADE_TIMEOUT : limits.downgradeTimeout();
+            return new Estimate(entry.cost(), entry.rows(), timeout);
+        }
+
+        count(step, "reject");
+        throw new ConnectorException(overCost
+            ? String.format("Cost gate: estimated cost %.0f exceeds max-cost %.0f", entry.cost(), limits.maxCost())
+            : String.format("Cost gate: estimated rows %.0f exceed max-rows %.0f", entry.rows(), limits.maxRows()));
+    }
+
+    private Entry estimate(SqlQueryStep step, ConnectorProperties.Cost limits, long timeoutMs) {
+        Key key = new Key(step.connector(), step.sourceId(), step.sql(), step.params() == null ? Map.of() : step.params());
+        Entry cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        Entry entry;
+        try {
+            entry = explain(step, timeoutMs);
+        } catch (DataAccessException | JsonProcessingException e) {
+            return null;
+        }
+        if (entry == null) return null;
+
+        Duration ttl = limits.cacheTtl() == null ? DEFAULT_CACHE_TTL : limits.cacheTtl();
+        entries.put(key, entry, ttl);
+        return entry;
+    }
+
+    private Entry explain(SqlQueryStep step, long timeoutMs) throws JsonProcessingException {
+        NamedParameterJdbcTemplate jdbc = dataSources.templateFor(step.connector(), step.sourceId());
+        Map<String, Object> params = step.params() == null ? Map.of() : step.params();
+
+        String json = jdbc.execute("explain (format json) " + step.sql(), PostgresConnector.parameters(params), (PreparedStatement ps) -> {
+            ps.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999)));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        });
+        if (json == null) return null;
+
+        JsonNode plan = objectMapper.readTree(json).path(0).path("Plan");
+        if (!plan.has("Total Cost")) return null;
+        return new Entry(plan.path("Total Cost").asDouble(), plan.path("Plan Rows").asDouble());
+    }
+
+    private void count(SqlQueryStep step, String result) {
+        Counter.builder("janus.sql.cost.gate")
+            .tag("source", step.sourceId())
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.anirudhk_tech.janus.federation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.github.anirudhk_tech.janus.plan.PlanStep;
+
+/**
+ * The longest dependency chain of an executed plan, measured with each step's observed
+ * queue wait plus execution time.
+ */
+public record CriticalPath (
+    List<String> stepIds,
+    long durationMs
+) {
+
+    public static CriticalPath of(ExecutionPlan plan, List<StepExecutionResult> execution) {
+        Map<String, StepExecutionResult> byStepId = new HashMap<>();
+        for (StepExecutionResult r : execution) {
+            byStepId.put(r.stepId(), r);
+        }
+
+        Map<String, Long> finish = new HashMap<>();
+        Map<String, String> via = new HashMap<>();
+        String last = null;
+
+        for (PlanStep step : DagScheduler.topologicalOrder(plan.steps())) {
+            long start = 0;
+            for (String dep : step.dependsOn()) {
+                long depFinish = finish.getOrDefault(dep, 0L);
+                if (depFinish >= start) {
+                    start = depFinish;
+                    via.put(step.stepId(), dep);
+                }
+            }
+
+            StepExecutionResult r = byStepId.get(step.stepId());
+            long own = (r == null) ? 0 : r.queueWaitMs() + r.durationMs();
+            finish.put(step.stepId(), start + own);
+
+            if (last == null || finish.get(step.stepId()) > finish.get(last)) {
+                last = step.stepId();
+            }
+        }
+
+        if (last == null) {
+            return new CriticalPath(List.of(), 0);
+        }
+
+        List<String> path = new ArrayList<>();
+        for (String id = last; id != null; id = via.get(id)) {
+            path.add(id);
+        }
+        Collections.reverse(path);
+
+        return new CriticalPath(List.copyOf(path), finish.get(last));
+    }
+}
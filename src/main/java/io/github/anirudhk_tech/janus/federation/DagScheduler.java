@@ -0,0 +1,194 @@
+package io.github.anirudhk_tech.janus.federation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import io.github.anirudhk_tech.janus.connectors.ColumnarRows;
+import io.github.anirudhk_tech.janus.plan.PlanStep;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+
+/**
+ * Starts plan steps as soon as the steps they depend on have completed.
+ *
+ * <p>A downstream {@link SqlQueryStep} can bind an upstream output column into its params with
+ * a param value of the form {@code {"fromStep": "<stepId>", "column": "<column>"}}. The binding
+ * is replaced by the distinct values of that column, which expands naturally into
+ * {@code in (:param)} lists.
+ */
+final class DagScheduler {
+
+    static final String FROM_STEP = "fromStep";
+    static final String COLUMN = "column";
+
+    private final Function<PlanStep, CompletableFuture<StepExecutionResult>> runner;
+    private final Map<String, CompletableFuture<StepExecutionResult>> started = new HashMap<>();
+
+    DagScheduler(Function<PlanStep, CompletableFuture<StepExecutionResult>> runner) {
+        this.runner = Objects.requireNonNull(runner, "runner is required");
+    }
+
+    /**
+     * Schedules a single step whose dependencies have all been submitted already. A whole plan is
+     * submitted in {@link #topologicalOrder}; steps streamed from the planner arrive one at a time.
+     */
+    CompletableFuture<StepExecutionResult> submit(PlanStep step) {
+        if (started.containsKey(step.stepId())) {
+            throw new FederationExecutionException("Duplicate stepId in plan: " + step.stepId());
+        }
+        for (String dep : step.dependsOn()) {
+            if (!started.containsKey(dep)) {
+                throw new FederationExecutionException("Step " + step.stepId() + " depends on unscheduled step: " + dep);
+            }
+        }
+        CompletableFuture<StepExecutionResult> future = start(step, started);
+        started.put(step.stepId(), future);
+        return future;
+    }
+
+    boolean isSubmitted(String stepId) {
+        return started.containsKey(stepId);
+    }
+
+    CompletableFuture<StepExecutionResult> future(String stepId) {
+        return started.get(stepId);
+    }
+
+    private CompletableFuture<StepExecutionResult> start(PlanStep step, Map<String, CompletableFuture<StepExecutionResult>> started) {
+        if (step.dependsOn().isEmpty()) {
+            return runner.apply(step);
+        }
+
+        List<CompletableFuture<StepExecutionResult>> upstream = step.dependsOn().stream().map(started::get).toList();
+
+        return CompletableFuture.allOf(upstream.toArray(new CompletableFuture[0])).thenCompose(v -> {
+            Map<String, StepExecutionResult> inputs = new HashMap<>();
+            for (CompletableFuture<StepExecutionResult> f : upstream) {
+                StepExecutionResult r = f.join();
+                if (r.status() != StepExecutionStatus.SUCCESS) {
+                    return CompletableFuture.completedFuture(new StepExecutionResult(
+                        step.stepId(), step.connector(), StepExecutionStatus.FAILURE, 0, null, "upstream_failed: " + r.stepId()
+                    ));
+                }
+                inputs.put(r.stepId(), r);
+            }
+            PlanStep bound;
+            try {
+                bound = bind(step, inputs);
+            } catch (FederationExecutionException e) {
+                return CompletableFuture.completedFuture(new StepExecutionResult(
+                    step.stepId(), step.connector(), StepExecutionStatus.FAILURE, 0, null, e.getMessage()
+                ));
+            }
+            return runner.apply(bound);
+        });
+    }
+
+    static PlanStep bind(PlanStep step, Map<String, StepExecutionResult> inputs) {
+        if (!(step instanceof SqlQueryStep sql) || sql.params() == null || sql.params().isEmpty()) {
+            return step;
+        }
+
+        Map<String, Object> bound = new LinkedHashMap<>();
+        boolean changed = false;
+
+        for (Map.Entry<String, Object> e : sql.params().entrySet()) {
+            if (e.getValue() instanceof Map<?, ?> ref && ref.containsKey(FROM_STEP)) {
+                bound.put(e.getKey(), resolve(step, ref, inputs));
+                changed = true;
+            } else {
+                bound.put(e.getKey(), e.getValue());
+            }
+        }
+
+        return changed ? sql.withSql(sql.sql(), bound) : step;
+    }
+
+    private static List<Object> resolve(PlanStep step, Map<?, ?> ref, Map<String, StepExecutionResult> inputs) {
+        String fromStep = Objects.toString(ref.get(FROM_STEP), "");
+        String column = Objects.toString(ref.get(COLUMN), "");
+
+        if (!step.dependsOn().contains(fromStep)) {
+            throw new FederationExecutionException("Step " + step.stepId() + " binds output of " + fromStep + " without depending on it");
+        }
+
+        StepExecutionResult input = inputs.get(fromStep);
+        Object rows = input.data() == null ? null : input.data().get("rows");
+
+        Set<Object> values = new LinkedHashSet<>();
+        if (rows instanceof ColumnarRows table) {
+            int c = table.columnIndex(column);
+            for (int r = 0; c >= 0 && r < table.size(); r++) {
+                if (!table.isNull(r, c)) values.add(table.get(r, c));
+            }
+        } else if (rows instanceof List<?> list) {
+            for (Object row : list) {
+                if (row instanceof Map<?, ?> m && m.get(column) != null) {
+                    values.add(m.get(column));
+                }
+            }
+        }
+
+        // An empty "in ()" list is a syntax error in Postgres; "in (null)" matches nothing instead.
+        List<Object> out = new ArrayList<>(values);
+        if (out.isEmpty()) {
+            out.add(null);
+        }
+        return out;
+    }
+
+    /**
+     * Orders steps so that every step comes after the steps it depends on (Kahn's algorithm),
+     * keeping plan order among independent steps.
+     */
+    static List<PlanStep> topologicalOrder(List<PlanStep> steps) {
+        Map<String, PlanStep> byId = new LinkedHashMap<>();
+        for (PlanStep step : steps) {
+            if (byId.put(step.stepId(), step) != null) {
+                throw new FederationExecutionException("Duplicate stepId in plan: " + step.stepId());
+            }
+        }
+
+        Map<String, Integer> pending = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+
+        for (PlanStep step : steps) {
+            for (String dep : step.dependsOn()) {
+                if (!byId.containsKey(dep)) {
+                    throw new FederationExecutionException("Step " + step.stepId() + " depends on unknown step: " + dep);
+                }
+                dependents.computeIfAbsent(dep, k -> new ArrayList<>()).add(step.stepId());
+            }
+            pending.put(step.stepId(), step.dependsOn().size());
+        }
+
+        Deque<String> ready = new ArrayDeque<>();
+        for (PlanStep step : steps) {
+            if (step.dependsOn().isEmpty()) ready.add(step.stepId());
+        }
+
+        List<PlanStep> ordered = new ArrayList<>(steps.size());
+        while (!ready.isEmpty()) {
+            String id = ready.poll();
+            ordered.add(byId.get(id));
+            for (String next : dependents.getOrDefault(id, List.of())) {
+                if (pending.merge(next, -1, Integer::sum) == 0) ready.add(next);
+            }
+        }
+
+        if (ordered.size() != steps.size()) {
+            throw new FederationExecutionException("Plan contains a dependency cycle");
+        }
+
+        return ordered;
+    }
+}
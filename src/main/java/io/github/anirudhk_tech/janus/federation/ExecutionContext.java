@@ -1,13 +1,18 @@
 package io.github.anirudhk_tech.janus.federation;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
 
+/**
+ * @param maxRows the request's {@code options.maxRows}, or null for the per-source defaults
+ */
 public record ExecutionContext (
     String traceId,
     Instant deadline,
-    Clock clock
+    Clock clock,
+    Integer maxRows
 ) {
 
     public ExecutionContext {
@@ -16,10 +21,22 @@ public record ExecutionContext (
         Objects.requireNonNull(clock, "clock is required");
     }
 
+    public ExecutionContext(String traceId, Instant deadline, Clock clock) {
+        this(traceId, deadline, clock, null);
+    }
+
     public Instant now() {
         return Instant.now(clock);
     }
 
+    /**
+     * This context with its deadline moved in to {@code timeout} from now, if that is sooner.
+     */
+    public ExecutionContext withTimeout(Duration timeout) {
+        Instant capped = now().plus(timeout);
+        return capped.isBefore(deadline) ? new ExecutionContext(traceId, capped, clock, maxRows) : this;
+    }
+
     public boolean isExpired() {
         return now().isAfter(deadline);
     }
@@ -0,0 +1,8 @@
+package io.github.anirudhk_tech.janus.federation;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(FederationProperties.class)
+class FederationConfig {}
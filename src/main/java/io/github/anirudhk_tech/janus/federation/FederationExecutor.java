@@ -3,103 +3,381 @@ package io.github.anirudhk_tech.janus.federation;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Service;
 
 import io.github.anirudhk_tech.janus.capabilities.sql.SqlStepGuardrail;
 import io.github.anirudhk_tech.janus.connectors.Connector;
 import io.github.anirudhk_tech.janus.connectors.ConnectorException;
 import io.github.anirudhk_tech.janus.connectors.ConnectorResult;
+import io.github.anirudhk_tech.janus.connectors.ConnectorResultCache;
+import io.github.anirudhk_tech.janus.connectors.SqlCostGate;
 import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
 import io.github.anirudhk_tech.janus.plan.PlanStep;
 import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
-public class FederationExecutor {
+public class FederationExecutor implements DisposableBean {
     
     private static final int DEFAULT_TIMEOUT_MS = 5_000;
     private final List<Connector> connectors;
-    private final Executor executor;
+    private final ExecutorService executor;
     private final Optional<SqlStepGuardrail> sqlGuardrail;
+    private final Optional<SqlCostGate> costGate;
+    private final int maxConcurrencyPerSource;
+    private final ConcurrentHashMap<String, Semaphore> sourcePermits = new ConcurrentHashMap<>();
+    private final SingleFlight<StepKey, Invocation> singleFlight;
+    private final ConnectorResultCache resultCache;
 
-    public FederationExecutor(List<Connector> connectors, Optional<SqlStepGuardrail> sqlGuardrail) {
+    public FederationExecutor(
+        List<Connector> connectors,
+        Optional<SqlStepGuardrail> sqlGuardrail,
+        Optional<SqlCostGate> costGate,
+        ConnectorResultCache resultCache,
+        FederationProperties props,
+        MeterRegistry meterRegistry
+    ) {
+        Objects.requireNonNull(props, "props is required");
+        Objects.requireNonNull(meterRegistry, "meterRegistry is required");
         this.connectors = List.copyOf(connectors);
-        this.executor = Executors.newFixedThreadPool(8);
+        this.executor = createExecutor(props);
         this.sqlGuardrail = sqlGuardrail == null ? Optional.empty() : sqlGuardrail;
+        this.costGate = costGate == null ? Optional.empty() : costGate;
+        this.resultCache = Objects.requireNonNull(resultCache, "resultCache is required");
+        this.maxConcurrencyPerSource = Math.max(1, props.getMaxConcurrencyPerSource());
+        this.singleFlight = props.isSingleFlight() ? new SingleFlight<>(meterRegistry, "janus.federation.singleflight") : null;
+    }
+
+    private static ExecutorService createExecutor(FederationProperties props) {
+        // Steps spend nearly all their time blocked on JDBC I/O, so virtual threads let a step
+        // wait on its source without pinning a platform thread; per-source permits bound the load.
+        if (props.getExecutionMode() == FederationProperties.ExecutionMode.VIRTUAL) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(Math.max(1, props.getPoolSize()));
     }
 
     public List<StepExecutionResult> execute(ExecutionPlan plan, ExecutionContext context, Integer timeoutMs) {
+        return execute(plan, context, timeoutMs, false);
+    }
+
+    /**
+     * Stops accepting steps and gives the ones already running the default step budget to finish
+     * before interrupting them.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(DEFAULT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes the plan within the timeout budget. With {@code partial} set, failed or unfinished
+     * steps are reported as {@code FAILURE}/{@code TIMEOUT} results instead of failing the whole plan,
+     * so the steps that did complete by the deadline are still returned.
+     */
+    public List<StepExecutionResult> execute(ExecutionPlan plan, ExecutionContext context, Integer timeoutMs, boolean partial) {
         Objects.requireNonNull(plan, "plan is required");
-        Objects.requireNonNull(context, "context is required");
+        return begin(context, timeoutMs).await(plan, partial);
+    }
 
-        int effectiveTimeoutMs = Optional.ofNullable(timeoutMs).orElse(DEFAULT_TIMEOUT_MS);
-        Instant effectiveDeadline = context.now().plusMillis(effectiveTimeoutMs);
-        ExecutionContext effectiveContext = new ExecutionContext(context.traceId(), effectiveDeadline, context.clock());
+    /**
+     * Starts an execution that accepts steps one at a time, so steps can run while the planner is
+     * still producing the rest of the plan. The timeout budget starts with the first submitted step.
+     */
+    public PlanExecution begin(ExecutionContext context, Integer timeoutMs) {
+        Objects.requireNonNull(context, "context is required");
+        return new PlanExecution(context, Optional.ofNullable(timeoutMs).orElse(DEFAULT_TIMEOUT_MS));
+    }
 
-        List<CompletableFuture<StepExecutionResult>> futures = new ArrayList<>();
+    /**
+     * Steps submitted ahead of the complete plan. Steps that depend on a step not submitted yet are
+     * left for {@link #await}, which schedules whatever the final plan still needs.
+     *
+     * <p>The timeout budget starts at the first {@link #submit} (or at {@link #await} when nothing
+     * was submitted before it), not at {@link #begin}: time the planner spends before its first
+     * step is complete does not count. {@link #reset} discards the budget along with the steps,
+     * and the next submit starts a fresh one.
+     */
+    public final class PlanExecution {
+        private final ExecutionContext requestContext;
+        private final int timeoutMs;
+        private Instant started;
+        private ExecutionContext context;
+        private DagScheduler scheduler;
 
-        for (PlanStep step : plan.steps()) {
-            futures.add(executeOne(step, effectiveContext));
+        private PlanExecution(ExecutionContext requestContext, int timeoutMs) {
+            this.requestContext = requestContext;
+            this.timeoutMs = timeoutMs;
         }
 
-        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        /**
+         * Starts the step now if everything it depends on has been submitted; otherwise it waits for
+         * {@link #await}.
+         */
+        public synchronized void submit(PlanStep step) {
+            Objects.requireNonNull(step, "step is required");
+            if (isSubmitted(step.stepId())) return;
+            for (String dep : step.dependsOn()) {
+                if (!isSubmitted(dep)) return;
+            }
+            ensureStarted();
+            scheduler.submit(step);
+        }
 
-        try {
-            long waitMs = effectiveContext.remainingMillis();
-            all.get(waitMs, TimeUnit.MILLISECONDS);
-        } catch (Exception e) {
-            throw new FederationExecutionException("Failed to execute plan or timed out", e);
+        /**
+         * Forgets the steps submitted so far, for when the planner starts over. Their statements
+         * still run to completion or the deadline, but their results are not reported.
+         */
+        public synchronized void reset() {
+            started = null;
+            context = null;
+            scheduler = null;
         }
 
-        List<StepExecutionResult> results = new ArrayList<>();
+        public List<StepExecutionResult> await(ExecutionPlan plan, boolean partial) {
+            Objects.requireNonNull(plan, "plan is required");
 
-        for (CompletableFuture<StepExecutionResult> f : futures) {
-            StepExecutionResult r = f.join();
-            if (r.status() != StepExecutionStatus.SUCCESS) {
-                throw new FederationExecutionException("Step failed: stepId=" + r.stepId() + ", connector=" + r.connector() + ", error=" + r.error());
+            Map<String, CompletableFuture<StepExecutionResult>> futures = new LinkedHashMap<>();
+            ExecutionContext effectiveContext;
+            Instant effectiveStarted;
+            synchronized (this) {
+                ensureStarted();
+                for (PlanStep step : DagScheduler.topologicalOrder(plan.steps())) {
+                    if (!scheduler.isSubmitted(step.stepId())) {
+                        scheduler.submit(step);
+                    }
+                }
+                for (PlanStep step : plan.steps()) {
+                    futures.put(step.stepId(), scheduler.future(step.stepId()));
+                }
+                effectiveContext = context;
+                effectiveStarted = started;
             }
-            results.add(r);
+
+            CompletableFuture<Void> all = CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]));
+
+            try {
+                long waitMs = effectiveContext.remainingMillis();
+                all.get(waitMs, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                if (!partial) {
+                    throw new FederationExecutionException("Failed to execute plan or timed out", e);
+                }
+            }
+
+            List<StepExecutionResult> results = new ArrayList<>();
+
+            for (PlanStep step : plan.steps()) {
+                StepExecutionResult r = partial
+                    ? completedOrTimedOut(step, futures.get(step.stepId()), effectiveStarted, effectiveContext)
+                    : futures.get(step.stepId()).join();
+                if (!partial && r.status() != StepExecutionStatus.SUCCESS) {
+                    throw new FederationExecutionException("Step failed: stepId=" + r.stepId() + ", connector=" + r.connector() + ", error=" + r.error());
+                }
+                results.add(r);
+            }
+
+            return results;
+        }
+
+        private boolean isSubmitted(String stepId) {
+            return scheduler != null && scheduler.isSubmitted(stepId);
         }
 
-        return results;
+        private void ensureStarted() {
+            if (scheduler != null) return;
+            started = requestContext.now();
+            ExecutionContext effectiveContext = new ExecutionContext(requestContext.traceId(), started.plusMillis(timeoutMs), requestContext.clock(), requestContext.maxRows());
+            context = effectiveContext;
+            scheduler = new DagScheduler(step -> executeOne(step, effectiveContext));
+        }
+    }
+
+    private static StepExecutionResult completedOrTimedOut(PlanStep step, CompletableFuture<StepExecutionResult> f, Instant started, ExecutionContext context) {
+        if (!f.isDone()) {
+            long durationMs = Duration.between(started, context.now()).toMillis();
+            return new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.TIMEOUT, durationMs, null, "deadline_exceeded");
+        }
+        try {
+            return f.join();
+        } catch (RuntimeException e) {
+            return new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.FAILURE, 0, null, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
     }
 
     private CompletableFuture<StepExecutionResult> executeOne(PlanStep step, ExecutionContext context) {
-        return CompletableFuture.supplyAsync(() -> {
-            Instant start = context.now();
-            try {
-                if (context.isExpired()) {
-                    long durationMs = Duration.between(start, context.now()).toMillis();
-                    return new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.TIMEOUT, durationMs, null, "deadline_exceeded");
-                }
+        Instant submitted = context.now();
+        return CompletableFuture.supplyAsync(() -> runStep(step, context, submitted), executor);
+    }
 
-                PlanStep effectiveStep = step;
+    private StepExecutionResult runStep(PlanStep step, ExecutionContext context, Instant submitted) {
+        Instant dequeued = context.now();
+        long queueWaitMs = Duration.between(submitted, dequeued).toMillis();
+        try {
+            if (context.isExpired()) {
+                return new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.TIMEOUT, 0, queueWaitMs, null, "deadline_exceeded");
+            }
+
+            PlanStep effectiveStep = step;
+            Integer limitApplied = null;
+
+            if (sqlGuardrail.isPresent() && step instanceof SqlQueryStep sql) {
+                SqlStepGuardrail.Guarded guarded = sqlGuardrail.get().apply(sql, context.maxRows());
+                effectiveStep = guarded.step();
+                limitApplied = guarded.limitApplied();
+            }
+
+            Connector connector = findConnector(effectiveStep);
 
-                if (sqlGuardrail.isPresent() && step instanceof SqlQueryStep sql) {
-                    effectiveStep = sqlGuardrail.get().apply(sql);
+            StepExecutionResult.CacheStatus cacheStatus = null;
+            if (effectiveStep instanceof SqlQueryStep sql && resultCache.isEnabledFor(sql)) {
+                Optional<ConnectorResult> cached = resultCache.get(sql);
+                if (cached.isPresent()) {
+                    ConnectorResult hit = cached.get();
+                    long durationMs = executionMillis(submitted, context, queueWaitMs);
+                    return new StepExecutionResult(hit.stepId(), hit.connector(), StepExecutionStatus.SUCCESS, durationMs, queueWaitMs, hit.data(), null, StepExecutionResult.CacheStatus.HIT, limitApplied, null);
                 }
+                cacheStatus = StepExecutionResult.CacheStatus.MISS;
+            }
 
-                Connector connector = findConnector(effectiveStep);
-                ConnectorResult out = connector.execute(effectiveStep, context);
-                
-                long durationMs = Duration.between(start, context.now()).toMillis();
-                return new StepExecutionResult(out.stepId(), out.connector(), StepExecutionStatus.SUCCESS, durationMs, out.data(), null);
-            } catch (ConnectorException e) {
-                long durationMs = Duration.between(start, context.now()).toMillis();
-                return new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.FAILURE, durationMs, null, e.getMessage());
-            } catch (Exception e) {
-                long durationMs = Duration.between(start, context.now()).toMillis();
-                e.printStackTrace();
-                return new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.FAILURE, durationMs, null, e.getClass().getSimpleName() + ": " + e.getMessage());
+            Invocation invocation = (singleFlight != null && effectiveStep instanceof SqlQueryStep sql)
+                ? coalesced(connector, sql, context)
+                : invoke(connector, effectiveStep, context);
+            queueWaitMs += invocation.permitWaitMs();
+
+            if (invocation.result() == null) {
+                long durationMs = executionMillis(submitted, context, queueWaitMs);
+                return new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.TIMEOUT, durationMs, queueWaitMs, null, "deadline_exceeded: waiting for source capacity");
+            }
+
+            ConnectorResult out = invocation.result();
+            if (cacheStatus != null) {
+                resultCache.put((SqlQueryStep) effectiveStep, out);
+            }
+
+            long durationMs = executionMillis(submitted, context, queueWaitMs);
+            return new StepExecutionResult(out.stepId(), out.connector(), StepExecutionStatus.SUCCESS, durationMs, queueWaitMs, out.data(), null, cacheStatus, limitApplied, invocation.estimatedCost());
+        } catch (TimeoutException e) {
+            long durationMs = executionMillis(submitted, context, queueWaitMs);
+            return new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.TIMEOUT, durationMs, queueWaitMs, null, "deadline_exceeded: waiting for coalesced step");
+        } catch (ConnectorException e) {
+            long durationMs = executionMillis(submitted, context, queueWaitMs);
+            StepExecutionStatus status = context.isExpired() ? StepExecutionStatus.TIMEOUT : StepExecutionStatus.FAILURE;
+            return new StepExecutionResult(step.stepId(), step.connector(), status, durationMs, queueWaitMs, null, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            long durationMs = executionMillis(submitted, context, queueWaitMs);
+            return new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.FAILURE, durationMs, queueWaitMs, null, "interrupted");
+        } catch (Exception e) {
+            long durationMs = executionMillis(submitted, context, queueWaitMs);
+            return new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.FAILURE, durationMs, queueWaitMs, null, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Connector output plus the time spent waiting for a source permit and the cost gate's
+     * estimate (null when the step was not costed). A null result means no permit became
+     * available before the deadline.
+     */
+    private record Invocation(ConnectorResult result, long permitWaitMs, Double estimatedCost) {}
+
+    private record StepKey(String connector, String sourceId, String sql, Map<String, Object> params) {}
+
+    private Invocation invoke(Connector connector, PlanStep step, ExecutionContext context) throws InterruptedException {
+        Semaphore permits = permitsFor(step);
+
+        Instant requested = context.now();
+        boolean acquired = permits.tryAcquire(context.remainingMillis(), TimeUnit.MILLISECONDS);
+        long permitWaitMs = Duration.between(requested, context.now()).toMillis();
+
+        if (!acquired) {
+            return new Invocation(null, permitWaitMs, null);
+        }
+
+        try {
+            // EXPLAIN holds the same permit as the statement, so gating never adds load beyond the
+            // source's concurrency limit. A downgraded step runs on a short deadline.
+            Double estimatedCost = null;
+            ExecutionContext stepContext = context;
+            if (costGate.isPresent() && step instanceof SqlQueryStep sql) {
+                SqlCostGate.Estimate estimate = costGate.get().check(sql, context.remainingMillis());
+                if (estimate != null) {
+                    estimatedCost = estimate.cost();
+                    if (estimate.downgradedTimeout() != null) stepContext = context.withTimeout(estimate.downgradedTimeout());
+                }
             }
-        }, executor);
+            return new Invocation(connector.execute(step, stepContext), permitWaitMs, estimatedCost);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Shares one execution between concurrent identical steps. Followers neither take a source
+     * permit nor reach the database; they get the leader's result re-stamped with their own stepId.
+     *
+     * <p>The shared execution runs on the leader's deadline. When that runs out (no permit in time,
+     * or the statement cancelled) while a follower still has time on its own, the follower runs
+     * the step itself instead of inheriting the leader's timeout.
+     */
+    private Invocation coalesced(Connector connector, SqlQueryStep step, ExecutionContext context) throws Exception {
+        StepKey key = new StepKey(step.connector(), step.sourceId(), step.sql(), step.params() == null ? Map.of() : step.params());
+        AtomicBoolean led = new AtomicBoolean();
+
+        SingleFlight.Outcome<Invocation> outcome;
+        try {
+            outcome = singleFlight.run(key, () -> {
+                led.set(true);
+                return invoke(connector, step, context);
+            }, context.remainingMillis());
+        } catch (ConnectorException e) {
+            if (led.get() || context.isExpired() || !isDeadlineExceeded(e)) throw e;
+            return invoke(connector, step, context);
+        }
+
+        if (!outcome.shared()) {
+            return outcome.value();
+        }
+
+        ConnectorResult shared = outcome.value().result();
+        if (shared == null && !context.isExpired()) {
+            return invoke(connector, step, context);
+        }
+        ConnectorResult mine = (shared == null) ? null : new ConnectorResult(step.stepId(), shared.connector(), shared.data());
+        return new Invocation(mine, 0, outcome.value().estimatedCost());
+    }
+
+    private static boolean isDeadlineExceeded(ConnectorException e) {
+        return e.getMessage() != null && e.getMessage().contains("deadline_exceeded");
+    }
+
+    private static long executionMillis(Instant submitted, ExecutionContext context, long queueWaitMs) {
+        return Math.max(0, Duration.between(submitted, context.now()).toMillis() - queueWaitMs);
+    }
+
+    private Semaphore permitsFor(PlanStep step) {
+        String key = step instanceof SqlQueryStep sql
+            ? step.connector() + ":" + sql.sourceId()
+            : step.connector();
+        return sourcePermits.computeIfAbsent(key, k -> new Semaphore(maxConcurrencyPerSource, true));
     }
 
     private Connector findConnector(PlanStep step) {
@@ -0,0 +1,26 @@
+package io.github.anirudhk_tech.janus.federation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "janus.federation")
+public class FederationProperties {
+
+    public enum ExecutionMode { FIXED, VIRTUAL }
+
+    private ExecutionMode executionMode = ExecutionMode.FIXED;
+    private int poolSize = 8;
+    private int maxConcurrencyPerSource = 8;
+    private boolean singleFlight = true;
+
+    public ExecutionMode getExecutionMode() { return executionMode; }
+    public void setExecutionMode(ExecutionMode executionMode) { this.executionMode = executionMode; }
+
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+    public int getMaxConcurrencyPerSource() { return maxConcurrencyPerSource; }
+    public void setMaxConcurrencyPerSource(int maxConcurrencyPerSource) { this.maxConcurrencyPerSource = maxConcurrencyPerSource; }
+
+    public boolean isSingleFlight() { return singleFlight; }
+    public void setSingleFlight(boolean singleFlight) { this.singleFlight = singleFlight; }
+}
@@ -0,0 +1,72 @@
+package io.github.anirudhk_tech.janus.federation;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces identical in-flight work: the first caller for a key (the leader) runs it, and every
+ * caller that arrives while it is running (a follower) waits on the leader's future instead of
+ * running it again.
+ *
+ * <p>Each follower waits with its own timeout. The leader always completes the shared future,
+ * whatever it throws (an {@link Error} included), so no follower waits past its own timeout.
+ */
+final class SingleFlight<K, V> {
+
+    record Outcome<V>(V value, boolean shared) {}
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    SingleFlight(MeterRegistry registry, String name) {
+        this.leaders = Counter.builder(name + ".calls").tag("role", "leader").register(registry);
+        this.followers = Counter.builder(name + ".calls").tag("role", "follower").register(registry);
+        Gauge.builder(name + ".coalescing.ratio", this, SingleFlight::coalescingRatio)
+            .description("Share of calls served by another caller's in-flight execution")
+            .register(registry);
+    }
+
+    /**
+     * Runs {@code work} unless an identical call is already in flight, in which case waits up to
+     * {@code timeoutMs} for that call's result. A follower gets the leader's exception rethrown.
+     */
+    Outcome<V> run(K key, Callable<V> work, long timeoutMs) throws Exception {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            followers.increment();
+            try {
+                return new Outcome<>(existing.get(timeoutMs, TimeUnit.MILLISECONDS), true);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error error) throw error;
+                throw (e.getCause() instanceof Exception cause) ? cause : e;
+            }
+        }
+
+        leaders.increment();
+        try {
+            V value = work.call();
+            mine.complete(value);
+            return new Outcome<>(value, false);
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private double coalescingRatio() {
+        double total = leaders.count() + followers.count();
+        return total == 0 ? 0.0 : followers.count() / total;
+    }
+}
@@ -2,11 +2,46 @@ package io.github.anirudhk_tech.janus.federation;
 
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * @param limitApplied the row budget the SQL guardrail enforced by injecting or tightening the
+ *     statement's {@code LIMIT}, or null when the statement was already within it
+ * @param estimatedCost the planner's total cost estimate from the source's cost gate, or null
+ *     when the source has none (or the result came from cache)
+ */
 public record StepExecutionResult (
     String stepId,
     String connector,
     StepExecutionStatus status,
     long durationMs,
+    long queueWaitMs,
     Map<String, Object> data,
-    String error
-) {}
+    String error,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    CacheStatus cache,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Integer limitApplied,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Double estimatedCost
+) {
+
+    public enum CacheStatus {
+        HIT,
+        MISS;
+
+        @JsonValue
+        public String value() {
+            return name().toLowerCase();
+        }
+    }
+
+    public StepExecutionResult(String stepId, String connector, StepExecutionStatus status, long durationMs, Map<String, Object> data, String error) {
+        this(stepId, connector, status, durationMs, 0, data, error, null, null, null);
+    }
+
+    public StepExecutionResult(String stepId, String connector, StepExecutionStatus status, long durationMs, long queueWaitMs, Map<String, Object> data, String error) {
+        this(stepId, connector, status, durationMs, queueWaitMs, data, error, null, null, null);
+    }
+}
@@ -7,6 +7,7 @@ import java.util.Map;
 
 import org.springframework.stereotype.Component;
 
+import io.github.anirudhk_tech.janus.connectors.ColumnarRows;
 import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
 import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
 import io.github.anirudhk_tech.janus.plan.PlanStep;
@@ -73,6 +74,11 @@ public final class JsonDeepMergeV1 implements MergeStrategy {
                 continue;
             }
 
+            if (aVal instanceof ColumnarRows aRows && bVal instanceof ColumnarRows bRows) {
+                out.put(key, ColumnarRows.concat(aRows, bRows));
+                continue;
+            }
+
             if (aVal instanceof List<?> aList && bVal instanceof List<?> bList) {
                 List<Object> combined = new ArrayList<>(aList.size() + bList.size());
                 combined.addAll(aList);
@@ -41,6 +41,11 @@ public final class MergeService {
             throw new IllegalArgumentException("Unknown merge strategy: " + name);
         }
 
-        return strat.merge(plan, execution);
+        // Only successful steps carry data worth merging; partial executions may include failures.
+        List<StepExecutionResult> successful = execution.stream()
+            .filter(r -> r.status().isSuccess())
+            .toList();
+
+        return strat.merge(plan, successful);
     }
 }
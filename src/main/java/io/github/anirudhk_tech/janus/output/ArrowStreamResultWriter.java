@@ -0,0 +1,290 @@
+package io.github.anirudhk_tech.janus.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.flatbuf.Bool;
+import org.apache.arrow.flatbuf.Buffer;
+import org.apache.arrow.flatbuf.Endianness;
+import org.apache.arrow.flatbuf.Field;
+import org.apache.arrow.flatbuf.FieldNode;
+import org.apache.arrow.flatbuf.FloatingPoint;
+import org.apache.arrow.flatbuf.Int;
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.flatbuf.MessageHeader;
+import org.apache.arrow.flatbuf.MetadataVersion;
+import org.apache.arrow.flatbuf.Precision;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.flatbuf.Schema;
+import org.apache.arrow.flatbuf.Type;
+import org.apache.arrow.flatbuf.Utf8;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.google.flatbuffers.FlatBufferBuilder;
+
+import io.github.anirudhk_tech.janus.connectors.ColumnarRows;
+import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
+
+/**
+ * Arrow IPC streaming format: a schema message ({@code step_id} plus the union of step columns),
+ * one or more record batches per step, then the end-of-stream marker. Int, long, double and
+ * boolean columns map to Int32, Int64, Float64 and Bool; everything else is sent as Utf8.
+ *
+ * <p>Messages are encoded directly from {@link ColumnarRows} with the Arrow flatbuffer schema
+ * classes, so no Arrow vectors or off-heap allocator are needed on the server.
+ */
+@Component
+public final class ArrowStreamResultWriter implements ResultWriter {
+
+    static final MediaType ARROW_STREAM = new MediaType("application", "vnd.apache.arrow.stream");
+
+    private static final int BATCH_ROWS = 64 * 1024;
+    private static final int CONTINUATION = 0xFFFFFFFF;
+
+    @Override
+    public MediaType mediaType() {
+        return ARROW_STREAM;
+    }
+
+    @Override
+    public void write(List<StepExecutionResult> execution, OutputStream out) throws IOException {
+        UnionSchema schema = UnionSchema.of(execution);
+
+        writeMessage(out, schemaMessage(schema), new byte[0]);
+        for (UnionSchema.Step step : schema.steps) {
+            for (int from = 0; from < step.rows().size(); from += BATCH_ROWS) {
+                writeBatch(out, schema, step, from, Math.min(step.rows().size(), from + BATCH_ROWS));
+            }
+        }
+        out.write(littleEndian(CONTINUATION, 0));
+        out.flush();
+    }
+
+    private static byte[] schemaMessage(UnionSchema schema) {
+        FlatBufferBuilder b = new FlatBufferBuilder(1024);
+
+        int[] fields = new int[schema.columns.size() + 1];
+        fields[0] = field(b, UnionSchema.STEP_ID, false, ColumnarRows.Kind.STRING);
+        for (int c = 0; c < schema.columns.size(); c++) {
+            fields[c + 1] = field(b, schema.columns.get(c), true, schema.kinds.get(c));
+        }
+        int fieldsVector = Schema.createFieldsVector(b, fields);
+
+        Schema.startSchema(b);
+        Schema.addEndianness(b, Endianness.Little);
+        Schema.addFields(b, fieldsVector);
+        return message(b, MessageHeader.Schema, Schema.endSchema(b), 0);
+    }
+
+    private static int field(FlatBufferBuilder b, String name, boolean nullable, ColumnarRows.Kind kind) {
+        int nameOffset = b.createString(name);
+        byte typeType;
+        int typeOffset;
+        switch (kind) {
+            case INT -> {
+                typeType = Type.Int;
+                typeOffset = Int.createInt(b, 32, true);
+            }
+            case LONG -> {
+                typeType = Type.Int;
+                typeOffset = Int.createInt(b, 64, true);
+            }
+            case DOUBLE -> {
+                typeType = Type.FloatingPoint;
+                typeOffset = FloatingPoint.createFloatingPoint(b, Precision.DOUBLE);
+            }
+            case BOOLEAN -> {
+                typeType = Type.Bool;
+                Bool.startBool(b);
+                typeOffset = Bool.endBool(b);
+            }
+            default -> {
+                typeType = Type.Utf8;
+                Utf8.startUtf8(b);
+                typeOffset = Utf8.endUtf8(b);
+            }
+        }
+        int children = Field.createChildrenVector(b, new int[0]);
+
+        Field.startField(b);
+        Field.addName(b, nameOffset);
+        Field.addNullable(b, nullable);
+        Field.addTypeType(b, typeType);
+        Field.addType(b, typeOffset);
+        Field.addChildren(b, children);
+        return Field.endField(b);
+    }
+
+    private static void writeBatch(OutputStream out, UnionSchema schema, UnionSchema.Step step, int from, int to) throws IOException {
+        Body body = new Body(to - from);
+
+        body.stepIds(step.stepId());
+        for (int c = 0; c < schema.columns.size(); c++) {
+            body.column(step.rows(), step.sourceIndex()[c], schema.kinds.get(c), from);
+        }
+
+        FlatBufferBuilder b = new FlatBufferBuilder(256);
+        RecordBatch.startNodesVector(b, body.nodes.size());
+        for (int i = body.nodes.size() - 1; i >= 0; i--) {
+            long[] node = body.nodes.get(i);
+            FieldNode.createFieldNode(b, node[0], node[1]);
+        }
+        int nodes = b.endVector();
+
+        RecordBatch.startBuffersVector(b, body.buffers.size());
+        for (int i = body.buffers.size() - 1; i >= 0; i--) {
+            long[] buffer = body.buffers.get(i);
+            Buffer.createBuffer(b, buffer[0], buffer[1]);
+        }
+        int buffers = b.endVector();
+
+        RecordBatch.startRecordBatch(b);
+        RecordBatch.addLength(b, to - from);
+        RecordBatch.addNodes(b, nodes);
+        RecordBatch.addBuffers(b, buffers);
+        byte[] bytes = body.bytes.toByteArray();
+        writeMessage(out, message(b, MessageHeader.RecordBatch, RecordBatch.endRecordBatch(b), bytes.length), bytes);
+    }
+
+    private static byte[] message(FlatBufferBuilder b, byte headerType, int header, long bodyLength) {
+        Message.startMessage(b);
+        Message.addVersion(b, MetadataVersion.V5);
+        Message.addHeaderType(b, headerType);
+        Message.addHeader(b, header);
+        Message.addBodyLength(b, bodyLength);
+        b.finish(Message.endMessage(b));
+        return b.sizedByteArray();
+    }
+
+    /**
+     * Encapsulated message: continuation marker, metadata length, metadata padded to 8 bytes, body.
+     */
+    private static void writeMessage(OutputStream out, byte[] metadata, byte[] body) throws IOException {
+        int padded = align(metadata.length);
+        out.write(littleEndian(CONTINUATION, padded));
+        out.write(metadata);
+        out.write(new byte[padded - metadata.length]);
+        out.write(body);
+    }
+
+    private static byte[] littleEndian(int a, int b) {
+        return ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putInt(a).putInt(b).array();
+    }
+
+    private static int align(int length) {
+        return (length + 7) & ~7;
+    }
+
+    /**
+     * Record batch body under construction: buffers are appended 8-byte aligned and their
+     * (offset, length) pairs and per-field (length, null count) nodes are recorded for the header.
+     */
+    private static final class Body {
+        final int length;
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final List<long[]> nodes = new ArrayList<>();
+        final List<long[]> buffers = new ArrayList<>();
+
+        Body(int length) {
+            this.length = length;
+        }
+
+        void stepIds(String stepId) {
+            byte[] id = stepId.getBytes(StandardCharsets.UTF_8);
+            byte[] validity = new byte[(length + 7) / 8];
+            ByteBuffer offsets = ints(length + 1);
+            ByteArrayOutputStream data = new ByteArrayOutputStream(id.length * length);
+            for (int i = 0; i < length; i++) {
+                validity[i >> 3] |= (byte) (1 << (i & 7));
+                offsets.putInt(i * id.length);
+                data.writeBytes(id);
+            }
+            offsets.putInt(length * id.length);
+            nodes.add(new long[] {length, 0});
+            append(validity);
+            append(offsets.array());
+            append(data.toByteArray());
+        }
+
+        void column(ColumnarRows rows, int source, ColumnarRows.Kind kind, int from) {
+            byte[] validity = new byte[(length + 7) / 8];
+            int nulls = 0;
+            for (int i = 0; i < length; i++) {
+                if (source < 0 || rows.isNull(from + i, source)) {
+                    nulls++;
+                } else {
+                    validity[i >> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            nodes.add(new long[] {length, nulls});
+            append(validity);
+
+            switch (kind) {
+                case INT -> {
+                    ByteBuffer values = ints(length);
+                    for (int i = 0; i < length; i++) {
+                        values.putInt(isSet(validity, i) ? rows.getInt(from + i, source) : 0);
+                    }
+                    append(values.array());
+                }
+                case LONG -> {
+                    ByteBuffer values = ByteBuffer.allocate(8 * length).order(ByteOrder.LITTLE_ENDIAN);
+                    for (int i = 0; i < length; i++) {
+                        values.putLong(isSet(validity, i) ? UnionSchema.longValue(rows, from + i, source) : 0L);
+                    }
+                    append(values.array());
+                }
+                case DOUBLE -> {
+                    ByteBuffer values = ByteBuffer.allocate(8 * length).order(ByteOrder.LITTLE_ENDIAN);
+                    for (int i = 0; i < length; i++) {
+                        values.putDouble(isSet(validity, i) ? rows.getDouble(from + i, source) : 0.0);
+                    }
+                    append(values.array());
+                }
+                case BOOLEAN -> {
+                    byte[] values = new byte[(length + 7) / 8];
+                    for (int i = 0; i < length; i++) {
+                        if (isSet(validity, i) && rows.getBoolean(from + i, source)) {
+                            values[i >> 3] |= (byte) (1 << (i & 7));
+                        }
+                    }
+                    append(values);
+                }
+                default -> {
+                    ByteBuffer offsets = ints(length + 1);
+                    ByteArrayOutputStream data = new ByteArrayOutputStream();
+                    for (int i = 0; i < length; i++) {
+                        offsets.putInt(data.size());
+                        if (isSet(validity, i)) {
+                            data.writeBytes(UnionSchema.text(rows, from + i, source).getBytes(StandardCharsets.UTF_8));
+                        }
+                    }
+                    offsets.putInt(data.size());
+                    append(offsets.array());
+                    append(data.toByteArray());
+                }
+            }
+        }
+
+        private static boolean isSet(byte[] bitmap, int i) {
+            return (bitmap[i >> 3] & (1 << (i & 7))) != 0;
+        }
+
+        private static ByteBuffer ints(int count) {
+            return ByteBuffer.allocate(4 * count).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private void append(byte[] buffer) {
+            buffers.add(new long[] {bytes.size(), buffer.length});
+            bytes.writeBytes(buffer);
+            bytes.writeBytes(new byte[align(buffer.length) - buffer.length]);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.anirudhk_tech.janus.output;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import io.github.anirudhk_tech.janus.connectors.ColumnarRows;
+import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
+
+/**
+ * RFC 4180 CSV: one header line ({@code step_id} plus the union of step columns), then one line
+ * per row. SQL NULL is an empty field.
+ */
+@Component
+public final class CsvResultWriter implements ResultWriter {
+
+    static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    @Override
+    public MediaType mediaType() {
+        return TEXT_CSV;
+    }
+
+    @Override
+    public void write(List<StepExecutionResult> execution, OutputStream out) throws IOException {
+        UnionSchema schema = UnionSchema.of(execution);
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        writeField(w, UnionSchema.STEP_ID);
+        for (String col : schema.columns) {
+            w.write(',');
+            writeField(w, col);
+        }
+        w.write("\r\n");
+
+        for (UnionSchema.Step step : schema.steps) {
+            ColumnarRows rows = step.rows();
+            int[] source = step.sourceIndex();
+            for (int r = 0; r < rows.size(); r++) {
+                writeField(w, step.stepId());
+                for (int c = 0; c < source.length; c++) {
+                    w.write(',');
+                    if (source[c] >= 0 && !rows.isNull(r, source[c])) {
+                        writeField(w, UnionSchema.text(rows, r, source[c]));
+                    }
+                }
+                w.write("\r\n");
+            }
+        }
+        w.flush();
+    }
+
+    private static void writeField(Writer w, String value) throws IOException {
+        if (!needsQuoting(value)) {
+            w.write(value);
+            return;
+        }
+        w.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"') w.write('"');
+            w.write(ch);
+        }
+        w.write('"');
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == ',' || ch == '"' || ch == '\n' || ch == '\r') return true;
+        }
+        return false;
+    }
+}
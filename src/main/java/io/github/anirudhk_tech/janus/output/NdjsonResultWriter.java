@@ -0,0 +1,74 @@
+package io.github.anirudhk_tech.janus.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.connectors.ColumnarRows;
+import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
+
+/**
+ * Newline-delimited JSON: one flat object per row, {@code {"step_id": ..., <columns>...}}. Unlike
+ * CSV each line carries its own step's columns, so no union header is needed.
+ */
+@Component
+public final class NdjsonResultWriter implements ResultWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonResultWriter(ObjectMapper objectMapper) {
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper is required");
+    }
+
+    @Override
+    public MediaType mediaType() {
+        return MediaType.APPLICATION_NDJSON;
+    }
+
+    @Override
+    public void write(List<StepExecutionResult> execution, OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are separated by the explicit newline below, not Jackson's default space.
+            gen.setRootValueSeparator(null);
+
+            for (StepExecutionResult r : execution == null ? List.<StepExecutionResult>of() : execution) {
+                ColumnarRows rows = UnionSchema.rowsOf(r);
+                if (rows == null) continue;
+
+                for (int row = 0; row < rows.size(); row++) {
+                    gen.writeStartObject();
+                    gen.writeStringField(UnionSchema.STEP_ID, r.stepId());
+                    for (int c = 0; c < rows.columns().size(); c++) {
+                        gen.writeFieldName(rows.columns().get(c));
+                        writeCell(gen, rows, row, c);
+                    }
+                    gen.writeEndObject();
+                    gen.writeRaw('\n');
+                }
+            }
+        }
+    }
+
+    private static void writeCell(JsonGenerator gen, ColumnarRows rows, int row, int c) throws IOException {
+        if (rows.isNull(row, c)) {
+            gen.writeNull();
+            return;
+        }
+        switch (rows.kind(c)) {
+            case INT -> gen.writeNumber(rows.getInt(row, c));
+            case LONG -> gen.writeNumber(rows.getLong(row, c));
+            case DOUBLE -> gen.writeNumber(rows.getDouble(row, c));
+            case BOOLEAN -> gen.writeBoolean(rows.getBoolean(row, c));
+            case STRING -> gen.writeString(rows.getString(row, c));
+            case OBJECT -> gen.writeObject(rows.get(row, c));
+        }
+    }
+}
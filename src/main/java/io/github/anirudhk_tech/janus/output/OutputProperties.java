@@ -5,5 +5,6 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "janus.output")
 public record OutputProperties(
     boolean sql,
-    Boolean color
+    Boolean color,
+    Integer widthSampleRows
 ) {}
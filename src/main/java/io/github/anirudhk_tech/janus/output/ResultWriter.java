@@ -0,0 +1,18 @@
+package io.github.anirudhk_tech.janus.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
+
+/**
+ * Serializes step rows in a client-selected wire format, straight from the step results (no
+ * merged map). Every row carries the id of the step that produced it.
+ */
+public interface ResultWriter {
+    MediaType mediaType();
+    void write(List<StepExecutionResult> execution, OutputStream out) throws IOException;
+}
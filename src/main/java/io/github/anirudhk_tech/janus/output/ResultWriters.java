@@ -0,0 +1,76 @@
+package io.github.anirudhk_tech.janus.output;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
+
+@Service
+public final class ResultWriters {
+
+    public static final String STATUS_HEADER = "X-Janus-Status";
+    public static final String FAILED_STEPS_HEADER = "X-Janus-Failed-Steps";
+    public static final String TRUNCATED_STEPS_HEADER = "X-Janus-Truncated-Steps";
+
+    private final List<ResultWriter> writers;
+
+    public ResultWriters(List<ResultWriter> writers) {
+        this.writers = List.copyOf(writers);
+    }
+
+    /**
+     * Picks the writer for the most preferred media type in an {@code Accept} header. Wildcards do
+     * not select a writer, so clients that accept anything keep getting the default response.
+     * Neither does {@code application/json}: when it is preferred over, or listed before an
+     * equally weighted, writer format, the default JSON response wins.
+     */
+    public Optional<ResultWriter> negotiate(String accept) {
+        if (accept == null || accept.isBlank()) return Optional.empty();
+
+        List<MediaType> requested;
+        try {
+            requested = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        requested.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+        for (MediaType type : requested) {
+            if (type.isWildcardType() || type.isWildcardSubtype() || type.getQualityValue() == 0) continue;
+            if (MediaType.APPLICATION_JSON.isCompatibleWith(type)) return Optional.empty();
+            for (ResultWriter w : writers) {
+                if (w.mediaType().isCompatibleWith(type)) return Optional.of(w);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Completeness of a row-format response, which has no envelope to carry it: the status the JSON
+     * response would report ({@code executed} or {@code partial}), the steps that failed or timed out
+     * (and so have no rows), and the steps whose rows stopped at the row or byte cap. The step lists
+     * are comma-separated and left out when empty.
+     */
+    public static Map<String, String> statusHeaders(List<StepExecutionResult> execution) {
+        List<String> failed = new ArrayList<>();
+        List<String> truncated = new ArrayList<>();
+        for (StepExecutionResult r : execution) {
+            if (!r.status().isSuccess()) failed.add(r.stepId());
+            else if (r.data() != null && Boolean.TRUE.equals(r.data().get("truncated"))) truncated.add(r.stepId());
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(STATUS_HEADER, failed.isEmpty() ? "executed" : "partial");
+        if (!failed.isEmpty()) headers.put(FAILED_STEPS_HEADER, String.join(",", failed));
+        if (!truncated.isEmpty()) headers.put(TRUNCATED_STEPS_HEADER, String.join(",", truncated));
+        return headers;
+    }
+}
@@ -1,17 +1,35 @@
 package io.github.anirudhk_tech.janus.output;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 
+import io.github.anirudhk_tech.janus.connectors.ColumnarRows;
 import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
 
+/**
+ * Renders step results as terminal-friendly tables.
+ *
+ * <p>{@link #write} streams the output: column widths come from the first
+ * {@code widthSampleRows} rows of each step, so rows are written as they are rendered instead of
+ * the whole table being built up front. Cells in later rows that are wider than the sampled width
+ * are cut with an ellipsis, the same as cells that exceed the terminal width.
+ */
 public final class SqlOutputFormatter {
 
+    public static final int DEFAULT_WIDTH_SAMPLE_ROWS = 1_000;
+
     private SqlOutputFormatter() {}
 
     public static String format(String traceId, List<StepExecutionResult> execution) {
@@ -19,21 +37,40 @@ public final class SqlOutputFormatter {
     }
 
     public static String format(String traceId, List<StepExecutionResult> execution, boolean colored) {
+        StringWriter out = new StringWriter();
+        try {
+            write(traceId, execution, colored, DEFAULT_WIDTH_SAMPLE_ROWS, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes the output as UTF-8 to {@code out}, flushing after every step header and whenever the
+     * buffer fills so the client sees the first rows before the last ones are formatted.
+     */
+    public static void write(String traceId, List<StepExecutionResult> execution, boolean colored, int widthSampleRows, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        write(traceId, execution, colored, widthSampleRows, w);
+        w.flush();
+    }
+
+    private static void write(String traceId, List<StepExecutionResult> execution, boolean colored, int widthSampleRows, Writer w) throws IOException {
         List<StepExecutionResult> safe = execution == null ? List.of() : execution;
         Colorizer c = new Colorizer(colored);
+        int sampleRows = Math.max(1, widthSampleRows);
 
-        StringBuilder sb = new StringBuilder();
-
-        sb.append(c.color("══════ JANUS SQL OUTPUT ══════", BRIGHT_BLUE)).append("\n");
+        w.append(c.color("══════ JANUS SQL OUTPUT ══════", BRIGHT_BLUE)).append("\n");
         if (traceId != null && !traceId.isBlank()) {
-            sb.append(c.color("traceId: ", DIM)).append(c.color(traceId, BRIGHT_WHITE)).append("\n");
+            w.append(c.color("traceId: ", DIM)).append(c.color(traceId, BRIGHT_WHITE)).append("\n");
         }
-        sb.append(c.color("mode: text/plain • merge: off • explain: off", DIM)).append("\n");
+        w.append(c.color("mode: text/plain • merge: off • explain: off", DIM)).append("\n");
 
         for (StepExecutionResult r : safe) {
             if (r == null) continue;
             Map<String, Object> data = r.data();
-            sb.append("\n")
+            w.append("\n")
                 .append(c.color("▼ Step ", BRIGHT_MAGENTA))
                 .append(c.color(r.stepId(), BRIGHT_WHITE))
                 .append(c.color(" (", BRIGHT_MAGENTA))
@@ -48,75 +85,93 @@ public final class SqlOutputFormatter {
             if (data != null) {
                 Object sql = data.get("sql");
                 if (sql instanceof String s && !s.isBlank()) {
-                    sb.append(c.color("SQL:", BRIGHT_CYAN)).append("\n")
+                    w.append(c.color("SQL:", BRIGHT_CYAN)).append("\n")
                       .append(c.color(s, BRIGHT_WHITE)).append("\n\n");
                 }
 
                 Object params = data.get("params");
                 if (params instanceof Map<?, ?> m) {
-                    sb.append(c.color("Params: ", BRIGHT_CYAN)).append(c.color(m.toString(), BRIGHT_WHITE)).append("\n\n");
+                    w.append(c.color("Params: ", BRIGHT_CYAN)).append(c.color(m.toString(), BRIGHT_WHITE)).append("\n\n");
                 }
+                w.flush();
 
-                List<Map<String, Object>> rows = extractRows(data.get("rows"));
-                appendTable(sb, rows, c);
+                ColumnarRows rows = extractRows(data.get("rows"));
+                writeTable(w, rows, sampleRows, c);
             } else {
-                sb.append(c.color("No data\n", DIM));
+                w.append(c.color("No data\n", DIM));
             }
-        }
 
-        return sb.toString();
+            if (r.error() != null && !r.error().isBlank()) {
+                w.append(c.color("Error: ", BRIGHT_RED)).append(c.color(r.error(), BRIGHT_WHITE)).append("\n");
+            }
+        }
     }
 
-    private static void appendTable(StringBuilder sb, List<Map<String, Object>> rows, Colorizer c) {
+    private static void writeTable(Writer w, ColumnarRows rows, int sampleRows, Colorizer c) throws IOException {
         if (rows.isEmpty()) {
-            sb.append(c.color("Rows: 0\n", DIM));
+            w.append(c.color("Rows: 0\n", DIM));
             return;
         }
 
-        LinkedHashSet<String> columns = new LinkedHashSet<>();
-        for (Map<String, Object> row : rows) {
-            if (row != null) {
-                columns.addAll(row.keySet());
-            }
-        }
+        List<String> columns = rows.columns();
 
         if (columns.isEmpty()) {
-            sb.append(c.color("Rows: ", DIM)).append(rows.size()).append(c.color(" (no columns)\n", DIM));
+            w.append(c.color("Rows: ", DIM)).append(String.valueOf(rows.size())).append(c.color(" (no columns)\n", DIM));
             return;
         }
 
-        Map<String, Integer> widths = new LinkedHashMap<>();
-        for (String col : columns) {
-            widths.put(col, col.length());
+        // Stringify the sampled rows once and reuse the text when they are rendered.
+        int sampled = Math.min(sampleRows, rows.size());
+        String[][] sample = new String[sampled][];
+        int[] widths = new int[columns.size()];
+        for (int col = 0; col < widths.length; col++) {
+            widths[col] = columns.get(col).length();
         }
-        for (Map<String, Object> row : rows) {
-            if (row == null) continue;
-            for (String col : columns) {
-                String val = stringify(row.get(col));
-                widths.put(col, Math.max(widths.get(col), val.length()));
+        for (int row = 0; row < sampled; row++) {
+            String[] cells = new String[widths.length];
+            for (int col = 0; col < widths.length; col++) {
+                cells[col] = stringify(rows.get(row, col));
+                widths[col] = Math.max(widths[col], cells[col].length());
             }
+            sample[row] = cells;
         }
 
         int maxWidth = resolveMaxWidth();
         widths = clampWidths(widths, maxWidth);
 
         String horizontal = buildHorizontal(widths, c);
-        sb.append(horizontal);
-        sb.append(buildHeader(columns, widths, c));
-        sb.append(horizontal);
-        for (Map<String, Object> row : rows) {
-            sb.append(buildRow(columns, widths, row, c));
+        w.append(horizontal);
+        writeHeader(w, columns, widths, c);
+        w.append(horizontal);
+        String[] cells = new String[widths.length];
+        for (int row = 0; row < rows.size(); row++) {
+            if (row < sampled) {
+                writeRow(w, sample[row], widths, c);
+                sample[row] = null;
+                continue;
+            }
+            for (int col = 0; col < widths.length; col++) {
+                cells[col] = stringify(rows.get(row, col));
+            }
+            writeRow(w, cells, widths, c);
         }
-        sb.append(horizontal);
-        sb.append(c.color("(", DIM))
+        w.append(horizontal);
+        w.append(c.color("(", DIM))
           .append(c.color(String.valueOf(rows.size()), BRIGHT_YELLOW))
           .append(c.color(rows.size() == 1 ? " row" : " rows", DIM))
           .append(c.color(")\n", DIM));
     }
 
-    private static List<Map<String, Object>> extractRows(Object candidate) {
+    /**
+     * Connector rows are already columnar; plain row-map lists (e.g. from stub connectors) are
+     * converted once so the table code has a single shape to render.
+     */
+    private static ColumnarRows extractRows(Object candidate) {
+        if (candidate instanceof ColumnarRows rows) {
+            return rows;
+        }
         if (!(candidate instanceof List<?> list)) {
-            return List.of();
+            return ColumnarRows.empty();
         }
         List<Map<String, Object>> rows = new ArrayList<>();
         for (Object o : list) {
@@ -128,46 +183,41 @@ public final class SqlOutputFormatter {
                 rows.add(row);
             }
         }
-        return rows;
+        return ColumnarRows.fromMaps(rows);
     }
 
-    private static String buildHorizontal(Map<String, Integer> widths, Colorizer c) {
+    private static String buildHorizontal(int[] widths, Colorizer c) {
         StringBuilder sb = new StringBuilder();
         sb.append(c.color("+", DIM));
-        for (int w : widths.values()) {
+        for (int w : widths) {
             sb.append(c.color("-".repeat(w + 2), DIM)).append(c.color("+", DIM));
         }
         sb.append("\n");
         return sb.toString();
     }
 
-    private static String buildHeader(LinkedHashSet<String> columns, Map<String, Integer> widths, Colorizer c) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(c.color("|", DIM));
-        for (String col : columns) {
-            String rendered = renderCell(col, widths.get(col));
-            sb.append(" ")
+    private static void writeHeader(Writer w, List<String> columns, int[] widths, Colorizer c) throws IOException {
+        w.append(c.color("|", DIM));
+        for (int col = 0; col < widths.length; col++) {
+            String rendered = renderCell(columns.get(col), widths[col]);
+            w.append(" ")
               .append(c.color(rendered, BRIGHT_YELLOW))
               .append(" ")
               .append(c.color("|", DIM));
         }
-        sb.append("\n");
-        return sb.toString();
+        w.append("\n");
     }
 
-    private static String buildRow(LinkedHashSet<String> columns, Map<String, Integer> widths, Map<String, Object> row, Colorizer c) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(c.color("|", DIM));
-        for (String col : columns) {
-            String val = stringify(row == null ? null : row.get(col));
-            String rendered = renderCell(val, widths.get(col));
-            sb.append(" ")
+    private static void writeRow(Writer w, String[] cells, int[] widths, Colorizer c) throws IOException {
+        w.append(c.color("|", DIM));
+        for (int col = 0; col < widths.length; col++) {
+            String rendered = renderCell(cells[col], widths[col]);
+            w.append(" ")
               .append(c.color(rendered, BRIGHT_WHITE))
               .append(" ")
               .append(c.color("|", DIM));
         }
-        sb.append("\n");
-        return sb.toString();
+        w.append("\n");
     }
 
     private static String stringify(Object value) {
@@ -206,26 +256,51 @@ public final class SqlOutputFormatter {
         return 120;
     }
 
-    private static Map<String, Integer> clampWidths(Map<String, Integer> widths, int maxWidth) {
+    /**
+     * Shrinks the widest columns to a common level so the table fits {@code maxWidth}, never below
+     * the minimum width. The level is found in one pass over the widths sorted widest first; when
+     * the excess does not divide evenly, the rightmost capped columns keep one extra character, as
+     * they did when columns were shrunk one character at a time.
+     */
+    static int[] clampWidths(int[] widths, int maxWidth) {
         final int minWidth = 6;
-        Map<String, Integer> out = new LinkedHashMap<>(widths);
-        while (true) {
-            int total = totalTableWidth(out);
-            if (total <= maxWidth) break;
-            Optional<Map.Entry<String, Integer>> largest =
-                out.entrySet().stream()
-                    .filter(e -> e.getValue() > minWidth)
-                    .max((a, b) -> Integer.compare(a.getValue(), b.getValue()));
-            if (largest.isEmpty()) break;
-            String key = largest.get().getKey();
-            out.put(key, out.get(key) - 1);
+        int[] out = widths.clone();
+        int excess = totalTableWidth(out) - maxWidth;
+        if (excess <= 0) return out;
+
+        int[] sorted = widths.clone();
+        Arrays.sort(sorted);
+        int n = sorted.length;
+
+        int level = minWidth;
+        int extra = 0;
+        long prefix = 0;
+        for (int k = 1; k <= n; k++) {
+            int current = sorted[n - k];
+            if (current <= minWidth) break;
+            prefix += current;
+            int next = (k < n) ? Math.max(sorted[n - k - 1], minWidth) : minWidth;
+            // Lowering the k widest columns to the next width frees prefix - k * next characters.
+            if (prefix - (long) k * next >= excess) {
+                long target = prefix - excess;
+                level = (int) (target / k);
+                extra = (int) (target % k);
+                break;
+            }
+        }
+
+        for (int i = out.length - 1; i >= 0; i--) {
+            if (out[i] > level) {
+                out[i] = (extra > 0) ? level + 1 : level;
+                if (extra > 0) extra--;
+            }
         }
         return out;
     }
 
-    private static int totalTableWidth(Map<String, Integer> widths) {
+    private static int totalTableWidth(int[] widths) {
         int total = 1; // starting "+"
-        for (int w : widths.values()) {
+        for (int w : widths) {
             total += (w + 2); // spaces around cell
             total += 1; // trailing border
         }
@@ -0,0 +1,108 @@
+package io.github.anirudhk_tech.janus.output;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.github.anirudhk_tech.janus.connectors.ColumnarRows;
+import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
+
+/**
+ * One flat table over the rows of all steps, for formats that need a single header: a leading
+ * {@code step_id} column followed by the union of step columns in first-seen order. A column keeps
+ * its storage kind when every step agrees on it (int widens to long); otherwise it is rendered as
+ * text.
+ */
+final class UnionSchema {
+
+    static final String STEP_ID = "step_id";
+
+    /**
+     * @param sourceIndex for each union column, the column index in {@code rows}, or -1 if absent
+     */
+    record Step(String stepId, ColumnarRows rows, int[] sourceIndex) {}
+
+    final List<String> columns;
+    final List<ColumnarRows.Kind> kinds;
+    final List<Step> steps;
+
+    private UnionSchema(List<String> columns, List<ColumnarRows.Kind> kinds, List<Step> steps) {
+        this.columns = columns;
+        this.kinds = kinds;
+        this.steps = steps;
+    }
+
+    static UnionSchema of(List<StepExecutionResult> execution) {
+        List<String> columns = new ArrayList<>();
+        List<ColumnarRows.Kind> kinds = new ArrayList<>();
+        List<Map.Entry<String, ColumnarRows>> withRows = new ArrayList<>();
+
+        for (StepExecutionResult r : execution == null ? List.<StepExecutionResult>of() : execution) {
+            ColumnarRows rows = rowsOf(r);
+            if (rows == null) continue;
+            withRows.add(Map.entry(r.stepId(), rows));
+
+            for (int c = 0; c < rows.columns().size(); c++) {
+                String name = rows.columns().get(c);
+                int at = columns.indexOf(name);
+                if (at < 0) {
+                    columns.add(name);
+                    kinds.add(rows.kind(c));
+                } else {
+                    kinds.set(at, widen(kinds.get(at), rows.kind(c)));
+                }
+            }
+        }
+
+        List<Step> steps = new ArrayList<>(withRows.size());
+        for (Map.Entry<String, ColumnarRows> e : withRows) {
+            int[] sourceIndex = new int[columns.size()];
+            for (int c = 0; c < sourceIndex.length; c++) {
+                sourceIndex[c] = e.getValue().columns().indexOf(columns.get(c));
+            }
+            steps.add(new Step(e.getKey(), e.getValue(), sourceIndex));
+        }
+
+        return new UnionSchema(List.copyOf(columns), List.copyOf(kinds), List.copyOf(steps));
+    }
+
+    /**
+     * Rows of a step, converting plain row-map lists (e.g. from stub connectors) once.
+     */
+    static ColumnarRows rowsOf(StepExecutionResult r) {
+        if (r == null || r.data() == null) return null;
+        Object rows = r.data().get("rows");
+        if (rows instanceof ColumnarRows columnar) return columnar;
+        if (rows instanceof List<?> list) {
+            List<Map<String, Object>> maps = new ArrayList<>(list.size());
+            for (Object o : list) {
+                if (o instanceof Map<?, ?> m) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> row = (Map<String, Object>) m;
+                    maps.add(row);
+                }
+            }
+            return ColumnarRows.fromMaps(maps);
+        }
+        return null;
+    }
+
+    private static ColumnarRows.Kind widen(ColumnarRows.Kind a, ColumnarRows.Kind b) {
+        if (a == b) return a;
+        if ((a == ColumnarRows.Kind.INT && b == ColumnarRows.Kind.LONG) || (a == ColumnarRows.Kind.LONG && b == ColumnarRows.Kind.INT)) {
+            return ColumnarRows.Kind.LONG;
+        }
+        return ColumnarRows.Kind.OBJECT;
+    }
+
+    /**
+     * Long value of a non-null cell in a column whose union kind is INT or LONG.
+     */
+    static long longValue(ColumnarRows rows, int row, int column) {
+        return rows.kind(column) == ColumnarRows.Kind.INT ? rows.getInt(row, column) : rows.getLong(row, column);
+    }
+
+    static String text(ColumnarRows rows, int row, int column) {
+        return rows.kind(column) == ColumnarRows.Kind.STRING ? rows.getString(row, column) : String.valueOf(rows.get(row, column));
+    }
+}
@@ -2,11 +2,48 @@ package io.github.anirudhk_tech.janus.plan;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonValue;
+
 public record ExecutionPlan (
     List<PlanStep> steps,
-    String mergeStrategy
+    String mergeStrategy,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    PlanSource planSource,
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Long capabilitiesVersion
 ) {
 
-}
+    /**
+     * Where the plan came from: a fresh planner call, the plan cache or a configured template.
+     */
+    public enum PlanSource {
+        LLM,
+        CACHE,
+        TEMPLATE;
+
+        @JsonValue
+        public String value() {
+            return name().toLowerCase();
+        }
+    }
 
+    public ExecutionPlan(List<PlanStep> steps, String mergeStrategy) {
+        this(steps, mergeStrategy, null, null);
+    }
 
+    public ExecutionPlan withMergeStrategy(String mergeStrategy) {
+        return new ExecutionPlan(steps, mergeStrategy, planSource, capabilitiesVersion);
+    }
+
+    public ExecutionPlan withPlanSource(PlanSource planSource) {
+        return new ExecutionPlan(steps, mergeStrategy, planSource, capabilitiesVersion);
+    }
+
+    /**
+     * Tags the plan with the {@code CapabilitiesPrompt} version it was planned against.
+     */
+    public ExecutionPlan withCapabilitiesVersion(Long capabilitiesVersion) {
+        return new ExecutionPlan(steps, mergeStrategy, planSource, capabilitiesVersion);
+    }
+}
@@ -1,5 +1,7 @@
 package io.github.anirudhk_tech.janus.plan;
 
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
@@ -20,4 +22,10 @@ public sealed interface PlanStep
 
         String connector();
 
+        /**
+         * Step ids whose results must be available before this step starts. Empty for steps
+         * that can run immediately.
+         */
+        List<String> dependsOn();
+
     }
@@ -1,5 +1,6 @@
 package io.github.anirudhk_tech.janus.plan;
 
+import java.util.List;
 import java.util.Map;
 
 public record SqlQueryStep (
@@ -7,7 +8,24 @@ public record SqlQueryStep (
     String connector,
     String sourceId,
     String sql,
-    Map<String, Object> params
+    Map<String, Object> params,
+    List<String> dependsOn
 ) implements PlanStep {
-    
+
+    /**
+     * Names of the params the guardrail lifts out of inline literals ({@code lit_0}, ...).
+     */
+    public static final String LIFTED_PARAM_PREFIX = "lit_";
+
+    public SqlQueryStep {
+        dependsOn = (dependsOn == null) ? List.of() : List.copyOf(dependsOn);
+    }
+
+    public SqlQueryStep(String stepId, String connector, String sourceId, String sql, Map<String, Object> params) {
+        this(stepId, connector, sourceId, sql, params, List.of());
+    }
+
+    public SqlQueryStep withSql(String sql, Map<String, Object> params) {
+        return new SqlQueryStep(stepId, connector, sourceId, sql, params, dependsOn);
+    }
 }
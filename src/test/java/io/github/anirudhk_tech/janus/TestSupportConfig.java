@@ -9,6 +9,7 @@ import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 
 import io.github.anirudhk_tech.janus.agent.QueryAgent;
+import io.github.anirudhk_tech.janus.connectors.ColumnarRows;
 import io.github.anirudhk_tech.janus.connectors.Connector;
 import io.github.anirudhk_tech.janus.connectors.ConnectorResult;
 import io.github.anirudhk_tech.janus.federation.ExecutionContext;
@@ -65,7 +66,7 @@ public class TestSupportConfig {
                     sql.stepId(),
                     sql.connector(),
                     Map.of(
-                        "rows", List.of(Map.of("ok", 1)),
+                        "rows", ColumnarRows.fromMaps(List.of(Map.of("ok", 1))),
                         "sql", sql.sql(),
                         "params", sql.params()
                     )
@@ -0,0 +1,96 @@
+package io.github.anirudhk_tech.janus.agent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.agent.llm.LlmClient;
+import io.github.anirudhk_tech.janus.agent.llm.LlmProperties;
+import io.github.anirudhk_tech.janus.capabilities.CapabilitiesPrompt;
+import io.github.anirudhk_tech.janus.capabilities.CapabilitiesProperties;
+import io.github.anirudhk_tech.janus.capabilities.CapabilitiesService;
+import io.github.anirudhk_tech.janus.capabilities.sql.SqlSchemaService;
+import io.github.anirudhk_tech.janus.connectors.DataSourceRegistry;
+import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LlmQueryAgentTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> prompts = new ArrayList<>();
+
+    private static Map<String, Object> column(String table, String column) {
+        return Map.of("table_name", table, "column_name", column, "data_type", "text", "is_nullable", "NO");
+    }
+
+    /**
+     * Agent over one source with four tables, pruned to the single best match, whose planner
+     * answers each call with the next of {@code sql}.
+     */
+    private LlmQueryAgent agent(String... sql) {
+        CapabilitiesProperties props = new CapabilitiesProperties(List.of(
+            new CapabilitiesProperties.Source("cackle", "supabase", "Link saver",
+                new CapabilitiesProperties.SqlHints("public", List.of("links", "link_tags", "users", "profiles")))
+        ), null, null, null);
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        when(jdbc.queryForList(anyString(), anyMap())).thenReturn(List.of(
+            column("links", "id"), column("links", "url"),
+            column("link_tags", "link_id"), column("link_tags", "tag"),
+            column("users", "id"), column("users", "email"),
+            column("profiles", "user_id"), column("profiles", "bio")
+        ));
+        DataSourceRegistry dataSources = mock(DataSourceRegistry.class);
+        when(dataSources.templateFor("supabase", "cackle")).thenReturn(jdbc);
+        CapabilitiesPrompt capabilities = new CapabilitiesPrompt(new CapabilitiesService(props), new SqlSchemaService(props, dataSources), new ObjectMapper());
+
+        LlmClient llm = (system, user) -> {
+            String next = sql[Math.min(prompts.size(), sql.length - 1)];
+            prompts.add(user);
+            return "{\"steps\":[{\"type\":\"sql\",\"stepId\":\"s1\",\"connector\":\"supabase\",\"sourceId\":\"cackle\",\"sql\":\"" + next + "\"}]}";
+        };
+
+        AgentProperties agentProps = new AgentProperties();
+        agentProps.getSchemaPruning().setTopTables(1);
+        return new LlmQueryAgent(llm, new ObjectMapper(), capabilities, new PlanCache(agentProps, registry), agentProps, new LlmProperties(), registry);
+    }
+
+    private double fallbacks() {
+        return registry.get("janus.agent.prompt.schema.fallback").counter().count();
+    }
+
+    @Test
+    void planOverPrunedTablesIsKept() {
+        ExecutionPlan plan = agent("select tag from link_tags").buildPlan("which tags are there", null);
+
+        assertEquals("select tag from link_tags", ((SqlQueryStep) plan.steps().get(0)).sql());
+        assertEquals(1, prompts.size());
+        assertFalse(prompts.get(0).contains("\"users\""));
+        assertEquals(0.0, fallbacks());
+    }
+
+    @Test
+    void planReadingAPrunedTableIsReplannedWithTheFullSchema() {
+        ExecutionPlan plan = agent("select t.tag from link_tags t join users u on u.id = t.link_id", "select tag from link_tags")
+            .buildPlan("which tags are there", null);
+
+        assertEquals("select tag from link_tags", ((SqlQueryStep) plan.steps().get(0)).sql());
+        assertEquals(2, prompts.size());
+        assertFalse(prompts.get(0).contains("\"users\""));
+        assertTrue(prompts.get(1).contains("\"users\""));
+        assertEquals(1.0, fallbacks());
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.anirudhk_tech.janus.agent;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.anirudhk_tech.janus.api.QueryRequest;
+import io.github.anirudhk_tech.janus.capabilities.CapabilitiesPrompt;
+import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanCacheTest {
+
+    private static final ExecutionPlan PLAN = new ExecutionPlan(
+        List.of(new SqlQueryStep("s1", "supabase", "cackle", "select 1", Map.of())),
+        null
+    );
+
+    private static final CapabilitiesPrompt.Snapshot CAPS_1 = new CapabilitiesPrompt.Snapshot(1, "{\"sources\":[1]}", "h1", null);
+    private static final CapabilitiesPrompt.Snapshot CAPS_2 = new CapabilitiesPrompt.Snapshot(2, "{\"sources\":[2]}", "h2", null);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private PlanCache cache(int maxEntries) {
+        AgentProperties props = new AgentProperties();
+        props.getPlanCache().setMaxEntries(maxEntries);
+        return new PlanCache(props, registry);
+    }
+
+    @Test
+    void normalizedQuestionHits_butChangedCapabilitiesOrTimeoutMiss() {
+        PlanCache cache = cache(10);
+        QueryRequest.Options options = new QueryRequest.Options(5000, true, null, null, null);
+
+        cache.put(PlanCache.Key.of("List my links for 'ACME'?", options, CAPS_1), PLAN);
+
+        assertTrue(cache.get(PlanCache.Key.of("  List my   links\tfor 'ACME' ?!", new QueryRequest.Options(5000, false, null, null, null), CAPS_1)).isPresent());
+        assertFalse(cache.get(PlanCache.Key.of("List my links for 'ACME'", options, CAPS_2)).isPresent());
+        assertFalse(cache.get(PlanCache.Key.of("List my links for 'ACME'", null, CAPS_1)).isPresent());
+
+        assertEquals(1.0, registry.get("janus.agent.plan.cache").tag("result", "hit").counter().count());
+        assertEquals(2.0, registry.get("janus.agent.plan.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void questionsDifferingOnlyInAValuesCaseMiss() {
+        PlanCache cache = cache(10);
+
+        cache.put(PlanCache.Key.of("events for user ABC", null, CAPS_1), PLAN);
+
+        assertFalse(cache.get(PlanCache.Key.of("events for user abc", null, CAPS_1)).isPresent());
+        // Apostrophes and dashes are plain text, not the start of a string or comment.
+        assertEquals("Bob's events -- today", PlanCache.normalizeQuestion(" Bob's  events -- today? "));
+        assertTrue(cache.get(PlanCache.Key.of("events  for user ABC.", null, CAPS_1)).isPresent());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() {
+        PlanCache cache = cache(2);
+        PlanCache.Key a = PlanCache.Key.of("a", null, CAPS_1);
+        PlanCache.Key b = PlanCache.Key.of("b", null, CAPS_1);
+        PlanCache.Key c = PlanCache.Key.of("c", null, CAPS_1);
+
+        cache.put(a, PLAN);
+        cache.put(b, PLAN);
+        cache.get(a);
+        cache.put(c, PLAN);
+
+        assertTrue(cache.get(a).isPresent());
+        assertFalse(cache.get(b).isPresent());
+        assertTrue(cache.get(c).isPresent());
+    }
+}
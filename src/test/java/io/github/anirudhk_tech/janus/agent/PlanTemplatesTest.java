@@ -0,0 +1,87 @@
+package io.github.anirudhk_tech.janus.agent;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlanTemplatesTest {
+
+    private static AgentProperties.Template template(String name, String pattern, String regex, String sql, Map<String, String> slots) {
+        AgentProperties.Template t = new AgentProperties.Template();
+        t.setName(name);
+        t.setPattern(pattern);
+        t.setRegex(regex);
+        t.setConnector("supabase");
+        t.setSourceId("cackle");
+        t.setSql(sql);
+        t.setSlots(slots);
+        return t;
+    }
+
+    private final PlanTemplates templates = new PlanTemplates(List.of(
+        template("events_between", "events between {start} and {end}", null,
+            "select * from calendar_events where start_time >= :start and start_time < :end",
+            Map.of("start", "timestamp", "end", "timestamp")),
+        template("links_for_user", null, "(?:show )?links for user (?<userId>\\S+)",
+            "select * from links where user_id = :userId", Map.of()),
+        template("links_since", null, "links(?: since (?<since>\\S+))?",
+            "select * from links where (cast(:since as date) is null or created_at >= :since)", Map.of("since", "date"))
+    ));
+
+    @Test
+    void slotGrammarBindsTypedParams() {
+        ExecutionPlan plan = templates.match("  Events  between 2024-01-01 and '2024-02-01T00:00:00Z'? ").orElseThrow();
+
+        assertEquals(ExecutionPlan.PlanSource.TEMPLATE, plan.planSource());
+        SqlQueryStep step = (SqlQueryStep) plan.steps().getFirst();
+        assertEquals("events_between", step.stepId());
+        assertEquals("cackle", step.sourceId());
+        assertEquals(Map.of(
+            "start", OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+            "end", OffsetDateTime.of(2024, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC)
+        ), step.params());
+    }
+
+    @Test
+    void regexTemplateMatchesAndUnconvertibleSlotsMiss() {
+        SqlQueryStep step = (SqlQueryStep) templates.match("show links for user \"u-42\"").orElseThrow().steps().getFirst();
+        assertEquals(Map.of("userId", "u-42"), step.params());
+
+        assertTrue(templates.match("events between last week and today").isEmpty());
+        assertTrue(templates.match("how many events did I have in 2024?").isEmpty());
+    }
+
+    @Test
+    void unmatchedOptionalGroupBindsNull() {
+        SqlQueryStep step = (SqlQueryStep) templates.match("links").orElseThrow().steps().getFirst();
+
+        assertTrue(step.params().containsKey("since"));
+        assertNull(step.params().get("since"));
+        assertEquals(
+            LocalDate.of(2024, 3, 1),
+            ((SqlQueryStep) templates.match("links since 2024-03-01").orElseThrow().steps().getFirst()).params().get("since")
+        );
+    }
+
+    @Test
+    void rejectsMisconfiguredTemplates() {
+        assertThrows(IllegalStateException.class, () -> new PlanTemplates(List.of(
+            template("both", "events on {day}", "events on (?<day>.+)", "select 1", Map.of())
+        )));
+        assertThrows(IllegalStateException.class, () -> new PlanTemplates(List.of(
+            template("unknown_slot", "events on {day}", null, "select 1", Map.of("date", "date"))
+        )));
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.anirudhk_tech.janus.agent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.anirudhk_tech.janus.agent.llm.LlmProperties;
+import io.github.anirudhk_tech.janus.agent.llm.OpenAiLlmClient;
+import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.github.anirudhk_tech.janus.plan.PlanStep;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingPlanParserTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void emitsEachStepWhenItsObjectCloses() {
+        List<String> emitted = new ArrayList<>();
+        StreamingPlanParser parser = new StreamingPlanParser(MAPPER, step -> emitted.add(step.stepId()));
+
+        parser.accept("```json\n{\"ste");
+        parser.accept("ps\":[{\"type\":\"sql\",\"stepId\":\"a\",\"connector\":\"supabase\",\"sourceId\":\"x\",");
+        parser.accept("\"sql\":\"select '}' as brace\",\"params\":{\"n\":{\"fromStep\":\"z\"}}}");
+        assertEquals(List.of("a"), emitted);
+
+        parser.accept(",{\"type\":\"sql\",\"stepId\":\"b\",\"connector\":\"supabase\",\"sourceId\":\"x\",\"sql\":\"select 2\"}");
+        assertEquals(List.of("a", "b"), emitted);
+
+        parser.accept("]}\n```");
+        ExecutionPlan plan = parser.plan();
+        assertEquals(2, plan.steps().size());
+        assertEquals("select '}' as brace", ((SqlQueryStep) plan.steps().get(0)).sql());
+    }
+
+    @Test
+    void rejectsTruncatedPlan() {
+        StreamingPlanParser parser = new StreamingPlanParser(MAPPER, step -> {});
+        parser.accept("{\"steps\":[");
+        assertThrows(IllegalArgumentException.class, parser::plan);
+    }
+
+    @Test
+    void openAiStreamDeliversFirstStepBeforeCompletionEnds() throws Exception {
+        CountDownLatch firstStepSeen = new CountDownLatch(1);
+        AtomicBoolean restSent = new AtomicBoolean();
+        AtomicBoolean firstStepBeforeRest = new AtomicBoolean();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                sendDelta(out, "{\"steps\":[{\"type\":\"sql\",\"stepId\":\"a\",\"connector\":\"supabase\",\"sourceId\":\"x\",\"sql\":\"select 1\"}");
+                // The rest of the plan is only written once the client has acted on the first step.
+                firstStepSeen.await(5, TimeUnit.SECONDS);
+                restSent.set(true);
+                sendDelta(out, ",{\"type\":\"sql\",\"stepId\":\"b\",\"connector\":\"supabase\",\"sourceId\":\"x\",\"sql\":\"select 2\"}]}");
+                out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+
+        try {
+            LlmProperties props = new LlmProperties();
+            props.getOpenai().setApiKey("test");
+            RestClient restClient = RestClient.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .build();
+            OpenAiLlmClient client = new OpenAiLlmClient(restClient, MAPPER, props);
+
+            List<PlanStep> steps = new ArrayList<>();
+            StreamingPlanParser parser = new StreamingPlanParser(MAPPER, step -> {
+                if (steps.isEmpty()) firstStepBeforeRest.set(!restSent.get());
+                steps.add(step);
+                firstStepSeen.countDown();
+            });
+            client.streamJson("system", "user", parser::accept);
+
+            assertTrue(firstStepBeforeRest.get());
+            assertEquals(List.of("a", "b"), steps.stream().map(PlanStep::stepId).toList());
+            assertEquals(2, parser.plan().steps().size());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static void sendDelta(OutputStream out, String content) throws IOException {
+        String event = "data: " + MAPPER.writeValueAsString(
+            Map.of("choices", List.of(Map.of("delta", Map.of("content", content))))
+        ) + "\n\n";
+        out.write(event.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+}
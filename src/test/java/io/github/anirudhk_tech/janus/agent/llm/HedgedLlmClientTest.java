@@ -0,0 +1,121 @@
+package io.github.anirudhk_tech.janus.agent.llm;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgedLlmClientTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private static LlmProvider provider(String name, Supplier<String> response) {
+        return new LlmProvider() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public String generateJson(String systemPrompt, String userPrompt) {
+                return response.get();
+            }
+        };
+    }
+
+    private HedgedLlmClient client(LlmProvider primary, LlmProvider backup) {
+        LlmProperties props = new LlmProperties();
+        props.setProvider(primary.name());
+        props.getHedge().setProviders(List.of(backup.name()));
+        props.getHedge().setInitialDelay(Duration.ofMillis(50));
+        return new HedgedLlmClient(List.of(primary, backup), props, new LlmScheduler(props, registry), registry);
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndCancelled() throws Exception {
+        CountDownLatch primaryCancelled = new CountDownLatch(1);
+        LlmProvider slow = provider("gemini", () -> {
+            try {
+                Thread.sleep(5_000);
+                return "{\"from\":\"gemini\"}";
+            } catch (InterruptedException e) {
+                primaryCancelled.countDown();
+                throw new IllegalStateException("cancelled", e);
+            }
+        });
+        LlmProvider fast = provider("openai", () -> "{\"from\":\"openai\"}");
+
+        String json = client(slow, fast).generateJson("s", "u");
+
+        assertEquals("{\"from\":\"openai\"}", json);
+        assertTrue(primaryCancelled.await(1, TimeUnit.SECONDS));
+        assertEquals(1.0, registry.get("janus.llm.hedge.won").tag("provider", "openai").counter().count());
+    }
+
+    @Test
+    void rejectedResponseFallsThroughToBackup_andAllRejectedRethrows() {
+        LlmProvider bad = provider("gemini", () -> "{\"steps\":[]}");
+        LlmProvider good = provider("openai", () -> "{\"steps\":[1]}");
+
+        String accepted = client(bad, good).generateJson("s", "u", json -> {
+            if (json.contains("[]")) throw new IllegalArgumentException("empty plan");
+            return json;
+        });
+        assertEquals("{\"steps\":[1]}", accepted);
+        assertEquals(1L, registry.get("janus.llm.request").tags("provider", "gemini", "outcome", "invalid").timer().count());
+
+        assertThrows(IllegalArgumentException.class, () -> client(bad, bad("openai")).generateJson("s", "u", json -> {
+            throw new IllegalArgumentException("never valid");
+        }));
+    }
+
+    @Test
+    void cancelledPrimaryStillFeedsTheHedgeDelay() throws Exception {
+        LlmProvider slow = provider("gemini", () -> {
+            try {
+                Thread.sleep(5_000);
+                return "{}";
+            } catch (InterruptedException e) {
+                throw new IllegalStateException("cancelled", e);
+            }
+        });
+        LlmProvider backup = provider("openai", () -> {
+            try {
+                Thread.sleep(100);
+                return "{}";
+            } catch (InterruptedException e) {
+                throw new IllegalStateException("cancelled", e);
+            }
+        });
+        LlmProperties props = new LlmProperties();
+        props.setProvider("gemini");
+        props.getHedge().setProviders(List.of("openai"));
+        props.getHedge().setInitialDelay(Duration.ofMillis(50));
+        props.getHedge().setMinSamples(1);
+        HedgedLlmClient client = new HedgedLlmClient(List.of(slow, backup), props, new LlmScheduler(props, registry), registry);
+
+        client.generateJson("s", "u");
+        // The cancelled primary records its sample on its own thread once interrupted.
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (client.hedgeDelay().equals(Duration.ofMillis(50)) && System.nanoTime() < until) Thread.sleep(5);
+
+        // The primary ran for the hedge delay plus the backup's 100ms before it was cancelled.
+        assertTrue(client.hedgeDelay().compareTo(Duration.ofMillis(100)) >= 0, client.hedgeDelay().toString());
+        client.destroy();
+    }
+
+    private static LlmProvider bad(String name) {
+        return provider(name, () -> {
+            throw new IllegalStateException("503");
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.anirudhk_tech.janus.agent.llm;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmSchedulerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private static long deadlineIn(Duration d) {
+        return System.nanoTime() + d.toNanos();
+    }
+
+    @Test
+    void throttledCallWaitsForRetryAfterThenSucceeds() {
+        LlmProperties props = new LlmProperties();
+        props.getScheduler().setInitialBackoff(Duration.ofMillis(10));
+        LlmScheduler scheduler = new LlmScheduler(props, registry);
+        AtomicInteger calls = new AtomicInteger();
+
+        long start = System.nanoTime();
+        String result = scheduler.call("openai", 10, deadlineIn(Duration.ofSeconds(5)), () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new LlmThrottledException("429", Duration.ofMillis(200), null);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, calls.get());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(1.0, registry.get("janus.llm.throttled").tag("provider", "openai").counter().count());
+    }
+
+    @Test
+    void retryAfterBeyondDeadlineIsRateLimited() {
+        LlmScheduler scheduler = new LlmScheduler(new LlmProperties(), registry);
+
+        LlmOverloadedException e = assertThrows(LlmOverloadedException.class, () ->
+            scheduler.call("openai", 10, deadlineIn(Duration.ofSeconds(1)), () -> {
+                throw new LlmThrottledException("429", Duration.ofSeconds(30), null);
+            })
+        );
+
+        assertTrue(e.isRateLimited());
+        assertTrue(e.retryAfter().compareTo(Duration.ofSeconds(30)) >= 0);
+    }
+
+    @Test
+    void emptyRequestBucketShedsWhenNoSlotBeforeDeadline() {
+        LlmProperties props = new LlmProperties();
+        props.getOpenai().getRateLimit().setRequestsPerMinute(1);
+        LlmScheduler scheduler = new LlmScheduler(props, registry);
+
+        assertEquals("first", scheduler.call("openai", 10, deadlineIn(Duration.ofSeconds(5)), () -> "first"));
+        LlmOverloadedException e = assertThrows(LlmOverloadedException.class, () ->
+            scheduler.call("openai", 10, deadlineIn(Duration.ofSeconds(5)), () -> "second")
+        );
+
+        assertFalse(e.isRateLimited());
+        assertEquals(1.0, registry.get("janus.llm.shed").tags("provider", "openai", "reason", "deadline").counter().count());
+        // Other providers have their own buckets.
+        assertEquals("gemini", scheduler.call("gemini", 10, deadlineIn(Duration.ofSeconds(5)), () -> "gemini"));
+    }
+
+    @Test
+    void fullQueueShedsImmediately() throws Exception {
+        LlmProperties props = new LlmProperties();
+        props.getScheduler().setMaxQueue(1);
+        LlmScheduler scheduler = new LlmScheduler(props, registry);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        try {
+            // A long pause keeps the first caller parked in the queue.
+            CountDownLatch throttled = new CountDownLatch(1);
+            AtomicInteger calls = new AtomicInteger();
+            Future<String> queued = executor.submit(() -> scheduler.call("openai", 10, deadlineIn(Duration.ofSeconds(30)), () -> {
+                if (calls.incrementAndGet() == 1) {
+                    throttled.countDown();
+                    throw new LlmThrottledException("503", Duration.ofSeconds(1), null);
+                }
+                return "late";
+            }));
+            assertTrue(throttled.await(1, TimeUnit.SECONDS));
+            Thread.sleep(100);
+
+            LlmOverloadedException e = assertThrows(LlmOverloadedException.class, () ->
+                scheduler.call("openai", 10, deadlineIn(Duration.ofSeconds(30)), () -> "rejected")
+            );
+            assertFalse(e.isRateLimited());
+            assertEquals(1.0, registry.get("janus.llm.shed").tags("provider", "openai", "reason", "queue_full").counter().count());
+            assertEquals("late", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
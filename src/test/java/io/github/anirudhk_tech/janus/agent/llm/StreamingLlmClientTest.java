@@ -0,0 +1,135 @@
+package io.github.anirudhk_tech.janus.agent.llm;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Streams planner output from a stub HTTP server speaking each provider's {@code text/event-stream}.
+ */
+class StreamingLlmClientTest {
+
+    private HttpServer server;
+    private RestClient restClient;
+    private final AtomicReference<String> requestPath = new AtomicReference<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.start();
+        restClient = RestClient.builder().baseUrl("http://127.0.0.1:" + server.getAddress().getPort()).build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    /**
+     * Answers every request with {@code status} and the given events, flushed one at a time.
+     */
+    private void respond(int status, String retryAfter, String... events) {
+        server.createContext("/", exchange -> {
+            requestPath.set(exchange.getRequestURI().toString());
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            if (retryAfter != null) exchange.getResponseHeaders().set("Retry-After", retryAfter);
+            exchange.sendResponseHeaders(status, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (String event : events) {
+                    out.write(event.getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            }
+            exchange.close();
+        });
+    }
+
+    private static LlmProperties props() {
+        LlmProperties props = new LlmProperties();
+        props.getOpenai().setApiKey("test-key");
+        props.getGemini().setApiKey("test-key");
+        return props;
+    }
+
+    @Test
+    void openAiStreamsDeltasUntilDone() {
+        respond(200, null,
+            ": keep-alive\n\n",
+            "data: {\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}\n\n",
+            "data: {\"choices\":[{\"delta\":{\"content\":\"{\\\"steps\\\":\"}}]}\n\n",
+            "data: {\"choices\":[{\"delta\":{\"content\":\"[]}\"}}]}\n\n",
+            "data: [DONE]\n\n",
+            "data: not json, never read\n\n"
+        );
+        List<String> chunks = new ArrayList<>();
+
+        new OpenAiLlmClient(restClient, new ObjectMapper(), props()).streamJson("system", "user", chunks::add);
+
+        assertEquals(List.of("{\"steps\":", "[]}"), chunks);
+        assertEquals("/v1/chat/completions", requestPath.get());
+    }
+
+    @Test
+    void geminiStreamsCandidateText() {
+        respond(200, null,
+            "data: {\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"{\\\"steps\\\"\"}]}}]}\r\n\r\n",
+            "data: {\"candidates\":[{\"content\":{\"parts\":[{\"text\":\":[]}\"}]}}]}\r\n\r\n"
+        );
+        List<String> chunks = new ArrayList<>();
+
+        new GeminiLlmClient(restClient, new ObjectMapper(), props()).streamJson("system", "user", chunks::add);
+
+        assertEquals(List.of("{\"steps\"", ":[]}"), chunks);
+        assertTrue(requestPath.get().endsWith(":streamGenerateContent?alt=sse"));
+    }
+
+    @Test
+    void throttledStreamCarriesRetryAfter() {
+        respond(429, "7");
+
+        LlmThrottledException e = assertThrows(LlmThrottledException.class, () ->
+            new OpenAiLlmClient(restClient, new ObjectMapper(), props()).streamJson("system", "user", chunk -> {})
+        );
+
+        assertEquals(Duration.ofSeconds(7), e.retryAfter().orElseThrow());
+    }
+
+    @Test
+    void serverSentEventsJoinMultiLineDataAndSkipOtherFields() throws IOException {
+        String stream = "event: message\nid: 1\ndata: first\ndata:second\n\n: comment\n\ndata: last";
+        List<String> data = new ArrayList<>();
+
+        ServerSentEvents.read(new ByteArrayInputStream(stream.getBytes(StandardCharsets.UTF_8)), d -> data.add(d));
+
+        assertEquals(List.of("first\nsecond", "last"), data);
+    }
+
+    @Test
+    void serverSentEventsStopWhenTheHandlerSaysSo() throws IOException {
+        String stream = "data: a\n\ndata: b\n\ndata: c\n\n";
+        List<String> data = new ArrayList<>();
+
+        ServerSentEvents.read(new ByteArrayInputStream(stream.getBytes(StandardCharsets.UTF_8)), d -> data.add(d) && !d.equals("b"));
+
+        assertEquals(List.of("a", "b"), data);
+    }
+}
@@ -1,8 +1,10 @@
 package io.github.anirudhk_tech.janus.api;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import io.github.anirudhk_tech.janus.TestSupportConfig;
 
@@ -32,12 +35,16 @@ class QueryControllerSqlOutputTest {
 
     @Test
     void sqlOutputEnabled_returnsPlainTextTable() throws Exception {
-        mvc.perform(
+        MvcResult streaming = mvc.perform(
             post("/query")
                 .header("X-API-Key", "test-key")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"question\":\"hello\"}")
         )
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mvc.perform(asyncDispatch(streaming))
             .andExpect(status().isOk())
             .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
             .andExpect(content().string(containsString("traceId:")))
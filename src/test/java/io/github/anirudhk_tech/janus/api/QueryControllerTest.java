@@ -8,11 +8,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import io.github.anirudhk_tech.janus.TestSupportConfig;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(properties = {
@@ -80,4 +85,25 @@ class QueryControllerTest {
             .andExpect(jsonPath("$.data.sources.postgres.step_test_sql.rows[0].ok").value(1))
             .andExpect(jsonPath("$.data.merged.rows[0].ok").value(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void acceptCsv_streamsStepRowsInsteadOfJson() throws Exception {
+        MvcResult streaming = mvc.perform(
+            post("/query")
+                .header("X-API-Key", "test-key")
+                .accept("text/csv")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"question\":\"hello\"}")
+        )
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mvc.perform(asyncDispatch(streaming))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(header().string("X-Janus-Status", "executed"))
+            .andExpect(header().doesNotExist("X-Janus-Failed-Steps"))
+            .andExpect(header().doesNotExist("X-Janus-Truncated-Steps"))
+            .andExpect(content().string("step_id,ok\r\nstep_test_sql,1\r\n"));
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.anirudhk_tech.janus.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.api.QueryResponse;
+import io.github.anirudhk_tech.janus.connectors.ColumnarRows;
+import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
+import io.github.anirudhk_tech.janus.federation.StepExecutionStatus;
+import io.github.anirudhk_tech.janus.output.ArrowStreamResultWriter;
+import io.github.anirudhk_tech.janus.output.CsvResultWriter;
+import io.github.anirudhk_tech.janus.output.NdjsonResultWriter;
+import io.github.anirudhk_tech.janus.output.ResultWriter;
+
+/**
+ * Client-side cost of each /query output format: parse time per payload, with the bytes on the
+ * wire printed at setup. Each benchmark sums the {@code score} column so every format is fully
+ * decoded. The JSON baseline is the default {@link QueryResponse} with the rows under
+ * {@code data.merged.rows}.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java --add-opens=java.base/java.nio=ALL-UNNAMED \
+ *   -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *   org.openjdk.jmh.Main OutputFormatBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.nio=ALL-UNNAMED")
+public class OutputFormatBenchmark {
+
+    @Param({"50000"})
+    int rows;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] json;
+    private byte[] ndjson;
+    private byte[] csv;
+    private byte[] arrow;
+
+    @Setup
+    public void setup() throws IOException {
+        ColumnarRows.Builder b = ColumnarRows.builder(
+            List.of("id", "user_id", "name", "score", "active"),
+            List.of(ColumnarRows.Kind.INT, ColumnarRows.Kind.LONG, ColumnarRows.Kind.STRING, ColumnarRows.Kind.DOUBLE, ColumnarRows.Kind.BOOLEAN)
+        );
+        for (int i = 0; i < rows; i++) {
+            b.set(0, i).set(1, 1_000_000_000L + i % 977).set(2, "user-" + (i % 500)).set(3, i * 0.25).set(4, i % 3 == 0).endRow();
+        }
+        ColumnarRows data = b.build();
+        List<StepExecutionResult> execution = List.of(
+            new StepExecutionResult("s1", "postgres", StepExecutionStatus.SUCCESS, 1, Map.of("rows", data), null)
+        );
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("merged", Map.of("rows", data));
+        json = mapper.writeValueAsBytes(new QueryResponse("trace", "executed", body, null));
+        ndjson = written(new NdjsonResultWriter(mapper), execution);
+        csv = written(new CsvResultWriter(), execution);
+        arrow = written(new ArrowStreamResultWriter(), execution);
+
+        System.out.printf("%nbytes on the wire (%d rows): json=%d ndjson=%d csv=%d arrow=%d%n",
+            rows, json.length, ndjson.length, csv.length, arrow.length);
+    }
+
+    private static byte[] written(ResultWriter writer, List<StepExecutionResult> execution) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(execution, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public double json() throws IOException {
+        double sum = 0;
+        for (JsonNode row : mapper.readTree(json).path("data").path("merged").path("rows")) {
+            sum += row.path("score").asDouble();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double ndjson() throws IOException {
+        double sum = 0;
+        try (MappingIterator<JsonNode> it = mapper.readerFor(JsonNode.class).readValues(ndjson)) {
+            while (it.hasNext()) {
+                sum += it.next().path("score").asDouble();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double csv() {
+        double sum = 0;
+        String text = new String(csv, StandardCharsets.UTF_8);
+        int line = text.indexOf("\r\n") + 2;
+        while (line < text.length()) {
+            int end = text.indexOf("\r\n", line);
+            String[] fields = text.substring(line, end).split(",", -1);
+            sum += Double.parseDouble(fields[4]);
+            line = end + 2;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double arrow() throws IOException {
+        double sum = 0;
+        try (RootAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(arrow), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                Float8Vector score = (Float8Vector) root.getVector("score");
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    sum += score.get(i);
+                }
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.anirudhk_tech.janus.bench;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.anirudhk_tech.janus.capabilities.sql.SqlStatement;
+
+/**
+ * Throughput of the guardrail's SQL analysis: the token-based {@link SqlStatement} pass against
+ * the regex chain it replaced (comment stripping, keyword scan, FROM/JOIN extraction and the
+ * {@code SELECT *} rewrite), on typical planner SQL. Schema lookups are left out; both sides
+ * expand {@code *} to the same fixed column list.
+ *
+ * <p>Run with:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *   org.openjdk.jmh.Main SqlGuardrailBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlGuardrailBenchmark {
+
+    private static final List<String> COLUMNS = List.of("id", "user_id", "title", "start_time", "end_time", "provider");
+
+    @Param({"star", "join", "commented"})
+    String shape;
+
+    private String sql;
+
+    @Setup
+    public void setup() {
+        sql = switch (shape) {
+            case "star" -> "select * from public.calendar_events where user_id = :userId and start_time >= '2024-01-01' order by start_time limit 50;";
+            case "join" -> "select e.id, e.title, l.url from calendar_events e join links l on l.event_id = e.id "
+                + "where e.provider = 'google' and extract(year from e.start_time) = 2024 and l.user_id in (select id from users where plan = 'pro')";
+            default -> "-- events for the dashboard\nselect e.* /* all columns */ from calendar_events e\n"
+                + "where e.title not like '%standup%' -- skip recurring\n  and e.user_id = :userId;";
+        };
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole bh) {
+        SqlStatement statement = SqlStatement.parse(sql);
+        bh.consume(statement.multiStatement());
+        bh.consume(statement.forbiddenKeyword());
+        Set<String> tables = statement.tableNames();
+        bh.consume(tables);
+
+        SqlStatement.SelectList list = statement.selectList();
+        if (list != null && list.star() && tables.size() == 1 && !statement.hasJoin()) {
+            String prefix = list.qualifier();
+            StringBuilder cols = new StringBuilder();
+            for (String c : COLUMNS) {
+                if (!cols.isEmpty()) cols.append(", ");
+                if (prefix != null) cols.append(prefix).append('.');
+                cols.append(c);
+            }
+            String s = statement.sql();
+            bh.consume(s.substring(0, list.start()) + cols + s.substring(list.end()));
+        } else {
+            bh.consume(statement.sql());
+        }
+    }
+
+    @Benchmark
+    public void regex(Blackhole bh) {
+        bh.consume(RegexGuardrail.analyze(sql));
+    }
+
+    /**
+     * The pre-tokenizer guardrail analysis, kept verbatim (minus schema lookups) as the baseline.
+     */
+    static final class RegexGuardrail {
+
+        private static final Pattern FORBIDDEN =
+            Pattern.compile("(?i)\\b(insert|update|delete|drop|alter|create|grant|revoke|truncate|call|do|copy|execute|merge)\\b");
+
+        private static final Pattern TABLE_REF =
+            Pattern.compile("(?i)\\b(from|join)\\s+([a-zA-Z0-9_\\.\\\"]+)");
+
+        private static final Pattern SELECT_LIST =
+            Pattern.compile("(?is)^\\s*select\\s+(.*?)\\s+from\\s+");
+
+        private static final Pattern FROM_ONE_TABLE =
+            Pattern.compile("(?is)\\bfrom\\s+([a-zA-Z0-9_\\.\\\"]+)\\s*(?:as\\s+)?([a-zA-Z0-9_\\\"]+)?");
+
+        private static final Pattern REWRITE_STAR =
+            Pattern.compile("(?is)^(\\s*select\\s+)(\\*|[a-zA-Z0-9_\\\"]+\\s*\\.\\s*\\*)(\\s+from\\s+)");
+
+        static String analyze(String input) {
+            String sql = stripComments(input).trim();
+            while (sql.endsWith(";")) {
+                sql = sql.substring(0, sql.length() - 1).trim();
+            }
+            if (sql.contains(";")) return "multi";
+
+            String lower = sql.toLowerCase(Locale.ROOT).trim();
+            if (!lower.startsWith("select")) return "not_select";
+            if (FORBIDDEN.matcher(sql).find()) return "forbidden";
+
+            Set<String> tables = extractTables(sql);
+            return rewriteSelectStar(sql, tables);
+        }
+
+        private static String rewriteSelectStar(String sql, Set<String> tables) {
+            Matcher listM = SELECT_LIST.matcher(sql);
+            if (!listM.find()) return sql;
+
+            String selectList = listM.group(1).trim();
+            boolean isStarOnly = "*".equals(selectList);
+            boolean isAliasStarOnly = selectList.matches("(?is)^[a-zA-Z0-9_\\\"]+\\s*\\.\\s*\\*$");
+            if (!isStarOnly && !isAliasStarOnly) return sql;
+            if (tables.size() != 1) return "star_multi_table";
+
+            String lower = sql.toLowerCase(Locale.ROOT);
+            if (lower.contains(" join ")) return "star_join";
+
+            Matcher fromM = FROM_ONE_TABLE.matcher(sql);
+            if (!fromM.find()) return sql;
+
+            String prefix = isAliasStarOnly ? selectList.split("\\.")[0].trim().replace("\"", "") : null;
+            StringBuilder cols = new StringBuilder();
+            for (String c : COLUMNS) {
+                if (!cols.isEmpty()) cols.append(", ");
+                if (prefix != null) cols.append(prefix).append('.');
+                cols.append(c);
+            }
+
+            Matcher rw = REWRITE_STAR.matcher(sql);
+            if (!rw.find()) return sql;
+            return rw.replaceFirst("$1" + Matcher.quoteReplacement(cols.toString()) + "$3");
+        }
+
+        private static Set<String> extractTables(String sql) {
+            Matcher m = TABLE_REF.matcher(stripComments(sql));
+            Set<String> out = new LinkedHashSet<>();
+            while (m.find()) {
+                String x = m.group(2).trim().replace("\"", "");
+                int dot = x.indexOf('.');
+                out.add(dot >= 0 ? x.substring(dot + 1) : x);
+            }
+            return out;
+        }
+
+        private static String stripComments(String sql) {
+            return sql.replaceAll("(?s)/\\*.*?\\*/", " ").replaceAll("(?m)--.*?$", " ");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.anirudhk_tech.janus.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void entriesWithTtlExpire_othersDoNot() {
+        AtomicLong now = new AtomicLong();
+        LruCache<String, String> cache = new LruCache<>(10, now::get);
+        cache.put("short", "S", Duration.ofSeconds(1));
+        cache.put("forever", "F");
+
+        now.set(Duration.ofMillis(999).toNanos());
+        assertEquals("S", cache.get("short"));
+
+        now.set(Duration.ofSeconds(1).toNanos());
+        assertNull(cache.get("short"));
+        assertEquals("F", cache.get("forever"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void putReturnsTheLiveValueItReplaced() {
+        AtomicLong now = new AtomicLong();
+        LruCache<String, String> cache = new LruCache<>(10, now::get);
+
+        assertNull(cache.put("a", "A1", Duration.ofSeconds(1)));
+        assertEquals("A1", cache.put("a", "A2", Duration.ofSeconds(1)));
+        now.set(Duration.ofSeconds(2).toNanos());
+        assertNull(cache.put("a", "A3"));
+    }
+
+    @Test
+    void zeroCapacityStoresNothing() {
+        LruCache<String, String> cache = new LruCache<>(0);
+        cache.put("a", "A");
+
+        assertNull(cache.get("a"));
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.anirudhk_tech.janus.capabilities;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.capabilities.sql.SqlSchemaService;
+import io.github.anirudhk_tech.janus.connectors.DataSourceRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CapabilitiesPromptTest {
+
+    private static Map<String, Object> column(String name) {
+        return Map.of("table_name", "links", "column_name", name, "data_type", "text", "is_nullable", "NO");
+    }
+
+    @Test
+    void reusesSerializedJsonUntilARefreshChangesTheSchema() {
+        CapabilitiesProperties props = new CapabilitiesProperties(List.of(
+            new CapabilitiesProperties.Source("cackle", "supabase", "Link saver", new CapabilitiesProperties.SqlHints("public", List.of("links")))
+        ), null, null, null);
+        AtomicReference<List<Map<String, Object>>> columns = new AtomicReference<>(List.of(column("url")));
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        when(jdbc.queryForList(anyString(), anyMap())).thenAnswer(invocation -> columns.get());
+        DataSourceRegistry dataSources = mock(DataSourceRegistry.class);
+        when(dataSources.templateFor("supabase", "cackle")).thenReturn(jdbc);
+        SqlSchemaService schemas = new SqlSchemaService(props, dataSources);
+        CapabilitiesPrompt prompt = new CapabilitiesPrompt(new CapabilitiesService(props), schemas, new ObjectMapper());
+
+        CapabilitiesPrompt.Snapshot first = prompt.current();
+        assertEquals(
+            "{\"sources\":[{\"sourceId\":\"cackle\",\"connector\":\"supabase\",\"description\":\"Link saver\","
+                + "\"sql\":{\"schema\":\"public\",\"tables\":[{\"name\":\"links\",\"columns\":[{\"name\":\"url\",\"type\":\"text\",\"nullable\":false}]}]}}]}",
+            first.json()
+        );
+        assertEquals(1, first.version());
+        assertSame(first, prompt.current());
+
+        // A refresh that finds the same schema leaves the version, and so the snapshot, alone.
+        assertFalse(schemas.refresh("supabase", "cackle"));
+        assertSame(first, prompt.current());
+
+        columns.set(List.of(column("url"), column("title")));
+        assertTrue(schemas.refresh("supabase", "cackle"));
+        CapabilitiesPrompt.Snapshot second = prompt.current();
+
+        assertEquals(2, second.version());
+        assertTrue(second.json().contains("\"title\""));
+        assertNotEquals(first.hash(), second.hash());
+        assertSame(second, prompt.current());
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.anirudhk_tech.janus.capabilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaIndexTest {
+
+    private static SchemaIndex.Table table(String name, String... columns) {
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < 3; i++) terms.addAll(SchemaIndex.terms(name));
+        for (String c : columns) terms.addAll(SchemaIndex.terms(c));
+        return new SchemaIndex.Table(name, "{\"name\":\"" + name + "\"}", terms);
+    }
+
+    private static final SchemaIndex INDEX = new SchemaIndex(List.of(
+        new SchemaIndex.Source("supabase", "cackle", "{\"sourceId\":\"cackle\",\"sql\":{\"tables\":[", "]}}", List.of(), List.of(
+            table("links", "id", "url", "createdAt"),
+            table("link_tags", "link_id", "tag"),
+            table("users", "id", "email")
+        )),
+        new SchemaIndex.Source("supabase", "billing", "{\"sourceId\":\"billing\",\"sql\":{\"tables\":[", "]}}", List.of(), List.of(
+            table("invoices", "id", "user_id", "amount_cents"),
+            table("payments", "id", "invoice_id", "paidAt")
+        ))
+    ));
+
+    @Test
+    void keepsTopTablesButEverySource() {
+        SchemaIndex.Selection selection = INDEX.select("How many tags are on my links?", 2);
+
+        assertTrue(selection.isPruned());
+        assertEquals(2, selection.tables());
+        assertTrue(selection.includes("supabase", "cackle", "LINK_TAGS"));
+        assertFalse(selection.includes("supabase", "cackle", "users"));
+        assertFalse(selection.includes("supabase", "billing", "links"));
+        assertEquals(
+            "{\"sources\":[{\"sourceId\":\"cackle\",\"sql\":{\"tables\":[{\"name\":\"links\"},{\"name\":\"link_tags\"}]}},"
+                + "{\"sourceId\":\"billing\",\"sql\":{\"tables\":[]}}]}",
+            selection.json()
+        );
+    }
+
+    @Test
+    void sourceDescriptionIsIndexedOnceAndWeightedBelowTableNames() {
+        SchemaIndex index = new SchemaIndex(List.of(
+            new SchemaIndex.Source("supabase", "ledger", "{\"sourceId\":\"ledger\",\"sql\":{\"tables\":[", "]}}",
+                SchemaIndex.terms("Payments, refunds and payment disputes"), List.of(
+                table("accounts", "id", "owner"),
+                table("entries", "id", "account_id", "amount")
+            )),
+            new SchemaIndex.Source("supabase", "billing", "{\"sourceId\":\"billing\",\"sql\":{\"tables\":[", "]}}", List.of(), List.of(
+                table("payments", "id", "invoice_id"),
+                table("invoices", "id", "amount_cents")
+            ))
+        ));
+
+        double[] scores = index.score("payments");
+
+        // The description repeats the term, but only the billing table is named for it.
+        assertTrue(scores[2] > scores[0]);
+        assertEquals(scores[0], scores[1]);
+        assertEquals(0.0, scores[3]);
+        // A description match still ranks its source's tables ahead of unrelated ones.
+        assertTrue(index.select("refunds", 2).includes("supabase", "ledger", "accounts"));
+        assertFalse(index.select("refunds", 2).includes("supabase", "billing", "payments"));
+    }
+
+    @Test
+    void fallsBackToFullSchemaWhenNothingMatches() {
+        SchemaIndex.Selection selection = INDEX.select("what happened yesterday", 2);
+
+        assertFalse(selection.isPruned());
+        assertTrue(selection.includes("supabase", "billing", "anything"));
+        assertEquals(INDEX.render(), selection.json());
+        assertEquals(List.of("link", "tag", "created", "at"), SchemaIndex.terms("link_tags createdAt"));
+    }
+}
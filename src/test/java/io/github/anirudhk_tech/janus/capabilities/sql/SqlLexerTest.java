@@ -0,0 +1,34 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SqlLexerTest {
+
+    @Test
+    void normalizeFoldsFormattingButKeepsQuotedText() {
+        assertEquals(
+            "select id , \"Name\" from links where url = 'A  B' and owner = :Owner",
+            SqlLexer.normalize("SELECT  id,\n  \"Name\"\tFROM Links WHERE url = 'A  B' AND owner = :Owner")
+        );
+        assertEquals(SqlLexer.normalize("select count(*) from links"), SqlLexer.normalize("select count( * )\nfrom LINKS"));
+        assertNotEquals(SqlLexer.normalize("select 'a' from links"), SqlLexer.normalize("select 'A' from links"));
+    }
+
+    @Test
+    void normalizeIsNotFooledByApostrophesInCommentsOrIdentifiers() {
+        // A character-level quote tracker would treat the rest of each statement as one string.
+        assertEquals(
+            "select id from links -- don't cache this\n where owner = 'x'",
+            SqlLexer.normalize("SELECT id FROM links -- don't cache this\nWHERE owner = 'x'")
+        );
+        assertEquals(
+            "select \"o'brien\" from links where owner = 'x'",
+            SqlLexer.normalize("SELECT \"o'brien\" FROM LINKS WHERE owner = 'x'")
+        );
+        assertEquals("select e'it\\'s' from links", SqlLexer.normalize("SELECT e'it\\'s' FROM Links"));
+        assertNotEquals(SqlLexer.normalize("select 1 -- x\nfrom links"), SqlLexer.normalize("select 1 -- x from links"));
+    }
+}
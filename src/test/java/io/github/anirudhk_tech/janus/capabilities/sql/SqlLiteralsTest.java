@@ -0,0 +1,46 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SqlLiteralsTest {
+
+    @Test
+    void liftsPredicateLiteralsOnly() {
+        SqlLiterals.Lifted lifted = SqlLiterals.lift(
+            "select id, 'x' as tag from events e join links l on l.event_id = e.id and l.kind = 'it''s' "
+                + "where e.owner = :owner and e.score > 1.5 and e.day = date '2024-01-01' and e.id in (3, 4000000000) "
+                + "and e.title::varchar(20) like '%--%' group by 1 order by 2 desc limit 10",
+            Map.of("owner", "u1", "lit_0", "taken")
+        );
+
+        assertEquals(
+            "select id, 'x' as tag from events e join links l on l.event_id = e.id and l.kind = :lit_1 "
+                + "where e.owner = :owner and e.score > :lit_2 and e.day = date '2024-01-01' and e.id in (:lit_3, :lit_4) "
+                + "and e.title::varchar(20) like :lit_5 group by 1 order by 2 desc limit :lit_6",
+            lifted.sql()
+        );
+        assertEquals("it's", lifted.params().get("lit_1"));
+        assertEquals(new BigDecimal("1.5"), lifted.params().get("lit_2"));
+        assertEquals(3, lifted.params().get("lit_3"));
+        assertEquals(4_000_000_000L, lifted.params().get("lit_4"));
+        assertEquals("%--%", lifted.params().get("lit_5"));
+        assertEquals(10, lifted.params().get("lit_6"));
+        assertEquals("taken", lifted.params().get("lit_0"));
+    }
+
+    @Test
+    void sameShapeWithDifferentConstantsGivesSameText() {
+        String a = SqlLiterals.lift("select id from links where user_id = 42 /* 7 */", Map.of()).sql();
+        String b = SqlLiterals.lift("select id from links where user_id = 7 /* 7 */", Map.of()).sql();
+        assertEquals(a, b);
+
+        Map<String, Object> params = Map.of("ids", "x");
+        assertSame(params, SqlLiterals.lift("select id from links where id in (:ids)", params).params());
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SqlRowLimitTest {
+
+    private static String limit(String sql, int maxRows) {
+        return SqlRowLimit.apply(SqlStatement.parse(sql), maxRows);
+    }
+
+    @Test
+    void appendsLimitAfterOrderByAndIgnoresNestedLimits() {
+        assertEquals(
+            "select id from events order by starts_at desc limit 101",
+            limit("select id from events order by starts_at desc; -- newest first", 100)
+        );
+        assertEquals(
+            "select id from (select id from events limit 5) e union select id from links limit 101",
+            limit("select id from (select id from events limit 5) e union select id from links", 100)
+        );
+    }
+
+    @Test
+    void insertsLimitAheadOfLockingClause() {
+        assertEquals(
+            "select id from events where id = 1 limit 101 for share",
+            limit("select id from events where id = 1 for share", 100)
+        );
+        assertEquals(
+            "select id from events order by id limit 101 for key share of events nowait",
+            limit("select id from events order by id for key share of events nowait", 100)
+        );
+        assertEquals(
+            "select id from events for share limit 101",
+            limit("select id from events for share limit 5000", 100)
+        );
+    }
+
+    @Test
+    void tightensOnlyLimitsAboveTheBudget() {
+        assertEquals("select id from events limit 101 offset 20", limit("select id from events limit 5000 offset 20", 100));
+        assertEquals("select id from events limit 101", limit("select id from events limit all", 100));
+        assertEquals(
+            "select id from events order by id fetch first 101 rows only",
+            limit("select id from events order by id fetch first 500 rows only", 100)
+        );
+
+        SqlStatement small = SqlStatement.parse("select id from events limit 10");
+        assertSame(small.sql(), SqlRowLimit.apply(small, 100));
+        SqlStatement param = SqlStatement.parse("select id from events limit :n");
+        assertSame(param.sql(), SqlRowLimit.apply(param, 100));
+        SqlStatement fetchOne = SqlStatement.parse("select id from events fetch first row only");
+        assertSame(fetchOne.sql(), SqlRowLimit.apply(fetchOne, 100));
+    }
+}
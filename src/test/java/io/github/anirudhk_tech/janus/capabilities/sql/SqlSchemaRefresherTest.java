@@ -0,0 +1,174 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.capabilities.CapabilitiesProperties;
+import io.github.anirudhk_tech.janus.connectors.ConnectorException;
+import io.github.anirudhk_tech.janus.connectors.ConnectorProperties;
+import io.github.anirudhk_tech.janus.connectors.DataSourceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlSchemaRefresherTest {
+
+    private static final SqlSchema LINKS = new SqlSchema("public", List.of(new SqlTable("links", List.of(new SqlColumn("url", "text", false)))));
+    private static final SqlSchema EVENTS = new SqlSchema("public", List.of(new SqlTable("events", List.of(new SqlColumn("day", "date", true)))));
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DataSourceRegistry dataSources = mock(DataSourceRegistry.class);
+
+    /**
+     * Two sources, {@code cackle} (links) and {@code cal} (events), refreshed only at startup.
+     */
+    private CapabilitiesProperties capabilities(Path snapshot) {
+        return new CapabilitiesProperties(List.of(
+            new CapabilitiesProperties.Source("cackle", "supabase", "Links", new CapabilitiesProperties.SqlHints("public", List.of("links"))),
+            new CapabilitiesProperties.Source("cal", "supabase", "Calendar", new CapabilitiesProperties.SqlHints("public", List.of("events")))
+        ), Duration.ZERO, Duration.ofSeconds(10), snapshot);
+    }
+
+    private void source(String sourceId, NamedParameterJdbcTemplate jdbc) {
+        when(dataSources.resolveSource("supabase", sourceId))
+            .thenReturn(new ConnectorProperties.JbdcSource("postgresql://h/db", "u", "p", null, null, null, null, null));
+        when(dataSources.templateFor("supabase", sourceId)).thenReturn(jdbc);
+    }
+
+    private static NamedParameterJdbcTemplate introspects(String table, String column, String type, String nullable) {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        when(jdbc.queryForList(anyString(), anyMap())).thenReturn(List.of(
+            Map.of("table_name", table, "column_name", column, "data_type", type, "is_nullable", nullable)
+        ));
+        return jdbc;
+    }
+
+    private static NamedParameterJdbcTemplate fails() {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        when(jdbc.queryForList(anyString(), anyMap())).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        return jdbc;
+    }
+
+    private double refreshes(String sourceId, String result) {
+        return registry.counter("janus.sql.schema.refresh", "source", sourceId, "result", result).count();
+    }
+
+    @Test
+    void snapshotWrittenAfterAPassIsRestoredOnTheNextStart() {
+        Path snapshot = dir.resolve("schemas.json");
+        source("cackle", introspects("links", "url", "text", "NO"));
+        source("cal", introspects("events", "day", "date", "YES"));
+        SqlSchemaService first = new SqlSchemaService(capabilities(snapshot), dataSources);
+        SqlSchemaRefresher refresher = new SqlSchemaRefresher(first, capabilities(snapshot), dataSources, new ObjectMapper(), registry);
+        refresher.start();
+        refresher.stop();
+        assertTrue(Files.isRegularFile(snapshot));
+
+        // Both sources are down now: only the snapshot can answer.
+        source("cackle", fails());
+        source("cal", fails());
+        SqlSchemaService second = new SqlSchemaService(capabilities(snapshot), dataSources);
+        SqlSchemaRefresher restarted = new SqlSchemaRefresher(second, capabilities(snapshot), dataSources, new ObjectMapper(), registry);
+        try {
+            restarted.start();
+
+            assertEquals(LINKS, second.describe("supabase", "cackle"));
+            assertEquals(EVENTS, second.describe("supabase", "cal"));
+            assertEquals(first.schemas(), second.schemas());
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void refreshesSourcesInParallelAndAFailureOnlyAffectsItsSource() throws Exception {
+        // Each source's introspection waits for the other one to start: a sequential pass would stall.
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        NamedParameterJdbcTemplate cackle = mock(NamedParameterJdbcTemplate.class);
+        when(cackle.queryForList(anyString(), anyMap())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return List.of(Map.of("table_name", "links", "column_name", "url", "data_type", "text", "is_nullable", "NO"));
+        });
+        NamedParameterJdbcTemplate cal = mock(NamedParameterJdbcTemplate.class);
+        when(cal.queryForList(anyString(), anyMap())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            throw new DataAccessResourceFailureException("connection refused");
+        });
+        source("cackle", cackle);
+        source("cal", cal);
+
+        Path snapshot = dir.resolve("schemas.json");
+        SqlSchemaService schemas = new SqlSchemaService(capabilities(snapshot), dataSources);
+        SqlSchemaRefresher refresher = new SqlSchemaRefresher(schemas, capabilities(snapshot), dataSources, new ObjectMapper(), registry);
+        long started = System.nanoTime();
+        try {
+            refresher.start();
+        } finally {
+            refresher.stop();
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started) < 5);
+        assertEquals(1.0, refreshes("cackle", "changed"));
+        assertEquals(1.0, refreshes("cal", "error"));
+        assertEquals(Map.of("supabase:cackle:public:links", LINKS), schemas.schemas());
+        assertTrue(Files.readString(snapshot).contains("\"links\""));
+        assertThrows(DataAccessResourceFailureException.class, () -> schemas.describe("supabase", "cal"));
+    }
+
+    @Test
+    void sourceMissingAfterStartupFailsFastAndLoadsInTheBackground() throws Exception {
+        AtomicBoolean reachable = new AtomicBoolean(false);
+        CountDownLatch introspecting = new CountDownLatch(1);
+        NamedParameterJdbcTemplate cackle = mock(NamedParameterJdbcTemplate.class);
+        when(cackle.queryForList(anyString(), anyMap())).thenAnswer(invocation -> {
+            if (!reachable.get()) throw new DataAccessResourceFailureException("connection refused");
+            introspecting.countDown();
+            return List.of(Map.of("table_name", "links", "column_name", "url", "data_type", "text", "is_nullable", "NO"));
+        });
+        source("cackle", cackle);
+        source("cal", introspects("events", "day", "date", "YES"));
+
+        SqlSchemaService schemas = new SqlSchemaService(capabilities(null), dataSources);
+        SqlSchemaRefresher refresher = new SqlSchemaRefresher(schemas, capabilities(null), dataSources, new ObjectMapper(), registry);
+        try {
+            refresher.start();
+            assertEquals(1.0, refreshes("cackle", "error"));
+            reachable.set(true);
+
+            ConnectorException e = assertThrows(ConnectorException.class, () -> schemas.describe("supabase", "cackle"));
+            assertTrue(e.getMessage().startsWith("Schema not loaded yet"), e.getMessage());
+
+            assertTrue(introspecting.await(5, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (refreshes("cackle", "changed") < 1 && System.nanoTime() < deadline) Thread.sleep(10);
+            assertEquals(LINKS, schemas.describe("supabase", "cackle"));
+            assertEquals(EVENTS, schemas.describe("supabase", "cal"));
+        } finally {
+            refresher.stop();
+        }
+    }
+}
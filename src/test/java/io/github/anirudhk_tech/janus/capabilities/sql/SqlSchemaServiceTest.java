@@ -0,0 +1,181 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.capabilities.CapabilitiesProperties;
+import io.github.anirudhk_tech.janus.connectors.ConnectorException;
+import io.github.anirudhk_tech.janus.connectors.ConnectorProperties;
+import io.github.anirudhk_tech.janus.connectors.DataSourceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlSchemaServiceTest {
+
+    private static final CapabilitiesProperties LINKS = new CapabilitiesProperties(List.of(
+        new CapabilitiesProperties.Source("cackle", "supabase", "Links", new CapabilitiesProperties.SqlHints("public", List.of("links")))
+    ), null, null, null);
+
+    /**
+     * information_schema rows for the {@code links} table with the given columns.
+     */
+    private static List<Map<String, Object>> columns(String... names) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (String name : names) {
+            rows.add(Map.of("table_name", "links", "column_name", name, "data_type", "text", "is_nullable", "NO"));
+        }
+        return rows;
+    }
+
+    private static SqlSchema links(String... names) {
+        List<SqlColumn> cols = new ArrayList<>();
+        for (String name : names) cols.add(new SqlColumn(name, "text", false));
+        return new SqlSchema("public", List.of(new SqlTable("links", cols)));
+    }
+
+    /**
+     * Service whose introspection query answers with whatever {@code rows} holds at the time, or
+     * fails while it holds null.
+     */
+    private static SqlSchemaService service(AtomicReference<List<Map<String, Object>>> rows) {
+        NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+        when(jdbc.queryForList(anyString(), anyMap())).thenAnswer(invocation -> {
+            List<Map<String, Object>> current = rows.get();
+            if (current == null) throw new DataAccessResourceFailureException("connection refused");
+            return current;
+        });
+        DataSourceRegistry dataSources = mock(DataSourceRegistry.class);
+        when(dataSources.templateFor("supabase", "cackle")).thenReturn(jdbc);
+        return new SqlSchemaService(LINKS, dataSources);
+    }
+
+    @Test
+    void refreshSwapsInTheNewSchemaAndMovesTheVersionOnlyOnChange() {
+        AtomicReference<List<Map<String, Object>>> rows = new AtomicReference<>(columns("id", "url"));
+        SqlSchemaService schemas = service(rows);
+        assertEquals(links("id", "url"), schemas.describe("supabase", "cackle"));
+        long before = schemas.version("supabase", "cackle");
+
+        assertFalse(schemas.refresh("supabase", "cackle"));
+        assertEquals(before, schemas.version("supabase", "cackle"));
+
+        rows.set(columns("id", "url", "title"));
+        assertTrue(schemas.refresh("supabase", "cackle"));
+
+        assertEquals(links("id", "url", "title"), schemas.describe("supabase", "cackle"));
+        assertTrue(schemas.version("supabase", "cackle") > before);
+        assertEquals(schemas.version(), schemas.version("supabase", "cackle"));
+    }
+
+    @Test
+    void failedRefreshKeepsThePreviousSchemaAndVersion() {
+        AtomicReference<List<Map<String, Object>>> rows = new AtomicReference<>(columns("id", "url"));
+        SqlSchemaService schemas = service(rows);
+        SqlSchema before = schemas.describe("supabase", "cackle");
+        long version = schemas.version("supabase", "cackle");
+
+        rows.set(null);
+
+        assertThrows(DataAccessResourceFailureException.class, () -> schemas.refresh("supabase", "cackle"));
+        assertEquals(before, schemas.describe("supabase", "cackle"));
+        assertEquals(version, schemas.version("supabase", "cackle"));
+    }
+
+    @Test
+    void readersSeeAWholeSchemaWhileRefreshesSwapIt() throws Exception {
+        SqlSchema narrow = links("id", "url");
+        SqlSchema wide = links("id", "url", "title", "owner");
+        AtomicReference<List<Map<String, Object>>> rows = new AtomicReference<>(columns("id", "url"));
+        SqlSchemaService schemas = service(rows);
+        schemas.describe("supabase", "cackle");
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Object> torn = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                while (!done.get()) {
+                    long version = schemas.version("supabase", "cackle");
+                    SqlSchema seen = schemas.describe("supabase", "cackle");
+                    if (!seen.equals(narrow) && !seen.equals(wide)) torn.compareAndSet(null, seen);
+                    // Versions only move forward, whatever a refresh swaps in.
+                    if (schemas.version("supabase", "cackle") < version) torn.compareAndSet(null, "version went back");
+                }
+            }));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            rows.set((i % 2 == 0) ? columns("id", "url", "title", "owner") : columns("id", "url"));
+            schemas.refresh("supabase", "cackle");
+        }
+        done.set(true);
+        for (Thread reader : readers) reader.join();
+
+        assertNull(torn.get());
+        assertEquals(narrow, schemas.describe("supabase", "cackle"));
+    }
+
+    @Test
+    void missesGoToTheLoaderInsteadOfIntrospectingOnceOneIsSet() {
+        AtomicReference<List<Map<String, Object>>> rows = new AtomicReference<>(columns("id", "url"));
+        SqlSchemaService schemas = service(rows);
+        List<String> queued = new ArrayList<>();
+        schemas.loadMissesWith((connector, sourceId) -> queued.add(connector + ":" + sourceId));
+
+        ConnectorException e = assertThrows(ConnectorException.class, () -> schemas.describe("supabase", "cackle"));
+
+        assertTrue(e.getMessage().startsWith("Schema not loaded yet"), e.getMessage());
+        assertEquals(List.of("supabase:cackle"), queued);
+        assertEquals(Map.of(), schemas.schemas());
+        assertEquals(0, schemas.version());
+
+        // What the loader does off the request path; afterwards describe is a cache read.
+        assertTrue(schemas.refresh("supabase", "cackle"));
+        assertEquals(links("id", "url"), schemas.describe("supabase", "cackle"));
+        assertEquals(1, queued.size());
+    }
+
+    @Test
+    void restoredSnapshotServesDescribeWithoutIntrospecting() throws Exception {
+        CapabilitiesProperties props = new CapabilitiesProperties(List.of(
+            new CapabilitiesProperties.Source("cackle", "supabase", "Links", new CapabilitiesProperties.SqlHints("public", List.of("links")))
+        ), null, null, null);
+        // No source is configured, so any introspection would fail.
+        SqlSchemaService schemas = new SqlSchemaService(props, new DataSourceRegistry(new ConnectorProperties(null, null), new SimpleMeterRegistry()));
+
+        SqlSchema links = new SqlSchema("public", List.of(new SqlTable("links", List.of(new SqlColumn("url", "text", false)))));
+        ObjectMapper mapper = new ObjectMapper();
+        String json = mapper.writeValueAsString(Map.of(
+            "supabase:cackle:public:links", links,
+            "supabase:cackle:public:links,events", links
+        ));
+
+        int restored = schemas.restore(mapper.readValue(json, new TypeReference<Map<String, SqlSchema>>() {}));
+
+        assertEquals(1, restored);
+        assertEquals(1, schemas.version());
+        assertEquals(1, schemas.version("supabase", "cackle"));
+        assertEquals(0, schemas.version("supabase", "other"));
+        assertEquals(links, schemas.describe("supabase", "cackle"));
+        assertEquals(Map.of("supabase:cackle:public:links", links), schemas.schemas());
+    }
+}
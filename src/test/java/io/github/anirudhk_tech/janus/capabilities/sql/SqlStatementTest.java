@@ -0,0 +1,56 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatementTest {
+
+    @Test
+    void stringsQuotedIdentifiersAndCommentsAreNotStructure() {
+        SqlStatement s = SqlStatement.parse(
+            "select * /* from secrets */ from public.\"Calendar_Events\" e where e.title = 'drop table x; -- from y' -- note\n;;"
+        );
+
+        assertEquals("select", s.type());
+        assertFalse(s.multiStatement());
+        assertNull(s.forbiddenKeyword());
+        assertEquals(List.of(new SqlStatement.TableRef("Calendar_Events", "e")), s.tables());
+        assertEquals("select * from public.\"Calendar_Events\" e where e.title = 'drop table x; -- from y'", s.sql());
+        assertTrue(s.selectList().star());
+        assertNull(s.selectList().qualifier());
+        assertEquals("*", s.sql().substring(s.selectList().start(), s.selectList().end()));
+    }
+
+    @Test
+    void collectsTablesAcrossJoinsAndSubqueriesButNotFunctionArguments() {
+        SqlStatement s = SqlStatement.parse(
+            "select a.id, count(*) from a join b as bb on a.id = bb.a_id, generate_series(1, 3) g "
+                + "where extract(year from a.ts) = 2024 and a.x in (select y from c) group by 1"
+        );
+
+        assertEquals(List.of("a", "b", "c"), List.copyOf(s.tableNames()));
+        assertEquals("bb", s.tables().get(1).alias());
+        assertTrue(s.hasJoin());
+        assertFalse(s.selectList().star());
+    }
+
+    @Test
+    void flagsSecondStatementsAndWriteKeywordsOutsideQuotes() {
+        SqlStatement multi = SqlStatement.parse("select 1 from a; delete from a");
+        assertTrue(multi.multiStatement());
+        assertEquals("delete", multi.forbiddenKeyword());
+
+        assertNull(SqlStatement.parse("select \"update\" from a").forbiddenKeyword());
+        assertEquals("into", SqlStatement.parse("select * into copy_of_a from a").forbiddenKeyword());
+
+        SqlStatement qualified = SqlStatement.parse("select t.* from links t");
+        assertTrue(qualified.selectList().star());
+        assertEquals("t", qualified.selectList().qualifier());
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.anirudhk_tech.janus.capabilities.CapabilitiesProperties;
+import io.github.anirudhk_tech.janus.connectors.ConnectorException;
+import io.github.anirudhk_tech.janus.connectors.ConnectorProperties;
+import io.github.anirudhk_tech.janus.connectors.DataSourceRegistry;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlStepGuardrailTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /**
+     * Guardrail over a source whose schema comes from a snapshot, so nothing is introspected.
+     */
+    private SqlStepGuardrail guardrail(SqlGuardrailsProperties props) {
+        CapabilitiesProperties capabilities = new CapabilitiesProperties(List.of(
+            new CapabilitiesProperties.Source("src", "supabase", "Links", new CapabilitiesProperties.SqlHints("public", List.of("links")))
+        ), null, null, null);
+        DataSourceRegistry dataSources = new DataSourceRegistry(new ConnectorProperties(
+            new ConnectorProperties.DbGroup(Map.of(
+                "src", new ConnectorProperties.JbdcSource("postgresql://h/db", "u", "p", null, null, new ConnectorProperties.Fetch(null, 100, null), null, null)
+            )),
+            null
+        ), registry);
+        SqlSchemaService schemas = new SqlSchemaService(capabilities, dataSources);
+        schemas.restore(Map.of("supabase:src:public:links", new SqlSchema("public", List.of(
+            new SqlTable("links", List.of(new SqlColumn("id", "bigint", false), new SqlColumn("url", "text", false)))
+        ))));
+        return new SqlStepGuardrail(schemas, dataSources, props, registry);
+    }
+
+    private SqlStepGuardrail guardrail() {
+        return guardrail(new SqlGuardrailsProperties());
+    }
+
+    private static SqlQueryStep step(String sql) {
+        return new SqlQueryStep("s1", "supabase", "src", sql, Map.of());
+    }
+
+    private static String rejection(SqlStepGuardrail guardrail, String sql) {
+        return assertThrows(ConnectorException.class, () -> guardrail.apply(step(sql), null)).getMessage();
+    }
+
+    @Test
+    void rejectsForbiddenKeywords() {
+        SqlStepGuardrail guardrail = guardrail();
+
+        assertEquals("Guardrail: only SELECT statements are allowed", rejection(guardrail, "delete from links"));
+        assertEquals("Guardrail: forbidden SQL keyword detected", rejection(guardrail, "select id into copy_of_links from links"));
+        assertEquals("Guardrail: forbidden SQL keyword detected", rejection(guardrail, "select id from links for update"));
+    }
+
+    @Test
+    void rejectsMultipleStatements() {
+        SqlStepGuardrail guardrail = guardrail();
+
+        assertEquals("Guardrail: multi-statement SQL is not allowed", rejection(guardrail, "select id from links; drop table links"));
+        assertEquals("Guardrail: multi-statement SQL is not allowed", rejection(guardrail, "select id from links;select 1"));
+    }
+
+    @Test
+    void rejectsTablesOutsideTheSchema() {
+        SqlStepGuardrail guardrail = guardrail();
+
+        assertEquals("Guardrail: table not allowlisted: secrets", rejection(guardrail, "select id from secrets"));
+        assertEquals("Guardrail: table not allowlisted: secrets", rejection(guardrail, "select l.id from links l join secrets s on s.id = l.id"));
+        // Served from the verdict cache the second time, with the same answer.
+        assertEquals("Guardrail: table not allowlisted: secrets", rejection(guardrail, "select id from secrets"));
+        assertEquals(1.0, registry.get("janus.sql.guardrail.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void keywordsInsideLiteralsAndCommentsAreNotSql() {
+        SqlGuardrailsProperties props = new SqlGuardrailsProperties();
+        props.setParameterizeLiterals(false);
+        SqlStepGuardrail guardrail = guardrail(props);
+
+        SqlStepGuardrail.Guarded guarded = guardrail.apply(step("select * from links where url = 'drop table; delete' -- into\n"), null);
+
+        // One row over the budget is fetched so truncation can be reported.
+        assertEquals("select id, url from links where url = 'drop table; delete' limit 101", guarded.step().sql());
+        assertEquals(100, guarded.limitApplied());
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.anirudhk_tech.janus.capabilities.sql;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SqlVerdictCacheTest {
+
+    private static SqlVerdictCache.Key key(String sql) {
+        return key("pg1", sql);
+    }
+
+    private static SqlVerdictCache.Key key(String sourceId, String sql) {
+        return new SqlVerdictCache.Key("postgres", sourceId, sql, Set.of(), 10_000);
+    }
+
+    private static SqlVerdictCache.Verdict verdict(String sql) {
+        return new SqlVerdictCache.Verdict(sql, Map.of(), null, null, 1_000);
+    }
+
+    @Test
+    void otherSchemaVersionOfTheSourceMisses() {
+        SqlVerdictCache cache = new SqlVerdictCache(10);
+        assertNull(cache.get(key("select 1 from t"), 1));
+        cache.put(key("select 1 from t"), 1, verdict("select 1 from t"));
+
+        assertEquals("select 1 from t", cache.get(key("select 1 from t"), 1).sql());
+        assertNull(cache.get(key("select 1 from t"), 2));
+        // A verdict computed under the old version must not come back.
+        cache.put(key("select 1 from t"), 1, verdict("stale"));
+        assertNull(cache.get(key("select 1 from t"), 2));
+    }
+
+    @Test
+    void versionsAreTrackedPerSource() {
+        SqlVerdictCache cache = new SqlVerdictCache(10);
+        cache.put(key("pg1", "select 1 from t"), 1, verdict("pg1"));
+        cache.put(key("pg2", "select 1 from t"), 4, verdict("pg2"));
+
+        // pg2 moving on to version 5 leaves pg1's verdict alone.
+        assertNull(cache.get(key("pg2", "select 1 from t"), 5));
+        assertEquals("pg1", cache.get(key("pg1", "select 1 from t"), 1).sql());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        SqlVerdictCache cache = new SqlVerdictCache(2);
+        cache.put(key("a"), 1, verdict("a"));
+        cache.put(key("b"), 1, verdict("b"));
+        cache.get(key("a"), 1);
+        cache.put(key("c"), 1, verdict("c"));
+
+        assertEquals("a", cache.get(key("a"), 1).sql());
+        assertNull(cache.get(key("b"), 1));
+        assertEquals("c", cache.get(key("c"), 1).sql());
+    }
+}
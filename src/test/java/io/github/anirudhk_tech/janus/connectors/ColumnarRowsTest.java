@@ -0,0 +1,97 @@
+package io.github.anirudhk_tech.janus.connectors;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ColumnarRowsTest {
+
+    private static Map<String, Object> row(Object id, Object name, Object active) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        row.put("active", active);
+        return row;
+    }
+
+    /**
+     * Row map with a fixed key order; {@code Map.of} iterates in an unspecified order, which made
+     * header assertions on {@code fromMaps} flaky.
+     */
+    private static Map<String, Object> ordered(Object... keysAndValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            row.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return row;
+    }
+
+    @Test
+    void storesTypedColumnsAndKeepsNulls() {
+        ColumnarRows rows = ColumnarRows.builder(List.of("id", "name", "active"), List.of(ColumnarRows.Kind.INT, ColumnarRows.Kind.STRING, ColumnarRows.Kind.BOOLEAN))
+            .set(0, 1).set(1, "a").set(2, true).endRow()
+            .set(0, null).set(1, "a").set(2, null).endRow()
+            .build();
+
+        assertEquals(2, rows.size());
+        assertEquals(1, rows.get(0, 0));
+        assertNull(rows.get(1, 0));
+        assertNull(rows.get(1, rows.columnIndex("ACTIVE")));
+        assertEquals(row(1, "a", true), rows.get(0));
+        assertEquals("a", rows.get(1).get("name"));
+    }
+
+    @Test
+    void serializesAsRowObjects() throws Exception {
+        ColumnarRows rows = ColumnarRows.builder(List.of("id", "score", "name"), List.of(ColumnarRows.Kind.LONG, ColumnarRows.Kind.DOUBLE, ColumnarRows.Kind.STRING))
+            .set(0, 7L).set(1, 1.5).set(2, "x").endRow()
+            .set(0, 8L).set(1, null).set(2, null).endRow()
+            .build();
+
+        String json = new ObjectMapper().writeValueAsString(Map.of("rows", rows));
+
+        assertEquals("{\"rows\":[{\"id\":7,\"score\":1.5,\"name\":\"x\"},{\"id\":8,\"score\":null,\"name\":null}]}", json);
+    }
+
+    @Test
+    void fromMapsKeepsFirstSeenColumnOrderAndWidensKinds() {
+        ColumnarRows rows = ColumnarRows.fromMaps(List.of(
+            ordered("id", 1, "name", "a"),
+            ordered("id", 2L, "name", null, "extra", true)
+        ));
+
+        assertEquals(List.of("id", "name", "extra"), rows.columns());
+        assertEquals(ColumnarRows.Kind.LONG, rows.kind(0));
+        assertEquals(ColumnarRows.Kind.STRING, rows.kind(1));
+        assertEquals(2L, rows.get(1, 0));
+        assertNull(rows.get(0, 2));
+        assertEquals(true, rows.get(1, 2));
+    }
+
+    @Test
+    void concatUnionsHeadersAndWidensMismatchedColumns() {
+        ColumnarRows a = ColumnarRows.builder(List.of("id", "name"), List.of(ColumnarRows.Kind.INT, ColumnarRows.Kind.STRING))
+            .set(0, 1).set(1, "a").endRow()
+            .build();
+        ColumnarRows b = ColumnarRows.builder(List.of("id", "extra"), List.of(ColumnarRows.Kind.STRING, ColumnarRows.Kind.DOUBLE))
+            .set(0, "two").set(1, 2.0).endRow()
+            .build();
+
+        ColumnarRows both = ColumnarRows.concat(a, b);
+
+        assertEquals(List.of("id", "name", "extra"), both.columns());
+        assertEquals(ColumnarRows.Kind.OBJECT, both.kind(both.columnIndex("id")));
+        assertEquals(1, both.get(0, 0));
+        assertEquals("two", both.get(1, 0));
+        assertNull(both.get(1, 1));
+        assertEquals(2.0, both.get(1, 2));
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.anirudhk_tech.janus.connectors;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectorResultCacheTest {
+
+    private static ConnectorProperties props(Duration ttl, DataSize maxSize) {
+        return new ConnectorProperties(
+            new ConnectorProperties.DbGroup(Map.of(
+                "cached", new ConnectorProperties.JbdcSource("postgresql://h/db", "u", "p", ttl, null, null, null, null),
+                "uncached", new ConnectorProperties.JbdcSource("postgresql://h/db", "u", "p", null, null, null, null, null)
+            )),
+            new ConnectorProperties.ResultCache(maxSize)
+        );
+    }
+
+    private static ConnectorResult result(String stepId, int rows) {
+        List<Map<String, Object>> data = java.util.stream.IntStream.range(0, rows)
+            .<Map<String, Object>>mapToObj(i -> Map.of("id", i, "name", "row-" + i))
+            .toList();
+        return new ConnectorResult(stepId, "supabase", Map.of("rows", data));
+    }
+
+    @Test
+    void hitsOnFormattingOnlyDifferences_andRestampsStepId() {
+        ConnectorResultCache cache = new ConnectorResultCache(props(Duration.ofMinutes(1), DataSize.ofMegabytes(1)));
+
+        cache.put(new SqlQueryStep("s1", "supabase", "cached", "SELECT id\n  FROM links WHERE name = 'A'", Map.of()), result("s1", 2));
+
+        var hit = cache.get(new SqlQueryStep("s2", "supabase", "cached", "select id from links where name = 'A'", Map.of()));
+        var literalDiffers = cache.get(new SqlQueryStep("s3", "supabase", "cached", "select id from links where name = 'a'", Map.of()));
+
+        assertTrue(hit.isPresent());
+        assertEquals("s2", hit.get().stepId());
+        assertFalse(literalDiffers.isPresent());
+    }
+
+    @Test
+    void sourcesWithoutTtlAreNotCached() {
+        ConnectorResultCache cache = new ConnectorResultCache(props(Duration.ofMinutes(1), DataSize.ofMegabytes(1)));
+        SqlQueryStep step = new SqlQueryStep("s1", "supabase", "uncached", "select 1", Map.of());
+
+        cache.put(step, result("s1", 1));
+
+        assertFalse(cache.isEnabledFor(step));
+        assertFalse(cache.get(step).isPresent());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenOverBudget() {
+        ConnectorResultCache cache = new ConnectorResultCache(props(Duration.ofMinutes(1), DataSize.ofBytes(5_000)));
+        SqlQueryStep a = new SqlQueryStep("a", "supabase", "cached", "select 'a'", Map.of());
+        SqlQueryStep b = new SqlQueryStep("b", "supabase", "cached", "select 'b'", Map.of());
+        SqlQueryStep c = new SqlQueryStep("c", "supabase", "cached", "select 'c'", Map.of());
+
+        cache.put(a, result("a", 10));
+        cache.put(b, result("b", 10));
+        cache.get(a);
+        cache.put(c, result("c", 10));
+
+        assertTrue(cache.get(a).isPresent());
+        assertFalse(cache.get(b).isPresent());
+        assertTrue(cache.get(c).isPresent());
+    }
+}
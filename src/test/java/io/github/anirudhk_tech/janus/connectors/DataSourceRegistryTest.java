@@ -0,0 +1,136 @@
+package io.github.anirudhk_tech.janus.connectors;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataSourceRegistryTest {
+
+    private DataSourceRegistry registry;
+
+    @AfterEach
+    void close() {
+        if (registry != null) registry.destroy();
+    }
+
+    /**
+     * Registry over {@code supabase} sources only; pools are created but never started, so no
+     * database is needed.
+     */
+    private DataSourceRegistry registry(Map<String, ConnectorProperties.JbdcSource> sources) {
+        registry = new DataSourceRegistry(new ConnectorProperties(new ConnectorProperties.DbGroup(sources), null), new SimpleMeterRegistry());
+        return registry;
+    }
+
+    private static ConnectorProperties.JbdcSource source(String jdbcUrl, ConnectorProperties.Pool pool, ConnectorProperties.Fetch fetch, ConnectorProperties.Statements statements) {
+        return new ConnectorProperties.JbdcSource(jdbcUrl, "janus", "secret", null, pool, fetch, statements, null);
+    }
+
+    @Test
+    void poolAndDriverSettingsComeFromTheSourceConfig() {
+        DataSourceRegistry registry = registry(Map.of("cackle", source(
+            "postgresql://db.example.com:5432/postgres?sslmode=require",
+            new ConnectorProperties.Pool(4, 1, Duration.ofSeconds(3), Duration.ofMinutes(2), Duration.ofMinutes(20), Duration.ofMinutes(1), Duration.ofSeconds(2)),
+            null,
+            new ConnectorProperties.Statements(3, 64, DataSize.ofKilobytes(512))
+        )));
+
+        HikariDataSource ds = assertInstanceOf(HikariDataSource.class, registry.dataSourceFor("supabase", "cackle"));
+
+        assertEquals("jdbc:postgresql://db.example.com:5432/postgres?sslmode=require", ds.getJdbcUrl());
+        assertEquals("janus-supabase-cackle", ds.getPoolName());
+        assertEquals("janus", ds.getUsername());
+        assertTrue(ds.isReadOnly());
+        assertEquals(4, ds.getMaximumPoolSize());
+        assertEquals(1, ds.getMinimumIdle());
+        assertEquals(3_000, ds.getConnectionTimeout());
+        assertEquals(120_000, ds.getIdleTimeout());
+        assertEquals(1_200_000, ds.getMaxLifetime());
+        assertEquals(60_000, ds.getKeepaliveTime());
+        assertEquals(2_000, ds.getValidationTimeout());
+        assertEquals("3", ds.getDataSourceProperties().getProperty("prepareThreshold"));
+        assertEquals("64", ds.getDataSourceProperties().getProperty("preparedStatementCacheQueries"));
+        // Below one MiB still rounds up to the smallest size the driver accepts.
+        assertEquals("1", ds.getDataSourceProperties().getProperty("preparedStatementCacheSizeMiB"));
+        assertInstanceOf(MicrometerMetricsTrackerFactory.class, ds.getMetricsTrackerFactory());
+    }
+
+    @Test
+    void unsetSettingsKeepThePoolAndDriverDefaults() {
+        DataSourceRegistry registry = registry(Map.of("cackle", source("jdbc:postgresql://h:5432/db", null, null, null)));
+
+        HikariDataSource ds = (HikariDataSource) registry.dataSourceFor("supabase", "cackle");
+
+        assertEquals("jdbc:postgresql://h:5432/db", ds.getJdbcUrl());
+        assertEquals(10, ds.getMaximumPoolSize());
+        assertTrue(ds.getDataSourceProperties().isEmpty());
+    }
+
+    @Test
+    void credentialsInTheUrlAreRejected() {
+        DataSourceRegistry registry = registry(Map.of(
+            "plain", source("postgresql://user:pass@h:5432/db", null, null, null),
+            "jdbc", source("jdbc:postgresql://user@h:5432/db", null, null, null),
+            "query", source("postgresql://h:5432/db?note=a@b", null, null, null)
+        ));
+
+        ConnectorException e = assertThrows(ConnectorException.class, () -> registry.dataSourceFor("supabase", "plain"));
+        assertTrue(e.getMessage().startsWith("Invalid jdbc-url: do not embed credentials"));
+        assertThrows(ConnectorException.class, () -> registry.dataSourceFor("supabase", "jdbc"));
+        // An '@' after the authority is not userinfo.
+        assertEquals("jdbc:postgresql://h:5432/db?note=a@b", ((HikariDataSource) registry.dataSourceFor("supabase", "query")).getJdbcUrl());
+    }
+
+    @Test
+    void maxRowsIsTheSourceCapLoweredByTheRequest() {
+        DataSourceRegistry registry = registry(Map.of(
+            "capped", source("postgresql://h/db", null, new ConnectorProperties.Fetch(null, 500, null), null),
+            "default", source("postgresql://h/db", null, null, null),
+            "zero", source("postgresql://h/db", null, new ConnectorProperties.Fetch(null, 0, null), null)
+        ));
+
+        assertEquals(500, registry.maxRows("supabase", "capped", null));
+        assertEquals(50, registry.maxRows("supabase", "capped", 50));
+        assertEquals(500, registry.maxRows("supabase", "capped", 5_000));
+        assertEquals(1, registry.maxRows("supabase", "capped", 0));
+        assertEquals(10_000, registry.maxRows("supabase", "default", null));
+        assertEquals(1, registry.maxRows("supabase", "zero", null));
+        assertThrows(ConnectorException.class, () -> registry.maxRows("supabase", "missing", null));
+        assertThrows(ConnectorException.class, () -> registry.maxRows("postgres", "capped", null));
+    }
+
+    @Test
+    void poolsAreSharedPerSourceAndClosedOnDestroy() {
+        DataSourceRegistry registry = registry(Map.of(
+            "a", source("postgresql://h/a", null, null, null),
+            "b", source("postgresql://h/b", null, null, null)
+        ));
+        HikariDataSource a = (HikariDataSource) registry.dataSourceFor("supabase", "a");
+        HikariDataSource b = (HikariDataSource) registry.dataSourceFor("supabase", "b");
+
+        assertSame(a, registry.dataSourceFor("supabase", "a"));
+        assertSame(registry.templateFor("supabase", "a"), registry.templateFor("supabase", "a"));
+        assertSame(a, registry.templateFor("supabase", "a").getJdbcTemplate().getDataSource());
+        assertFalse(a.isClosed());
+
+        registry.destroy();
+
+        assertTrue(a.isClosed());
+        assertTrue(b.isClosed());
+    }
+}
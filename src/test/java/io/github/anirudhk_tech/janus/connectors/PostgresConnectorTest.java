@@ -0,0 +1,251 @@
+package io.github.anirudhk_tech.janus.connectors;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.util.unit.DataSize;
+
+import io.github.anirudhk_tech.janus.federation.ExecutionContext;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PostgresConnectorTest {
+
+    private static final SqlQueryStep STEP = new SqlQueryStep("s1", "supabase", "cackle", "select id from links", Map.of());
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection con = mock(Connection.class);
+    private final PreparedStatement ps = mock(PreparedStatement.class);
+    private final Statement timeout = mock(Statement.class);
+    private final ResultSet rs = mock(ResultSet.class);
+
+    /**
+     * Connector over a stubbed pool whose connection starts in autocommit mode and whose
+     * statements answer with {@link #rs}.
+     */
+    private PostgresConnector connector(ConnectorProperties.Fetch fetch, int maxRows) throws SQLException {
+        when(dataSource.getConnection()).thenReturn(con);
+        when(con.getAutoCommit()).thenReturn(true);
+        when(con.prepareStatement(anyString())).thenReturn(ps);
+        when(con.createStatement()).thenReturn(timeout);
+        when(ps.getConnection()).thenReturn(con);
+        when(ps.executeQuery()).thenReturn(rs);
+
+        DataSourceRegistry dataSources = mock(DataSourceRegistry.class);
+        when(dataSources.templateFor("supabase", "cackle")).thenReturn(new NamedParameterJdbcTemplate(dataSource));
+        when(dataSources.resolveSource("supabase", "cackle"))
+            .thenReturn(new ConnectorProperties.JbdcSource("postgresql://h/db", "u", "p", null, null, fetch, null, null));
+        when(dataSources.maxRows("supabase", "cackle", null)).thenReturn(maxRows);
+        return new PostgresConnector(dataSources, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Makes {@link #rs} a single {@code id integer} column holding {@code ids} (at least one).
+     */
+    private void returns(int... ids) throws SQLException {
+        ResultSetMetaData meta = mock(ResultSetMetaData.class);
+        when(meta.getColumnCount()).thenReturn(1);
+        when(meta.getColumnLabel(1)).thenReturn("id");
+        when(meta.getColumnType(1)).thenReturn(Types.INTEGER);
+        when(rs.getMetaData()).thenReturn(meta);
+
+        Boolean[] more = new Boolean[ids.length];
+        Arrays.fill(more, true);
+        more[ids.length - 1] = false;
+        when(rs.next()).thenReturn(true, more);
+        when(rs.getInt(1)).thenReturn(ids[0], IntStream.of(ids).skip(1).boxed().toArray(Integer[]::new));
+    }
+
+    private static ColumnarRows rows(ConnectorResult result) {
+        return (ColumnarRows) result.data().get("rows");
+    }
+
+    private static ExecutionContext context(Duration budget) {
+        return new ExecutionContext("t1", Instant.now().plus(budget), Clock.systemUTC());
+    }
+
+    @Test
+    void onlyLiftedStringsAreBoundUntyped() {
+        MapSqlParameterSource params = PostgresConnector.parameters(Map.of(
+            "lit_0", "2024-01-01",
+            "lit_1", 42,
+            "owner", "acme"
+        ));
+
+        assertEquals(Types.OTHER, params.getSqlType("lit_0"));
+        assertEquals(SqlParameterSource.TYPE_UNKNOWN, params.getSqlType("lit_1"));
+        assertEquals(SqlParameterSource.TYPE_UNKNOWN, params.getSqlType("owner"));
+        assertEquals("2024-01-01", params.getValue("lit_0"));
+        assertEquals("acme", params.getValue("owner"));
+    }
+
+    @Test
+    void remainingBudgetBecomesTheTransactionStatementTimeout() throws Exception {
+        PostgresConnector connector = connector(null, 100);
+        ResultSetMetaData meta = mock(ResultSetMetaData.class);
+        when(rs.getMetaData()).thenReturn(meta);
+
+        connector.execute(STEP, context(Duration.ofSeconds(30)));
+
+        ArgumentCaptor<String> set = ArgumentCaptor.forClass(String.class);
+        InOrder order = inOrder(con, timeout, ps);
+        order.verify(con).setAutoCommit(false);
+        order.verify(timeout).execute(set.capture());
+        order.verify(ps).executeQuery();
+        order.verify(con).rollback();
+        order.verify(con).setAutoCommit(true);
+
+        assertTrue(set.getValue().startsWith("set local statement_timeout = "));
+        long ms = Long.parseLong(set.getValue().substring("set local statement_timeout = ".length()));
+        assertTrue(ms > 25_000 && ms <= 30_000, "statement_timeout " + ms);
+        verify(timeout).close();
+    }
+
+    @Test
+    void rowsStreamThroughACursorAndStopAtTheRowCap() throws Exception {
+        PostgresConnector connector = connector(new ConnectorProperties.Fetch(50, null, null), 2);
+        returns(1, 2, 3);
+
+        ConnectorResult result = connector.execute(STEP, context(Duration.ofSeconds(30)));
+
+        verify(ps).setFetchSize(50);
+        verify(ps).setMaxRows(3);
+        assertEquals(List.of("id"), rows(result).columns());
+        assertEquals(2, rows(result).size());
+        assertEquals(2, rows(result).getInt(1, 0));
+        assertEquals(true, result.data().get("truncated"));
+    }
+
+    @Test
+    void resultThatExactlyFillsTheCapIsNotTruncated() throws Exception {
+        PostgresConnector connector = connector(null, 2);
+        returns(1, 2);
+
+        ConnectorResult result = connector.execute(STEP, context(Duration.ofSeconds(30)));
+
+        verify(ps).setFetchSize(500);
+        assertEquals(2, rows(result).size());
+        assertEquals(false, result.data().get("truncated"));
+    }
+
+    @Test
+    void readingStopsAtTheByteCap() throws Exception {
+        // One int column costs 80 bytes plus 4 per row: the third row would cross 90.
+        PostgresConnector connector = connector(new ConnectorProperties.Fetch(null, null, DataSize.ofBytes(90)), 100);
+        returns(1, 2, 3, 4);
+
+        ConnectorResult result = connector.execute(STEP, context(Duration.ofSeconds(30)));
+
+        assertEquals(2, rows(result).size());
+        assertEquals(true, result.data().get("truncated"));
+        assertEquals(2, rows(result).getInt(1, 0));
+    }
+
+    @Test
+    void failedStatementRollsBackAndRestoresAutocommit() throws Exception {
+        PostgresConnector connector = connector(null, 100);
+        when(ps.executeQuery()).thenThrow(new SQLException("relation \"links\" does not exist", "42P01"));
+
+        DataAccessException e = assertThrows(DataAccessException.class, () -> connector.execute(STEP, context(Duration.ofSeconds(30))));
+
+        assertFalse(e.getMessage().contains("deadline_exceeded"), e.getMessage());
+        InOrder order = inOrder(con);
+        order.verify(con).setAutoCommit(false);
+        order.verify(con).rollback();
+        order.verify(con).setAutoCommit(true);
+        verify(con).close();
+    }
+
+    @Test
+    void connectionAlreadyInATransactionIsLeftThatWay() throws Exception {
+        PostgresConnector connector = connector(null, 100);
+        when(con.getAutoCommit()).thenReturn(false);
+        returns(1);
+
+        connector.execute(STEP, context(Duration.ofSeconds(30)));
+
+        verify(con, never()).rollback();
+        verify(con, never()).setAutoCommit(anyBoolean());
+    }
+
+    @Test
+    void runningStatementIsCancelledAtTheDeadline() throws Exception {
+        PostgresConnector connector = connector(null, 100);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(ps).cancel();
+        when(ps.executeQuery()).thenAnswer(invocation -> {
+            // The server would stop the statement once the cancel arrives.
+            assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+            throw new SQLException("canceling statement due to user request", "57014");
+        });
+
+        long start = System.nanoTime();
+        ConnectorException e = assertThrows(ConnectorException.class, () -> connector.execute(STEP, context(Duration.ofMillis(200))));
+
+        assertTrue(e.getMessage().startsWith("deadline_exceeded"), e.getMessage());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        verify(con).rollback();
+        verify(con).setAutoCommit(true);
+    }
+
+    @Test
+    void expiredContextNeverTakesAConnection() throws Exception {
+        PostgresConnector connector = connector(null, 100);
+
+        ConnectorException e = assertThrows(ConnectorException.class, () -> connector.execute(STEP, context(Duration.ofSeconds(-1))));
+
+        assertTrue(e.getMessage().startsWith("deadline_exceeded"));
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    void statementTimeoutFromTheServerIsADeadline() throws Exception {
+        PostgresConnector connector = connector(null, 100);
+        when(ps.executeQuery()).thenThrow(new SQLException("canceling statement due to statement timeout", "57014"));
+
+        ConnectorException e = assertThrows(ConnectorException.class, () -> connector.execute(STEP, context(Duration.ofSeconds(30))));
+
+        assertTrue(e.getMessage().startsWith("deadline_exceeded"), e.getMessage());
+        verify(con).rollback();
+    }
+}
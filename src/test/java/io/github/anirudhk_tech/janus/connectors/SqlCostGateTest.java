@@ -0,0 +1,127 @@
+package io.github.anirudhk_tech.janus.connectors;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SqlCostGateTest {
+
+    private static final SqlQueryStep STEP = new SqlQueryStep("s1", "supabase", "cackle", "select id from links where owner = :lit_1", Map.of("lit_1", "acme"));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final NamedParameterJdbcTemplate jdbc = mock(NamedParameterJdbcTemplate.class);
+
+    private SqlCostGate gate(ConnectorProperties.Cost cost) {
+        DataSourceRegistry dataSources = mock(DataSourceRegistry.class);
+        when(dataSources.resolveSource("supabase", "cackle"))
+            .thenReturn(new ConnectorProperties.JbdcSource("postgresql://h/db", "u", "p", null, null, null, null, cost));
+        when(dataSources.templateFor("supabase", "cackle")).thenReturn(jdbc);
+        return new SqlCostGate(dataSources, new ObjectMapper(), registry);
+    }
+
+    private void explainReturns(double cost, double rows) {
+        String json = "[{\"Plan\":{\"Node Type\":\"Seq Scan\",\"Total Cost\":" + cost + ",\"Plan Rows\":" + rows + "}}]";
+        doReturn(json).when(jdbc).execute(anyString(), any(SqlParameterSource.class), any());
+    }
+
+    private double gateCount(String result) {
+        return registry.get("janus.sql.cost.gate").tag("source", "cackle").tag("result", result).counter().count();
+    }
+
+    @Test
+    void underThresholdPassesWithEstimate() {
+        SqlCostGate gate = gate(new ConnectorProperties.Cost(1_000.0, 10_000.0, null, null, null));
+        explainReturns(42.5, 100);
+
+        SqlCostGate.Estimate estimate = gate.check(STEP, 5_000);
+
+        assertEquals(42.5, estimate.cost());
+        assertEquals(100, estimate.rows());
+        assertNull(estimate.downgradedTimeout());
+        assertEquals(1.0, gateCount("pass"));
+    }
+
+    @Test
+    void overThresholdRejects_orDowngradesWhenConfigured() {
+        explainReturns(5_000, 100);
+
+        ConnectorException e = assertThrows(ConnectorException.class,
+            () -> gate(new ConnectorProperties.Cost(1_000.0, null, null, null, null)).check(STEP, 5_000));
+        assertTrue(e.getMessage().startsWith("Cost gate: estimated cost 5000 exceeds max-cost 1000"));
+        assertEquals(1.0, gateCount("reject"));
+
+        SqlCostGate.Estimate downgraded = gate(new ConnectorProperties.Cost(1_000.0, null, ConnectorProperties.CostAction.DOWNGRADE, Duration.ofMillis(250), null))
+            .check(STEP, 5_000);
+        assertEquals(Duration.ofMillis(250), downgraded.downgradedTimeout());
+        assertEquals(1.0, gateCount("downgrade"));
+    }
+
+    @Test
+    void estimatesAreCachedPerBinding() {
+        SqlCostGate gate = gate(new ConnectorProperties.Cost(1_000.0, null, null, null, Duration.ofMinutes(5)));
+        explainReturns(10, 1);
+
+        gate.check(STEP, 5_000);
+        gate.check(STEP.withSql(STEP.sql(), Map.of("lit_1", "acme")), 5_000);
+        gate.check(STEP.withSql(STEP.sql(), Map.of("lit_1", "globex")), 5_000);
+
+        verify(jdbc, times(2)).execute(anyString(), any(SqlParameterSource.class), any());
+        assertEquals(1.0, registry.get("janus.sql.explain.cache").tag("result", "hit").counter().count());
+        assertEquals(2.0, registry.get("janus.sql.explain.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void expiredEstimateIsExplainedAgain() throws Exception {
+        SqlCostGate gate = gate(new ConnectorProperties.Cost(1_000.0, null, null, null, Duration.ofMillis(1)));
+        explainReturns(10, 1);
+
+        gate.check(STEP, 5_000);
+        Thread.sleep(5);
+        gate.check(STEP, 5_000);
+
+        verify(jdbc, times(2)).execute(anyString(), any(SqlParameterSource.class), any());
+    }
+
+    @Test
+    void explainFailureRunsUngated_andIsNotCached() {
+        SqlCostGate gate = gate(new ConnectorProperties.Cost(1_000.0, null, null, null, null));
+        doThrow(new QueryTimeoutException("canceling statement due to statement timeout"))
+            .when(jdbc).execute(anyString(), any(SqlParameterSource.class), any());
+
+        assertNull(gate.check(STEP, 5_000));
+        assertNull(gate.check(STEP, 5_000));
+
+        verify(jdbc, times(2)).execute(anyString(), any(SqlParameterSource.class), any());
+        assertEquals(2.0, gateCount("error"));
+    }
+
+    @Test
+    void sourcesWithoutThresholdsAreNotExplained() {
+        SqlCostGate gate = gate(null);
+
+        assertNull(gate.check(STEP, 5_000));
+        verify(jdbc, times(0)).execute(anyString(), any(SqlParameterSource.class), any());
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.anirudhk_tech.janus.federation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.github.anirudhk_tech.janus.plan.PlanStep;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DagSchedulerTest {
+
+    /**
+     * Submits a whole plan the way {@code PlanExecution.await} does and collects one future per
+     * step id, in plan order.
+     */
+    private static Map<String, CompletableFuture<StepExecutionResult>> submitAll(DagScheduler scheduler, List<PlanStep> steps) {
+        for (PlanStep step : DagScheduler.topologicalOrder(steps)) {
+            scheduler.submit(step);
+        }
+        Map<String, CompletableFuture<StepExecutionResult>> futures = new LinkedHashMap<>();
+        for (PlanStep step : steps) {
+            futures.put(step.stepId(), scheduler.future(step.stepId()));
+        }
+        return futures;
+    }
+
+    @Test
+    void parsesDependsOnAndDefaultsToEmpty() throws Exception {
+        String json = """
+            {"steps":[
+              {"type":"sql","stepId":"a","connector":"supabase","sourceId":"x","sql":"select id from users"},
+              {"type":"sql","stepId":"b","connector":"supabase","sourceId":"x","sql":"select * from links where user_id in (:ids)",
+               "params":{"ids":{"fromStep":"a","column":"id"}},"dependsOn":["a"]}
+            ]}
+            """;
+
+        ExecutionPlan plan = new ObjectMapper().readValue(json, ExecutionPlan.class);
+
+        assertEquals(List.of(), plan.steps().get(0).dependsOn());
+        assertEquals(List.of("a"), plan.steps().get(1).dependsOn());
+    }
+
+    @Test
+    void startsDependentStepAfterUpstream_andBindsUpstreamColumn() {
+        SqlQueryStep a = new SqlQueryStep("a", "postgres", "x", "select id from users", Map.of());
+        SqlQueryStep b = new SqlQueryStep("b", "postgres", "x", "select * from links where user_id in (:ids)",
+            Map.of("ids", Map.of("fromStep", "a", "column", "id")), List.of("a"));
+        SqlQueryStep c = new SqlQueryStep("c", "postgres", "x", "select 1", Map.of());
+
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        List<PlanStep> seen = Collections.synchronizedList(new ArrayList<>());
+
+        DagScheduler scheduler = new DagScheduler(step -> {
+            started.add(step.stepId());
+            seen.add(step);
+            Map<String, Object> data = "a".equals(step.stepId())
+                ? Map.of("rows", List.of(Map.of("id", 1), Map.of("id", 2), Map.of("id", 1)))
+                : Map.of("rows", List.of());
+            return CompletableFuture.completedFuture(
+                new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.SUCCESS, 5, data, null));
+        });
+
+        Map<String, CompletableFuture<StepExecutionResult>> futures = submitAll(scheduler, List.of(b, a, c));
+
+        assertEquals(List.of("b", "a", "c"), List.copyOf(futures.keySet()));
+        assertTrue(started.indexOf("a") < started.indexOf("b"));
+
+        SqlQueryStep boundB = (SqlQueryStep) seen.stream().filter(s -> s.stepId().equals("b")).findFirst().orElseThrow();
+        assertEquals(List.of(1, 2), boundB.params().get("ids"));
+    }
+
+    @Test
+    void failedUpstream_failsDependentWithoutRunningIt() {
+        SqlQueryStep a = new SqlQueryStep("a", "postgres", "x", "select 1", Map.of());
+        SqlQueryStep b = new SqlQueryStep("b", "postgres", "x", "select 2", Map.of(), List.of("a"));
+
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        DagScheduler scheduler = new DagScheduler(step -> {
+            started.add(step.stepId());
+            return CompletableFuture.completedFuture(
+                new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.FAILURE, 1, null, "boom"));
+        });
+
+        StepExecutionResult rb = submitAll(scheduler, List.of(a, b)).get("b").join();
+
+        assertEquals(List.of("a"), started);
+        assertEquals(StepExecutionStatus.FAILURE, rb.status());
+        assertEquals("upstream_failed: a", rb.error());
+    }
+
+    @Test
+    void submitRejectsDuplicatesAndStepsAheadOfTheirDependencies() {
+        SqlQueryStep a = new SqlQueryStep("a", "postgres", "x", "select 1", Map.of());
+        SqlQueryStep b = new SqlQueryStep("b", "postgres", "x", "select 2", Map.of(), List.of("a"));
+        DagScheduler scheduler = new DagScheduler(step -> CompletableFuture.completedFuture(
+            new StepExecutionResult(step.stepId(), step.connector(), StepExecutionStatus.SUCCESS, 1, Map.of(), null)));
+
+        assertThrows(FederationExecutionException.class, () -> scheduler.submit(b));
+        assertFalse(scheduler.isSubmitted("b"));
+
+        scheduler.submit(a);
+        assertThrows(FederationExecutionException.class, () -> scheduler.submit(a));
+        assertEquals(StepExecutionStatus.SUCCESS, scheduler.submit(b).join().status());
+    }
+
+    @Test
+    void rejectsCycles() {
+        SqlQueryStep a = new SqlQueryStep("a", "postgres", "x", "select 1", Map.of(), List.of("b"));
+        SqlQueryStep b = new SqlQueryStep("b", "postgres", "x", "select 2", Map.of(), List.of("a"));
+
+        assertThrows(FederationExecutionException.class, () -> DagScheduler.topologicalOrder(List.of(a, b)));
+    }
+
+    @Test
+    void criticalPath_followsLongestDependencyChain() {
+        ExecutionPlan plan = new ExecutionPlan(List.of(
+            new SqlQueryStep("a", "postgres", "x", "select 1", Map.of()),
+            new SqlQueryStep("b", "postgres", "x", "select 2", Map.of(), List.of("a")),
+            new SqlQueryStep("c", "postgres", "x", "select 3", Map.of())
+        ), "json-shallow-merge-v1");
+
+        List<StepExecutionResult> execution = List.of(
+            new StepExecutionResult("a", "postgres", StepExecutionStatus.SUCCESS, 30, 5, Map.of(), null),
+            new StepExecutionResult("b", "postgres", StepExecutionStatus.SUCCESS, 20, 0, Map.of(), null),
+            new StepExecutionResult("c", "postgres", StepExecutionStatus.SUCCESS, 40, 0, Map.of(), null)
+        );
+
+        CriticalPath path = CriticalPath.of(plan, execution);
+
+        assertEquals(List.of("a", "b"), path.stepIds());
+        assertEquals(55, path.durationMs());
+    }
+}
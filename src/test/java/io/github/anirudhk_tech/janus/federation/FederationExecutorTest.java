@@ -0,0 +1,272 @@
+package io.github.anirudhk_tech.janus.federation;
+
+import java.time.Clock;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.anirudhk_tech.janus.connectors.Connector;
+import io.github.anirudhk_tech.janus.connectors.ConnectorException;
+import io.github.anirudhk_tech.janus.connectors.ConnectorProperties;
+import io.github.anirudhk_tech.janus.connectors.ConnectorResult;
+import io.github.anirudhk_tech.janus.connectors.ConnectorResultCache;
+import io.github.anirudhk_tech.janus.plan.ExecutionPlan;
+import io.github.anirudhk_tech.janus.plan.PlanStep;
+import io.github.anirudhk_tech.janus.plan.SqlQueryStep;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FederationExecutorTest {
+
+    private static final Clock CLOCK = Clock.systemUTC();
+
+    private FederationExecutor executor;
+
+    @AfterEach
+    void shutDown() throws Exception {
+        if (executor != null) executor.destroy();
+    }
+
+    private FederationExecutor executor(Connector connector) {
+        return executor(connector, new FederationProperties().getMaxConcurrencyPerSource());
+    }
+
+    private FederationExecutor executor(Connector connector, int maxConcurrencyPerSource) {
+        FederationProperties props = new FederationProperties();
+        props.setExecutionMode(FederationProperties.ExecutionMode.VIRTUAL);
+        props.setMaxConcurrencyPerSource(maxConcurrencyPerSource);
+        executor = new FederationExecutor(
+            List.of(connector),
+            Optional.empty(),
+            Optional.empty(),
+            new ConnectorResultCache(new ConnectorProperties(null, null)),
+            props,
+            new SimpleMeterRegistry()
+        );
+        return executor;
+    }
+
+    private static ExecutionContext context() {
+        return new ExecutionContext("trace", CLOCK.instant().plusSeconds(60), CLOCK);
+    }
+
+    private static SqlQueryStep step(String stepId) {
+        return new SqlQueryStep(stepId, "postgres", "pg", "select 1", Map.of());
+    }
+
+    private static SqlQueryStep step(String stepId, String sql, String... dependsOn) {
+        return new SqlQueryStep(stepId, "postgres", "pg", sql, Map.of(), List.of(dependsOn));
+    }
+
+    /**
+     * A "postgres" connector that hands each call to {@code body}.
+     */
+    private static Connector connector(StepBody body) {
+        return new Connector() {
+            @Override
+            public String name() {
+                return "postgres";
+            }
+
+            @Override
+            public boolean supports(PlanStep step) {
+                return step instanceof SqlQueryStep;
+            }
+
+            @Override
+            public ConnectorResult execute(PlanStep step, ExecutionContext context) {
+                try {
+                    return body.run(step, context);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ConnectorException("interrupted");
+                }
+            }
+        };
+    }
+
+    private interface StepBody {
+        ConnectorResult run(PlanStep step, ExecutionContext context) throws InterruptedException;
+    }
+
+    private static ConnectorResult ok(PlanStep step) {
+        return new ConnectorResult(step.stepId(), "postgres", Map.of("rows", List.of(Map.of("ok", 1))));
+    }
+
+    @Test
+    void stepsOnOneSourceRunOneAtATimeAndPermitWaitIsQueueTime() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Set<Boolean> virtual = ConcurrentHashMap.newKeySet();
+        FederationExecutor federation = executor(connector((step, ctx) -> {
+            virtual.add(Thread.currentThread().isVirtual());
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(300);
+            } finally {
+                running.decrementAndGet();
+            }
+            return ok(step);
+        }), 1);
+        // Different SQL, so the steps are not coalesced into one execution.
+        ExecutionPlan plan = new ExecutionPlan(List.of(step("a", "select 1"), step("b", "select 2")), null);
+
+        List<StepExecutionResult> results = federation.execute(plan, context(), 5_000);
+
+        assertEquals(1, maxRunning.get());
+        assertEquals(Set.of(true), virtual);
+        StepExecutionResult waited = results.stream().max(Comparator.comparingLong(StepExecutionResult::queueWaitMs)).orElseThrow();
+        // The second step waits out the first one's run, and that wait is not execution time.
+        assertTrue(waited.queueWaitMs() >= 250, "queueWaitMs " + waited.queueWaitMs());
+        assertTrue(waited.durationMs() >= 250 && waited.durationMs() < 550, "durationMs " + waited.durationMs());
+    }
+
+    @Test
+    void stepThatGetsNoPermitBeforeTheDeadlineTimesOut() throws Exception {
+        CountDownLatch hogRunning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> executed = ConcurrentHashMap.newKeySet();
+        FederationExecutor federation = executor(connector((step, ctx) -> {
+            executed.add(step.stepId());
+            if (step.stepId().equals("hog")) {
+                hogRunning.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            }
+            return ok(step);
+        }), 1);
+        CompletableFuture<List<StepExecutionResult>> hog = CompletableFuture.supplyAsync(() ->
+            federation.execute(new ExecutionPlan(List.of(step("hog", "select 1")), null), context(), 5_000));
+        assertTrue(hogRunning.await(5, TimeUnit.SECONDS));
+
+        SqlQueryStep waiter = step("waiter", "select 2");
+        FederationExecutor.PlanExecution execution = federation.begin(context(), 200);
+        execution.submit(waiter);
+        // Let the permit wait run out before collecting, so the step reports its own timeout.
+        Thread.sleep(500);
+        StepExecutionResult result = execution.await(new ExecutionPlan(List.of(waiter), null), true).get(0);
+        release.countDown();
+
+        assertEquals(StepExecutionStatus.TIMEOUT, result.status());
+        assertEquals("deadline_exceeded: waiting for source capacity", result.error());
+        assertTrue(result.queueWaitMs() >= 150, "queueWaitMs " + result.queueWaitMs());
+        assertEquals(StepExecutionStatus.SUCCESS, hog.get(5, TimeUnit.SECONDS).get(0).status());
+        assertEquals(Set.of("hog"), executed);
+    }
+
+    @Test
+    void coalescedFollowerRunsOnItsOwnDeadlineWhenTheLeadersRunsOut() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch leaderRunning = new CountDownLatch(1);
+        FederationExecutor federation = executor(connector((step, ctx) -> {
+            if (calls.incrementAndGet() == 1) {
+                leaderRunning.countDown();
+                while (!ctx.isExpired()) Thread.sleep(5);
+                throw new ConnectorException("deadline_exceeded: statement cancelled");
+            }
+            return ok(step);
+        }));
+
+        CompletableFuture<List<StepExecutionResult>> leader = CompletableFuture.supplyAsync(() ->
+            federation.execute(new ExecutionPlan(List.of(step("leader")), null), context(), 300, true));
+        assertTrue(leaderRunning.await(5, TimeUnit.SECONDS));
+
+        List<StepExecutionResult> follower = federation.execute(new ExecutionPlan(List.of(step("follower")), null), context(), 5_000, true);
+
+        assertEquals(StepExecutionStatus.TIMEOUT, leader.get(5, TimeUnit.SECONDS).get(0).status());
+        assertEquals(StepExecutionStatus.SUCCESS, follower.get(0).status());
+        assertEquals("follower", follower.get(0).stepId());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void submittedStepsStartBeforeAwait_andUnreadyOnesWaitForIt() throws Exception {
+        Set<String> started = ConcurrentHashMap.newKeySet();
+        CountDownLatch aStarted = new CountDownLatch(1);
+        FederationExecutor federation = executor(connector((step, ctx) -> {
+            started.add(step.stepId());
+            if (step.stepId().equals("a")) aStarted.countDown();
+            return ok(step);
+        }));
+        SqlQueryStep a = step("a", "select 1");
+        SqlQueryStep b = step("b", "select 2", "a");
+        SqlQueryStep c = step("c", "select 3", "later");
+        SqlQueryStep later = step("later", "select 4");
+
+        FederationExecutor.PlanExecution execution = federation.begin(context(), 5_000);
+        execution.submit(a);
+        execution.submit(c);
+
+        assertTrue(aStarted.await(5, TimeUnit.SECONDS));
+        assertFalse(started.contains("c"));
+
+        List<StepExecutionResult> results = execution.await(new ExecutionPlan(List.of(a, b, later, c), null), false);
+
+        assertEquals(List.of("a", "b", "later", "c"), results.stream().map(StepExecutionResult::stepId).toList());
+        assertTrue(results.stream().allMatch(r -> r.status() == StepExecutionStatus.SUCCESS));
+        assertEquals(Set.of("a", "b", "later", "c"), started);
+    }
+
+    @Test
+    void resetForgetsSubmittedSteps() {
+        Set<String> started = ConcurrentHashMap.newKeySet();
+        FederationExecutor federation = executor(connector((step, ctx) -> {
+            started.add(step.stepId());
+            return ok(step);
+        }));
+
+        FederationExecutor.PlanExecution execution = federation.begin(context(), 5_000);
+        execution.submit(step("first_try", "select 1"));
+        execution.reset();
+        SqlQueryStep retry = step("retry", "select 2");
+
+        List<StepExecutionResult> results = execution.await(new ExecutionPlan(List.of(retry), null), false);
+
+        assertEquals(List.of("retry"), results.stream().map(StepExecutionResult::stepId).toList());
+    }
+
+    @Test
+    void timeoutBudgetStartsAtFirstSubmit() throws Exception {
+        FederationExecutor federation = executor(connector((step, ctx) -> {
+            Thread.sleep(100);
+            return ok(step);
+        }));
+        SqlQueryStep a = step("a", "select 1");
+
+        FederationExecutor.PlanExecution execution = federation.begin(context(), 300);
+        // Planning time before the first step does not count against the budget.
+        Thread.sleep(400);
+        execution.submit(a);
+
+        List<StepExecutionResult> results = execution.await(new ExecutionPlan(List.of(a), null), false);
+        assertEquals(StepExecutionStatus.SUCCESS, results.get(0).status());
+    }
+
+    @Test
+    void stepsStillRunningAtTheDeadlineTimeOut() {
+        FederationExecutor federation = executor(connector((step, ctx) -> {
+            if (step.stepId().equals("slow")) Thread.sleep(2_000);
+            return ok(step);
+        }));
+        ExecutionPlan plan = new ExecutionPlan(List.of(step("fast", "select 1"), step("slow", "select 2")), null);
+
+        List<StepExecutionResult> partial = federation.execute(plan, context(), 200, true);
+        assertEquals(StepExecutionStatus.SUCCESS, partial.get(0).status());
+        assertEquals(StepExecutionStatus.TIMEOUT, partial.get(1).status());
+
+        assertThrows(FederationExecutionException.class, () -> federation.execute(plan, context(), 200, false));
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.anirudhk_tech.janus.federation;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> flight = new SingleFlight<>(registry, "test.flight");
+
+    /**
+     * Starts a leader whose work blocks until {@code release} opens, and returns once it is running.
+     */
+    private CompletableFuture<SingleFlight.Outcome<String>> leader(CountDownLatch release, ThrowingSupplier result) throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<SingleFlight.Outcome<String>> leader = CompletableFuture.supplyAsync(() -> {
+            try {
+                return flight.run("k", () -> {
+                    running.countDown();
+                    release.await();
+                    return result.get();
+                }, 5_000);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        return leader;
+    }
+
+    private interface ThrowingSupplier {
+        String get() throws Exception;
+    }
+
+    @Test
+    void followerSharesTheLeadersResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<SingleFlight.Outcome<String>> leader = leader(release, () -> "v" + calls.incrementAndGet());
+
+        CompletableFuture<SingleFlight.Outcome<String>> follower = CompletableFuture.supplyAsync(() -> {
+            try {
+                return flight.run("k", () -> "v" + calls.incrementAndGet(), 5_000);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // The follower has to have joined before the leader finishes.
+        while (registry.get("test.flight.calls").tag("role", "follower").counter().count() < 1) Thread.sleep(1);
+        release.countDown();
+
+        assertEquals(new SingleFlight.Outcome<>("v1", false), leader.get(5, TimeUnit.SECONDS));
+        assertEquals(new SingleFlight.Outcome<>("v1", true), follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(0.5, registry.get("test.flight.coalescing.ratio").gauge().value());
+    }
+
+    @Test
+    void followerGetsTheLeadersException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalArgumentException failure = new IllegalArgumentException("boom");
+        leader(release, () -> {
+            throw failure;
+        });
+
+        CompletableFuture<Exception> follower = CompletableFuture.supplyAsync(() ->
+            assertThrows(Exception.class, () -> flight.run("k", () -> "unused", 5_000)));
+        while (registry.get("test.flight.calls").tag("role", "follower").counter().count() < 1) Thread.sleep(1);
+        release.countDown();
+
+        assertSame(failure, follower.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void leaderErrorStillCompletesFollowers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        leader(release, () -> {
+            throw new AssertionError("leader died");
+        });
+
+        CompletableFuture<Throwable> follower = CompletableFuture.supplyAsync(() ->
+            assertThrows(AssertionError.class, () -> flight.run("k", () -> "unused", 60_000)));
+        while (registry.get("test.flight.calls").tag("role", "follower").counter().count() < 1) Thread.sleep(1);
+        release.countDown();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertEquals("leader died", follower.get().getMessage());
+        });
+    }
+
+    @Test
+    void followerWaitsOnlyUpToItsOwnTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<SingleFlight.Outcome<String>> leader = leader(release, () -> "slow");
+
+        long start = System.nanoTime();
+        assertThrows(TimeoutException.class, () -> flight.run("k", () -> "unused", 50));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+
+        assertFalse(leader.isDone());
+        release.countDown();
+        assertEquals("slow", leader.get(5, TimeUnit.SECONDS).value());
+    }
+}
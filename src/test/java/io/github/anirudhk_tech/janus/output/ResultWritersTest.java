@@ -0,0 +1,123 @@
+package io.github.anirudhk_tech.janus.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.anirudhk_tech.janus.connectors.ColumnarRows;
+import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
+import io.github.anirudhk_tech.janus.federation.StepExecutionStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultWritersTest {
+
+    private static final List<StepExecutionResult> EXECUTION = List.of(
+        step("s1", ColumnarRows.builder(List.of("id", "name"), List.of(ColumnarRows.Kind.INT, ColumnarRows.Kind.STRING))
+            .set(0, 1).set(1, "a,b").endRow()
+            .set(0, 2).set(1, null).endRow()
+            .build()),
+        step("s2", ColumnarRows.builder(List.of("id", "ok"), List.of(ColumnarRows.Kind.LONG, ColumnarRows.Kind.BOOLEAN))
+            .set(0, 3L).set(1, true).endRow()
+            .build())
+    );
+
+    private static StepExecutionResult step(String id, ColumnarRows rows) {
+        return new StepExecutionResult(id, "postgres", StepExecutionStatus.SUCCESS, 1, Map.of("rows", rows), null);
+    }
+
+    private static String written(ResultWriter writer) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(EXECUTION, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void csvUsesOneUnionHeaderAndQuotesWhenNeeded() throws Exception {
+        assertEquals(
+            "step_id,id,name,ok\r\n" +
+            "s1,1,\"a,b\",\r\n" +
+            "s1,2,,\r\n" +
+            "s2,3,,true\r\n",
+            written(new CsvResultWriter())
+        );
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerRow() throws Exception {
+        assertEquals(
+            "{\"step_id\":\"s1\",\"id\":1,\"name\":\"a,b\"}\n" +
+            "{\"step_id\":\"s1\",\"id\":2,\"name\":null}\n" +
+            "{\"step_id\":\"s2\",\"id\":3,\"ok\":true}\n",
+            written(new NdjsonResultWriter(new ObjectMapper()))
+        );
+    }
+
+    @Test
+    void arrowStreamIsReadableByArrowJava() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ArrowStreamResultWriter().write(EXECUTION, out);
+
+        try (RootAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertEquals(List.of("step_id", "id", "name", "ok"), root.getSchema().getFields().stream().map(f -> f.getName()).toList());
+            assertEquals(new ArrowType.Int(64, true), root.getSchema().findField("id").getType());
+
+            assertTrue(reader.loadNextBatch());
+            assertEquals(2, root.getRowCount());
+            assertEquals("s1", root.getVector("step_id").getObject(0).toString());
+            assertEquals(2L, root.getVector("id").getObject(1));
+            assertEquals("a,b", root.getVector("name").getObject(0).toString());
+            assertNull(root.getVector("name").getObject(1));
+
+            assertTrue(reader.loadNextBatch());
+            assertEquals(1, root.getRowCount());
+            assertEquals(true, root.getVector("ok").getObject(0));
+            assertFalse(reader.loadNextBatch());
+        }
+    }
+
+    @Test
+    void negotiatesOnlyExplicitFormats() {
+        ResultWriters writers = new ResultWriters(List.of(new CsvResultWriter(), new NdjsonResultWriter(new ObjectMapper()), new ArrowStreamResultWriter()));
+
+        assertTrue(writers.negotiate("*/*").isEmpty());
+        assertTrue(writers.negotiate("application/json").isEmpty());
+        assertTrue(writers.negotiate("application/json, text/csv").isEmpty());
+        assertTrue(writers.negotiate("text/csv;q=0.5, application/json").isEmpty());
+        assertTrue(writers.negotiate("application/json;q=0.5, text/csv").get() instanceof CsvResultWriter);
+        assertEquals(ArrowStreamResultWriter.ARROW_STREAM, writers.negotiate("text/csv;q=0.5, application/vnd.apache.arrow.stream").get().mediaType());
+        assertTrue(writers.negotiate("application/x-ndjson").get() instanceof NdjsonResultWriter);
+    }
+
+    @Test
+    void statusHeadersNameFailedAndTruncatedSteps() {
+        assertEquals(Map.of(ResultWriters.STATUS_HEADER, "executed"), ResultWriters.statusHeaders(EXECUTION));
+
+        List<StepExecutionResult> partial = List.of(
+            EXECUTION.get(0),
+            new StepExecutionResult("s2", "postgres", StepExecutionStatus.TIMEOUT, 5, null, "deadline_exceeded"),
+            new StepExecutionResult("s3", "postgres", StepExecutionStatus.SUCCESS, 1, Map.of("rows", ColumnarRows.empty(), "truncated", true), null),
+            new StepExecutionResult("s4", "postgres", StepExecutionStatus.FAILURE, 1, null, "boom")
+        );
+        assertEquals(Map.of(
+            ResultWriters.STATUS_HEADER, "partial",
+            ResultWriters.FAILED_STEPS_HEADER, "s2,s4",
+            ResultWriters.TRUNCATED_STEPS_HEADER, "s3"
+        ), ResultWriters.statusHeaders(partial));
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.anirudhk_tech.janus.output;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.anirudhk_tech.janus.connectors.ColumnarRows;
+import io.github.anirudhk_tech.janus.federation.StepExecutionResult;
+import io.github.anirudhk_tech.janus.federation.StepExecutionStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class SqlOutputFormatterTest {
+
+    @Test
+    void clampsWidestColumnsToACommonLevel() {
+        // 1 + 3 * 3 border characters plus 40 + 10 + 4 content = 64; fit into 50.
+        assertArrayEquals(new int[] {26, 10, 4}, SqlOutputFormatter.clampWidths(new int[] {40, 10, 4}, 50));
+        // Two wide columns share the excess; the odd character stays with the rightmost one.
+        assertArrayEquals(new int[] {16, 17, 4}, SqlOutputFormatter.clampWidths(new int[] {30, 30, 4}, 47));
+        // Nothing can shrink below the minimum width.
+        assertArrayEquals(new int[] {6, 6}, SqlOutputFormatter.clampWidths(new int[] {30, 30}, 10));
+    }
+
+    @Test
+    void widthsComeFromTheSampleAndLaterWideCellsAreCut() throws Exception {
+        ColumnarRows rows = ColumnarRows.fromMaps(List.of(
+            Map.of("name", "abcdef"),
+            Map.of("name", "abcdefghijkl")
+        ));
+        StepExecutionResult step = new StepExecutionResult("s1", "postgres", StepExecutionStatus.SUCCESS, 1, Map.of("rows", rows), null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SqlOutputFormatter.write("t", List.of(step), false, 1, out);
+        String text = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(text).contains("| abcdef |").contains("| abcde… |").contains("(2 rows)");
+        assertThat(SqlOutputFormatter.format("t", List.of(step), false)).contains("| abcdefghijkl |");
+    }
+}